@@ -0,0 +1,53 @@
+package com.anecacao.api.auth.config.security;
+
+import com.anecacao.api.auth.data.entity.RoleName;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal reconstruido a partir de los claims firmados del JWT.
+ * getName() devuelve el email para que SecurityContextHolder...getName() siga funcionando igual.
+ */
+@Getter
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String email;
+    private final Set<RoleName> roles;
+    private final long securityVersion;
+    private final Collection<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String email, Collection<RoleName> roles, long securityVersion) {
+        this.id = id;
+        this.email = email;
+        this.roles = roles.isEmpty() ? EnumSet.noneOf(RoleName.class) : EnumSet.copyOf(roles);
+        this.securityVersion = securityVersion;
+        this.authorities = this.roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.name()))
+                .toList();
+    }
+
+    public boolean hasRole(RoleName roleName) {
+        return roles.contains(roleName);
+    }
+
+    public List<String> getRoleNames() {
+        return roles.stream().map(RoleName::name).toList();
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -0,0 +1,42 @@
+package com.anecacao.api.auth.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache acotada de principals por id de usuario, con expiración por TTL.
+ * Guarda la versión de seguridad vigente de cada usuario para que el filtro
+ * pueda rechazar tokens emitidos antes de un cambio de rol sin ir a la base de datos.
+ */
+@Component
+public class AuthenticatedUserCache {
+    private final Cache<Long, AuthenticatedUser> entries;
+
+    public AuthenticatedUserCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                                  @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public AuthenticatedUser get(Long userId) {
+        return entries.getIfPresent(userId);
+    }
+
+    public void put(AuthenticatedUser user) {
+        entries.put(user.getId(), user);
+    }
+
+    public void invalidate(Long userId) {
+        entries.invalidate(userId);
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+}
@@ -0,0 +1,29 @@
+package com.anecacao.api.auth.config.security;
+
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acceso al usuario autenticado de la petición actual. El JwtAuthenticationFilter
+ * verifica el token una sola vez y deja el AuthenticatedUser en el SecurityContext,
+ * así los servicios no vuelven a parsear el header Authorization.
+ */
+@Component
+public class AuthenticatedUserContext {
+
+    public AuthenticatedUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user found in the current request.");
+        }
+
+        return user;
+    }
+
+    public Long getCurrentUserId() {
+        return getCurrentUser().getId();
+    }
+}
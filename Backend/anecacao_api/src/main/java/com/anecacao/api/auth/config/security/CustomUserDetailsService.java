@@ -1,10 +1,8 @@
 package com.anecacao.api.auth.config.security;
 
-import com.anecacao.api.auth.data.dto.UserDTO;
 import com.anecacao.api.auth.data.entity.Role;
 import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.auth.data.entity.UserPassword;
-import com.anecacao.api.auth.data.mapper.UserMapper;
 import com.anecacao.api.auth.data.repository.UserPasswordRepository;
 import com.anecacao.api.auth.data.repository.UserRepository;
 import jakarta.transaction.Transactional;
@@ -25,7 +23,6 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
     private final UserPasswordRepository userPasswordRepository;
-    private final UserMapper userMapper;
 
     @Override
     @Transactional
@@ -49,8 +46,8 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .collect(Collectors.toSet());
      }
 
-    public UserDTO loadUserBasicDTOByEmail (String email) {
-        return userMapper.userToUserDTO(userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found.")));
+    public User loadUserEntityByEmail (String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found."));
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.anecacao.api.auth.config.security;
 
+import com.anecacao.api.auth.data.entity.Role;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.auth.data.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,19 +14,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter  extends OncePerRequestFilter {
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtProvider jwtProvider;
     private final UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     public String getRequestToken (HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
@@ -41,12 +46,9 @@ public class JwtAuthenticationFilter  extends OncePerRequestFilter {
 
         if (StringUtils.hasText(token)) {
             try {
-                jwtProvider.validateToken(token);
-                String email = jwtProvider.getEmailFromJWT(token);
+                Claims claims = jwtProvider.parseClaims(token);
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                UsernamePasswordAuthenticationToken authToken = authenticate(claims);
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -61,4 +63,41 @@ public class JwtAuthenticationFilter  extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UsernamePasswordAuthenticationToken authenticate (Claims claims) {
+        AuthenticatedUser principal = jwtProvider.getAuthenticatedUser(claims);
+
+        // Tokens emitidos antes de los claims de roles: se carga el usuario para obtener sus roles
+        AuthenticatedUser current = principal == null
+                ? loadPrincipal(claims.getSubject())
+                : resolveCurrentPrincipal(principal);
+
+        return new UsernamePasswordAuthenticationToken(current, null, current.getAuthorities());
+    }
+
+    private AuthenticatedUser loadPrincipal (String email) {
+        User user = customUserDetailsService.loadUserEntityByEmail(email);
+        List<RoleName> roles = user.getRoles().stream().map(Role::getName).toList();
+
+        return new AuthenticatedUser(user.getId(), user.getEmail(), roles, user.getSecurityVersion());
+    }
+
+    private AuthenticatedUser resolveCurrentPrincipal (AuthenticatedUser fromToken) {
+        AuthenticatedUser cached = authenticatedUserCache.get(fromToken.getId());
+
+        if (cached != null && cached.getSecurityVersion() == fromToken.getSecurityVersion()) return cached;
+        if (cached != null && cached.getSecurityVersion() > fromToken.getSecurityVersion()) throw revokedToken();
+
+        long currentVersion = userRepository.findSecurityVersionById(fromToken.getId())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found."));
+
+        if (currentVersion != fromToken.getSecurityVersion()) throw revokedToken();
+
+        authenticatedUserCache.put(fromToken);
+        return fromToken;
+    }
+
+    private BadCredentialsException revokedToken () {
+        return new BadCredentialsException("Token is no longer valid, please log in again.");
+    }
 }
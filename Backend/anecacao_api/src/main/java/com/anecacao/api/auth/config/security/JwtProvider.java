@@ -1,6 +1,8 @@
 package com.anecacao.api.auth.config.security;
 
-import com.anecacao.api.auth.data.dto.UserDTO;
+import com.anecacao.api.auth.data.entity.Role;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.data.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +13,20 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtProvider {
+    public static final String ID_CLAIM = "id";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String SECURITY_VERSION_CLAIM = "securityVersion";
+
     private long EXPIRATION_TIME;
     private final SecretKey key;
+    // JwtParser es inmutable y thread-safe, se construye una sola vez
+    private final JwtParser parser;
 
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
@@ -24,11 +34,14 @@ public class JwtProvider {
     public JwtProvider(@Value("${SECURITY_CONSTANT}") String securityConstant, @Value("${EXPIRATION_TIME}") Long expirationTime) {
         this.key = Keys.hmacShaKeyFor(securityConstant.getBytes(StandardCharsets.UTF_8));
         this.EXPIRATION_TIME = expirationTime;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String generateToken (Authentication authentication) {
         String email = authentication.getName();
-        UserDTO user = customUserDetailsService.loadUserBasicDTOByEmail(email);
+        User user = customUserDetailsService.loadUserEntityByEmail(email);
         Date currentTime = new Date ();
         Date expirationTime = new Date (currentTime.getTime() + EXPIRATION_TIME);
 
@@ -36,48 +49,45 @@ public class JwtProvider {
                 .setSubject(email)
                 .setIssuedAt(currentTime)
                 .setExpiration(expirationTime)
-                .claim("id", user.getId())
+                .claim(ID_CLAIM, user.getId())
                 .claim("nationalId", user.getNationalId())
                 .claim("email", user.getEmail())
                 .claim("name", user.getFirstName())
                 .claim("lastName", user.getLastName())
-                .claim("email", user.getEmail())
+                .claim(ROLES_CLAIM, user.getRoles().stream().map(Role::getName).map(RoleName::name).toList())
+                .claim(SECURITY_VERSION_CLAIM, user.getSecurityVersion())
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getEmailFromJWT (String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("id", Long.class);
-    }
-
-    public boolean validateToken (String token) {
+    /**
+     * Verifica la firma y la expiración una sola vez y devuelve los claims.
+     */
+    public Claims parseClaims (String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException ex) {
             throw ex;
-        } catch (JwtException ex) {
+        } catch (JwtException | IllegalArgumentException ex) {
             throw new AuthenticationCredentialsNotFoundException("Invalid JWT token: " + ex.getMessage());
         }
     }
+
+    /**
+     * Construye el principal a partir de los claims. Devuelve null si el token
+     * fue emitido antes de que existieran los claims de roles y versión.
+     */
+    public AuthenticatedUser getAuthenticatedUser(Claims claims) {
+        Long id = claims.get(ID_CLAIM, Long.class);
+        Long securityVersion = claims.get(SECURITY_VERSION_CLAIM, Long.class);
+        Collection<?> roles = claims.get(ROLES_CLAIM, List.class);
+
+        if (id == null || securityVersion == null || roles == null) return null;
+
+        List<RoleName> roleNames = roles.stream()
+                .map(role -> RoleName.valueOf(role.toString()))
+                .toList();
+
+        return new AuthenticatedUser(id, claims.getSubject(), roleNames, securityVersion);
+    }
 }
@@ -2,6 +2,7 @@ package com.anecacao.api.auth.config.security;
 
 import com.anecacao.api.auth.data.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,8 +44,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    JwtAuthenticationFilter jwtAuthenticationFilter (CustomUserDetailsService userService, JwtProvider jwtProvider, UserRepository userRepository) {
-        return new JwtAuthenticationFilter(userService, jwtProvider, userRepository);
+    JwtAuthenticationFilter jwtAuthenticationFilter (CustomUserDetailsService userService, JwtProvider jwtProvider, UserRepository userRepository,
+                                                     AuthenticatedUserCache authenticatedUserCache) {
+        return new JwtAuthenticationFilter(userService, jwtProvider, userRepository, authenticatedUserCache);
     }
 
     @Bean
@@ -68,6 +70,8 @@ public class SecurityConfig {
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
                 .authorizeHttpRequests(auth -> auth
+                        // Las exportaciones en streaming terminan en un dispatch ASYNC ya autorizado
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/auth/**",
                                 "/v3/api-docs",
@@ -90,6 +94,7 @@ public class SecurityConfig {
 
                         // ========== FUMIGATIONS ENDPOINTS ==========
                         .requestMatchers(HttpMethod.PUT, "/fumigations/{id}/status").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/fumigations/status:batch").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/fumigations/{id}").hasAnyRole("CLIENT", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/fumigations").hasAnyRole("ADMIN", "TECHNICIAN", "CLIENT")
                         .requestMatchers(HttpMethod.GET, "/fumigations/info/{id}").hasAnyRole("CLIENT", "TECHNICIAN", "ADMIN")
@@ -97,6 +102,7 @@ public class SecurityConfig {
                         // ========== REPORTS ENDPOINTS - CREACIÓN ==========
                         .requestMatchers(HttpMethod.POST, "/reports/fumigations").hasRole("TECHNICIAN")
                         .requestMatchers(HttpMethod.POST, "/reports/cleanup").hasRole("TECHNICIAN")
+                        .requestMatchers(HttpMethod.GET, "/reports/jobs/*").hasAnyRole("ADMIN", "TECHNICIAN")
 
                         // ========== REPORTS ENDPOINTS - FUMIGATION REPORTS (LECTURA) ==========
                         .requestMatchers(HttpMethod.GET, "/reports/fumigations").hasAnyRole("ADMIN", "TECHNICIAN")
@@ -108,9 +114,18 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/reports/cleanup/by-fumigation/*").hasAnyRole("ADMIN", "TECHNICIAN", "CLIENT")
                         .requestMatchers(HttpMethod.GET, "/reports/cleanup/*").hasAnyRole("ADMIN", "TECHNICIAN", "CLIENT")
 
+                        // ========== REPORTS ENDPOINTS - BÚSQUEDA ==========
+                        .requestMatchers(HttpMethod.GET, "/reports/search").hasAnyRole("ADMIN", "TECHNICIAN")
+
+
+                        // ========== DASHBOARD ENDPOINTS ==========
+                        .requestMatchers(HttpMethod.POST, "/dashboard/status-counts/reconcile").hasRole("ADMIN")
 
                         // ========== SIGNATURES ENDPOINTS ==========
                         .requestMatchers(HttpMethod.POST, "api/signatures").hasRole("TECHNICIAN")
+
+                        // ========== ACTUATOR ==========
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .httpBasic(Customizer.withDefaults());
@@ -3,6 +3,8 @@ package com.anecacao.api.auth.controller;
 import com.anecacao.api.auth.data.dto.*;
 import com.anecacao.api.auth.data.dto.UserResponseDTO;
 import com.anecacao.api.auth.domain.service.UserService;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -47,6 +49,14 @@ public class UserRestController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/users", params = "after")
+    public ResponseEntity<CursorPageDTO<UserResponseDTO>> getUsers(
+            @RequestParam(required = false) String role,
+            CursorRequest cursor
+    ) {
+        return ResponseEntity.ok(userService.getUsersByRole(role, cursor));
+    }
+
     @GetMapping("/users/all")
     public ResponseEntity<Page<UserResponseDTO>> getAllUsers(
             Pageable pageable
@@ -55,6 +65,13 @@ public class UserRestController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/users/all", params = "after")
+    public ResponseEntity<CursorPageDTO<UserResponseDTO>> getAllUsers(
+            CursorRequest cursor
+    ) {
+        return ResponseEntity.ok(userService.getAllUsers(cursor));
+    }
+
     @PutMapping("/users/role")
     public void updateUsersRole(@RequestBody @Valid UserUpdateRoleDTO userUpdateRoleDTO) {
         userService.updateUsersRole(userUpdateRoleDTO);
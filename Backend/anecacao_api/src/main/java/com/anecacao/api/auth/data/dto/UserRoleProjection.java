@@ -0,0 +1,6 @@
+package com.anecacao.api.auth.data.dto;
+
+import com.anecacao.api.auth.data.entity.RoleName;
+
+public record UserRoleProjection(Long userId, RoleName role) {
+}
@@ -1,9 +1,12 @@
 package com.anecacao.api.auth.data.entity;
 
+import com.anecacao.api.common.data.entity.CacheRegions;
 import com.anecacao.api.request.creation.data.entity.Company;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -12,6 +15,7 @@ import java.util.Set;
 @Data
 @Table(name = "users_anecacao")
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,12 +41,17 @@ public class User {
 
     private boolean hasCompletedProfile;
 
+    // Se incrementa cuando cambian los roles para invalidar los tokens emitidos antes
+    @Column(nullable = false)
+    private long securityVersion;
+
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_ROLES)
     private Set<Role> roles;
 
     @OneToMany(mappedBy = "legalRepresentative", cascade = CascadeType.ALL)
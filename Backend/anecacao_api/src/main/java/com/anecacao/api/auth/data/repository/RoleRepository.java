@@ -2,12 +2,21 @@ package com.anecacao.api.auth.data.repository;
 
 import com.anecacao.api.auth.data.entity.Role;
 import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.common.data.entity.CacheRegions;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // Se consulta en cada registro y cambio de rol; el resultado vive en la cache de consultas
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CacheRegions.ROLE_BY_NAME)
+    })
     Optional<Role> findByName(RoleName name);
 }
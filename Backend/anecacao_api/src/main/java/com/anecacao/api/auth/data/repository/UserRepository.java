@@ -1,5 +1,10 @@
 package com.anecacao.api.auth.data.repository;
 
+import com.anecacao.api.auth.data.dto.UserRoleProjection;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.data.repository.KeysetPagingRepository;
+import com.anecacao.api.common.data.repository.KeysetQuery;
 import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.data.entity.User;
 import org.springframework.data.domain.Page;
@@ -9,12 +14,17 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository <User, Long> {
+public interface UserRepository extends JpaRepository <User, Long>, KeysetPagingRepository {
+    String USERS_WITH_ROLES_BY_IDS = "SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids";
+
     boolean existsByNationalIdAndIdNot(String nationalId, Long userId);
 
     boolean existsUserByEmail (String email);
@@ -22,6 +32,23 @@ public interface UserRepository extends JpaRepository <User, Long> {
     @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String email);
 
+    // Revocación de tokens: siempre contra el primario, una réplica atrasada aceptaría tokens ya invalidados
+    @Transactional
+    @Query("SELECT u.securityVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findSecurityVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.anecacao.api.auth.data.dto.UserRoleProjection(u.id, r.name) FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    List<UserRoleProjection> findRolesByUserIds(@Param("userIds") Collection<Long> userIds);
+
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
     Page<User> findByRoleName(@Param("roleName") RoleName roleName, Pageable pageable);
+
+    default CursorPageDTO<User> findByRoleName(RoleName roleName, CursorRequest cursor) {
+        return findSlice(KeysetQuery.byId("User", "u", "EXISTS (SELECT 1 FROM u.roles r WHERE r.name = :roleName)",
+                Map.of("roleName", roleName), USERS_WITH_ROLES_BY_IDS, User.class, User::getId), cursor);
+    }
+
+    default CursorPageDTO<User> findAll(CursorRequest cursor) {
+        return findSlice(KeysetQuery.byId("User", "u", null, Map.of(), USERS_WITH_ROLES_BY_IDS, User.class, User::getId), cursor);
+    }
 }
\ No newline at end of file
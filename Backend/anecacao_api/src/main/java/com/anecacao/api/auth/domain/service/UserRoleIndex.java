@@ -0,0 +1,24 @@
+package com.anecacao.api.auth.domain.service;
+
+import com.anecacao.api.auth.data.entity.RoleName;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria userId -> roles. Se llena bajo demanda y se actualiza
+ * al registrar usuarios o cambiar su rol, de modo que las consultas de rol
+ * no necesitan ir a la base de datos.
+ */
+public interface UserRoleIndex {
+    boolean hasRole(Long userId, RoleName roleName);
+
+    boolean hasAnyRole(Long userId, RoleName... roleNames);
+
+    Map<Long, Set<RoleName>> rolesOf(Collection<Long> userIds);
+
+    void updateRoles(Long userId, Collection<RoleName> roleNames);
+
+    void evict(Long userId);
+}
@@ -3,9 +3,14 @@ package com.anecacao.api.auth.domain.service;
 import com.anecacao.api.auth.data.dto.*;
 import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserService {
     UserRegistrationResponseDTO registerUser(UserRegistrationRequestDTO userRequestDTO);
 
@@ -15,10 +20,14 @@ public interface UserService {
 
     UserDTO getUserInfo();
 
-    User getUserReferenceById (String token);
+    User getCurrentUserReference ();
   
     boolean hasRole(String userId, RoleName roleName);
 
+    boolean hasAnyRole(String userId, RoleName... roleNames);
+
+    List<Long> findUsersWithoutRole(Collection<Long> userIds, RoleName roleName);
+
     boolean hasCompletedProfile();
 
     void updateUsersRole(UserUpdateRoleDTO userUpdateRoleDTO);
@@ -27,5 +36,9 @@ public interface UserService {
 
     Page<UserResponseDTO> getUsersByRole(String role, Pageable pageable);
 
+    CursorPageDTO<UserResponseDTO> getUsersByRole(String role, CursorRequest cursor);
+
     Page<UserResponseDTO> getAllUsers(Pageable pageable);
+
+    CursorPageDTO<UserResponseDTO> getAllUsers(CursorRequest cursor);
 }
@@ -0,0 +1,183 @@
+package com.anecacao.api.auth.domain.service.impl;
+
+import com.anecacao.api.auth.data.dto.UserRoleProjection;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.data.repository.UserRepository;
+import com.anecacao.api.auth.domain.service.UserRoleIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Cada usuario se guarda como una máscara de bits indexada por RoleName.ordinal().
+ * El índice es local a la instancia; los cambios de rol hechos aquí se aplican
+ * después del commit para no publicar roles de una transacción que hace rollback.
+ * Las entradas caducan tras un TTL, que acota lo que tarda en verse un cambio de rol
+ * hecho desde otro nodo.
+ */
+@Service
+public class UserRoleIndexImpl implements UserRoleIndex {
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryRead;
+    private final Cache<Long, Integer> roleMasks;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public UserRoleIndexImpl(UserRepository userRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${security.role-index.max-size:10000}") int maxSize,
+                             @Value("${security.role-index.ttl:PT5M}") Duration ttl) {
+        this(userRepository, transactionManager, meterRegistry, maxSize, ttl, Ticker.systemTicker());
+    }
+
+    UserRoleIndexImpl(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry, int maxSize, Duration ttl, Ticker ticker) {
+        this.userRepository = userRepository;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.roleMasks = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+        this.hits = Counter.builder("auth.role.index.lookups")
+                .description("Role lookups answered from the in-memory index")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.role.index.lookups")
+                .description("Role lookups that had to load roles from the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("auth.role.index.size", roleMasks, Cache::estimatedSize)
+                .description("Users currently held in the role index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean hasRole(Long userId, RoleName roleName) {
+        return (maskOf(userId) & bit(roleName)) != 0;
+    }
+
+    @Override
+    public boolean hasAnyRole(Long userId, RoleName... roleNames) {
+        int wanted = 0;
+        for (RoleName roleName : roleNames) wanted |= bit(roleName);
+
+        return (maskOf(userId) & wanted) != 0;
+    }
+
+    @Override
+    public Map<Long, Set<RoleName>> rolesOf(Collection<Long> userIds) {
+        Map<Long, Set<RoleName>> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            Integer mask = roleMasks.getIfPresent(userId);
+            if (mask == null) {
+                missing.add(userId);
+            } else {
+                hits.increment();
+                result.put(userId, toRoles(mask));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            Map<Long, Integer> loaded = load(missing);
+            missing.forEach(userId -> result.put(userId, toRoles(loaded.getOrDefault(userId, 0))));
+        }
+
+        return result;
+    }
+
+    @Override
+    public void updateRoles(Long userId, Collection<RoleName> roleNames) {
+        int mask = toMask(roleNames);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            roleMasks.put(userId, mask);
+            return;
+        }
+
+        // Mientras la transacción no haga commit se vuelve a leer de la base de datos
+        roleMasks.invalidate(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) roleMasks.put(userId, mask);
+                else roleMasks.invalidate(userId);
+            }
+        });
+    }
+
+    @Override
+    public void evict(Long userId) {
+        roleMasks.invalidate(userId);
+    }
+
+    private int maskOf(Long userId) {
+        Integer mask = roleMasks.getIfPresent(userId);
+        if (mask != null) {
+            hits.increment();
+            return mask;
+        }
+
+        misses.increment();
+        return load(List.of(userId)).getOrDefault(userId, 0);
+    }
+
+    // Los ids sin filas (usuario inexistente) no se guardan en el índice
+    private Map<Long, Integer> load(Collection<Long> userIds) {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (UserRoleProjection row : findRoles(userIds)) {
+            loaded.merge(row.userId(), bit(row.role()), (a, b) -> a | b);
+        }
+
+        // putIfAbsent: no pisar un valor más reciente escrito por updateRoles
+        loaded.forEach(roleMasks.asMap()::putIfAbsent);
+        return loaded;
+    }
+
+    // Dentro de una transacción readOnly la consulta iría a la réplica, que puede
+    // no tener todavía el último cambio de rol; los fallos se leen siempre del primario
+    private List<UserRoleProjection> findRoles(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return userRepository.findRolesByUserIds(userIds);
+        }
+        return primaryRead.execute(status -> userRepository.findRolesByUserIds(userIds));
+    }
+
+    private static int bit(RoleName roleName) {
+        return 1 << roleName.ordinal();
+    }
+
+    private static int toMask(Collection<RoleName> roleNames) {
+        int mask = 0;
+        for (RoleName roleName : roleNames) mask |= bit(roleName);
+        return mask;
+    }
+
+    private static Set<RoleName> toRoles(int mask) {
+        EnumSet<RoleName> roles = EnumSet.noneOf(RoleName.class);
+        for (RoleName roleName : RoleName.values()) {
+            if ((mask & bit(roleName)) != 0) roles.add(roleName);
+        }
+        return roles;
+    }
+}
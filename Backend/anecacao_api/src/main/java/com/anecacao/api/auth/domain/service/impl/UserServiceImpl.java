@@ -1,5 +1,7 @@
 package com.anecacao.api.auth.domain.service.impl;
 
+import com.anecacao.api.auth.config.security.AuthenticatedUserCache;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
 import com.anecacao.api.auth.config.security.JwtProvider;
 import com.anecacao.api.auth.data.dto.*;
 import com.anecacao.api.auth.data.entity.Role;
@@ -12,11 +14,13 @@ import com.anecacao.api.auth.data.repository.UserPasswordRepository;
 import com.anecacao.api.auth.data.repository.UserRepository;
 import com.anecacao.api.auth.domain.exception.*;
 import com.anecacao.api.auth.domain.service.UserPasswordService;
+import com.anecacao.api.auth.domain.service.UserRoleIndex;
 import com.anecacao.api.auth.domain.service.UserService;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 
 import com.anecacao.api.request.creation.data.entity.Company;
 import com.anecacao.api.request.creation.domain.service.CompanyService;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,7 +31,11 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -43,7 +51,11 @@ public class UserServiceImpl implements UserService {
     private final JwtProvider jwtProvider;
     private final PasswordEncoder passwordEncoder;
     private final UserPasswordRepository userPasswordRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final AuthenticatedUserContext authenticatedUserContext;
+    private final UserRoleIndex userRoleIndex;
 
+    @Transactional
     @Override
     public UserRegistrationResponseDTO registerUser(UserRegistrationRequestDTO userRequestDTO) {
         boolean credentialsAreAvailable = areUserCredentialsAvailable(userRequestDTO);
@@ -58,10 +70,12 @@ public class UserServiceImpl implements UserService {
 
         userRepository.save(newUser);
         userPasswordService.savePassword(newUser, userRequestDTO.getPassword());
+        userRoleIndex.updateRoles(newUser.getId(), Set.of(RoleName.ROLE_CLIENT));
 
         return userMapper.userToUserRegistrationResponseDTO(newUser);
     }
 
+    @Transactional
     @Override
     public void completeUserInfo(UserProfileSetUpRequestDTO request) {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -90,6 +104,8 @@ public class UserServiceImpl implements UserService {
         userRepository.save(user);
     }
 
+    // Se consulta justo después de completar el perfil: se lee del primario para no ver un estado atrasado
+    @Transactional
     @Override
     public boolean hasCompletedProfile() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -98,6 +114,7 @@ public class UserServiceImpl implements UserService {
         return user.isHasCompletedProfile();
     }
 
+    @Transactional
     @Override
     public UserLoginResponseDTO loginUser(UserLoginRequestDTO userLoginRequestDTO) {
         Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
@@ -117,6 +134,7 @@ public class UserServiceImpl implements UserService {
         return userLoginResponseDTO;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public UserDTO getUserInfo() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -126,6 +144,7 @@ public class UserServiceImpl implements UserService {
         return userMapper.userToUserDTO(user);
     }
 
+    @Transactional
     @Override
     public void updateUsersRole(UserUpdateRoleDTO userUpdateRoleDTO) {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -139,7 +158,11 @@ public class UserServiceImpl implements UserService {
 
         user.getRoles().clear();
         user.getRoles().add(role);
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
         userRepository.save(user);
+
+        authenticatedUserCache.invalidate(user.getId());
+        userRoleIndex.updateRoles(user.getId(), Set.of(role.getName()));
     }
 
     private User getUser(UserUpdateRoleDTO userUpdateRoleDTO) {
@@ -175,9 +198,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User getUserReferenceById (String token) {
-        jwtProvider.validateToken(token);
-        return userRepository.getReferenceById(jwtProvider.getUserIdFromJWT(token));
+    public User getCurrentUserReference () {
+        return userRepository.getReferenceById(authenticatedUserContext.getCurrentUserId());
     }
 
     private User buildNewUser (UserRegistrationRequestDTO userDTO, Set<Role> roles) {
@@ -192,66 +214,83 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean hasRole(String userId, RoleName roleName) {
-        User user = userRepository.findById(Long.parseLong(userId))
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return userRoleIndex.hasRole(Long.parseLong(userId), roleName);
+    }
 
-        return user.getRoles().stream()
-                .anyMatch(role -> role.getName().equals(roleName));
+    @Override
+    public boolean hasAnyRole(String userId, RoleName... roleNames) {
+        return userRoleIndex.hasAnyRole(Long.parseLong(userId), roleNames);
+    }
+
+    @Override
+    public List<Long> findUsersWithoutRole(Collection<Long> userIds, RoleName roleName) {
+        // Una sola consulta (IN) para los ids que no estén en el índice de roles
+        Map<Long, Set<RoleName>> roles = userRoleIndex.rolesOf(userIds);
+
+        return userIds.stream()
+                .distinct()
+                .filter(id -> !roles.get(id).contains(roleName))
+                .toList();
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<UserResponseDTO> getUsersByRole(String role, Pageable pageable) {
         if (role == null) {
             return Page.empty();
         }
 
-        RoleName roleName;
-        try {
-            // Convertir el string del parámetro al enum RoleName
-            roleName = RoleName.valueOf("ROLE_" + role.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid role: " + role);
+        Page<User> users = userRepository.findByRoleName(parseRoleName(role), pageable);
+        return users.map(user -> toUserResponseDTO(user, "unknown"));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<UserResponseDTO> getUsersByRole(String role, CursorRequest cursor) {
+        if (role == null) {
+            return new CursorPageDTO<>(List.of(), null, false);
         }
 
-        Page<User> users = userRepository.findByRoleName(roleName, pageable);
-
-        return users.map(user -> {
-            UserResponseDTO dto = new UserResponseDTO();
-            dto.setId(user.getId());
-            dto.setNationalId(user.getNationalId());
-            dto.setFirstName(user.getFirstName());
-            dto.setLastName(user.getLastName());
-            dto.setEmail(user.getEmail());
-            String userRole = user.getRoles().stream()
-                    .map(r -> r.getName().toString().replace("ROLE_", "").toLowerCase())
-                    .findFirst()
-                    .orElse("unknown");
-            dto.setRole(userRole);
-            return dto;
-        });
+        return userRepository.findByRoleName(parseRoleName(role), cursor)
+                .map(user -> toUserResponseDTO(user, "unknown"));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<UserResponseDTO> getAllUsers(Pageable pageable) {
         Page<User> usersPage = userRepository.findAll(pageable);
+        return usersPage.map(user -> toUserResponseDTO(user, "no_role"));
+    }
 
-        return usersPage.map(user -> {
-            UserResponseDTO dto = new UserResponseDTO();
-            dto.setId(user.getId());
-            dto.setNationalId(user.getNationalId());
-            dto.setFirstName(user.getFirstName());
-            dto.setLastName(user.getLastName());
-            dto.setEmail(user.getEmail());
-
-            String userRole = user.getRoles().stream()
-                    .map(role -> role.getName().toString().replace("ROLE_", "").toLowerCase())
-                    .findFirst()
-                    .orElse("no_role");
-
-            dto.setRole(userRole);
-            return dto;
-        });
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<UserResponseDTO> getAllUsers(CursorRequest cursor) {
+        return userRepository.findAll(cursor).map(user -> toUserResponseDTO(user, "no_role"));
     }
 
+    private RoleName parseRoleName(String role) {
+        try {
+            // Convertir el string del parámetro al enum RoleName
+            return RoleName.valueOf("ROLE_" + role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + role);
+        }
+    }
 
+    private UserResponseDTO toUserResponseDTO(User user, String missingRole) {
+        UserResponseDTO dto = new UserResponseDTO();
+        dto.setId(user.getId());
+        dto.setNationalId(user.getNationalId());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setEmail(user.getEmail());
+
+        String userRole = user.getRoles().stream()
+                .map(role -> role.getName().toString().replace("ROLE_", "").toLowerCase())
+                .findFirst()
+                .orElse(missingRole);
+
+        dto.setRole(userRole);
+        return dto;
+    }
 }
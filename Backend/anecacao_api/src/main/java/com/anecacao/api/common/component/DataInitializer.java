@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 @RequiredArgsConstructor
@@ -16,6 +17,7 @@ public class DataInitializer implements ApplicationRunner {
     private final UserService userService;
     private final RoleRepository roleRepository;
 
+    @Transactional
     @Override
     public void run(ApplicationArguments args) {
         for (RoleName roleName : RoleName.values()) {
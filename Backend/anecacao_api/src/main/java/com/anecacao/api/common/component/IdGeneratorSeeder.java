@@ -0,0 +1,88 @@
+package com.anecacao.api.common.component;
+
+import com.anecacao.api.common.data.entity.IdGenerators;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+/**
+ * Las tablas que antes usaban IDENTITY ya tienen filas: antes de aceptar peticiones se sube cada
+ * segmento de {@link IdGenerators#TABLE} por encima del MAX(id) actual para que los bloques
+ * reservados no choquen con ids existentes. Corre antes de que arranque el servidor web.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdGeneratorSeeder implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(this::findTableGenerator)
+                .filter(Objects::nonNull)
+                .forEach(generator -> transaction.executeWithoutResult(status -> seed(generator)));
+    }
+
+    private TableGenerator findTableGenerator(EntityType<?> entity) {
+        // Las claves compuestas (@IdClass) no usan generador
+        if (!entity.hasSingleIdAttribute()) {
+            return null;
+        }
+
+        Field id = ReflectionUtils.findField(entity.getJavaType(), entity.getId(entity.getIdType().getJavaType()).getName());
+        TableGenerator generator = id != null ? id.getAnnotation(TableGenerator.class) : null;
+
+        return generator != null && IdGenerators.TABLE.equals(generator.table()) ? generator : null;
+    }
+
+    private void seed(TableGenerator generator) {
+        String segment = generator.pkColumnValue();
+        long maxId = ((Number) entityManager
+                .createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM " + segment)
+                .getSingleResult()).longValue();
+
+        if (maxId == 0) {
+            return;
+        }
+
+        // El optimizador pooled entrega (next_val - allocationSize, next_val]
+        long floor = maxId + generator.allocationSize();
+        int updated = entityManager.createNativeQuery(
+                        "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = :floor " +
+                        "WHERE " + IdGenerators.SEGMENT_COLUMN + " = :segment AND " + IdGenerators.VALUE_COLUMN + " < :floor")
+                .setParameter("floor", floor)
+                .setParameter("segment", segment)
+                .executeUpdate();
+
+        if (updated == 0 && countSegment(segment) == 0) {
+            entityManager.createNativeQuery(
+                            "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") " +
+                            "VALUES (:segment, :floor)")
+                    .setParameter("segment", segment)
+                    .setParameter("floor", floor)
+                    .executeUpdate();
+        }
+    }
+
+    private long countSegment(String segment) {
+        return ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.SEGMENT_COLUMN + " = :segment")
+                .setParameter("segment", segment)
+                .getSingleResult()).longValue();
+    }
+}
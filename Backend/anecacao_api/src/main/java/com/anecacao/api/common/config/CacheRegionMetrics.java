@@ -0,0 +1,68 @@
+package com.anecacao.api.common.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+
+/**
+ * Publica aciertos, fallos y ratio de aciertos por región de la cache de segundo nivel,
+ * leídos de las estadísticas JCache que Caffeine registra en JMX.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheRegionMetrics implements MeterBinder {
+
+    // Se inyecta la fábrica para enlazar después de que Hibernate haya creado las regiones
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jCacheRegionFactory)) {
+            return;
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        URI cacheManagerUri = jCacheRegionFactory.getCacheManager().getURI();
+        for (ObjectName name : server.queryNames(statisticsPattern(cacheManagerUri), null)) {
+            CacheStatisticsMXBean statistics = JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+            String region = name.getKeyProperty("Cache");
+
+            FunctionCounter.builder("hibernate.cache.region.gets", statistics, CacheStatisticsMXBean::getCacheHits)
+                    .tags("region", region, "result", "hit")
+                    .description("Second-level cache lookups that found an entry")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.cache.region.gets", statistics, CacheStatisticsMXBean::getCacheMisses)
+                    .tags("region", region, "result", "miss")
+                    .description("Second-level cache lookups that went to the database")
+                    .register(registry);
+            Gauge.builder("hibernate.cache.region.hit.ratio", statistics, s -> s.getCacheHitPercentage() / 100.0)
+                    .tag("region", region)
+                    .description("Share of second-level cache lookups served from the cache")
+                    .register(registry);
+        }
+    }
+
+    private static ObjectName statisticsPattern(URI cacheManagerUri) {
+        try {
+            return new ObjectName("javax.cache:type=CacheStatistics,CacheManager=" + cacheManagerUri + ",*");
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException("Invalid cache manager URI: " + cacheManagerUri, e);
+        }
+    }
+}
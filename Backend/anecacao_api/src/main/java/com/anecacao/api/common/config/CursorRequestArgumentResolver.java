@@ -0,0 +1,35 @@
+package com.anecacao.api.common.config;
+
+import com.anecacao.api.common.data.dto.CursorRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resuelve {@link CursorRequest} desde {@code ?after=<token>&size=<n>}. Los endpoints activan el modo
+ * cursor con {@code @GetMapping(params = "after")}; {@code after} vacío pide la primera página.
+ */
+public class CursorRequestArgumentResolver implements HandlerMethodArgumentResolver {
+    static final String AFTER_PARAMETER = "after";
+    static final String SIZE_PARAMETER = "size";
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CursorRequest.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public CursorRequest resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                         NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        String size = webRequest.getParameter(SIZE_PARAMETER);
+
+        try {
+            return new CursorRequest(webRequest.getParameter(AFTER_PARAMETER),
+                    size == null || size.isBlank() ? CursorRequest.DEFAULT_SIZE : Integer.parseInt(size));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+    }
+}
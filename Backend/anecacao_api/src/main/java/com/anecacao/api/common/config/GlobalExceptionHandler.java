@@ -2,15 +2,25 @@ package com.anecacao.api.common.config;
 
 import com.anecacao.api.auth.data.dto.ErrorResponseDTO;
 import com.anecacao.api.auth.domain.exception.*;
+import com.anecacao.api.common.domain.exception.InvalidCursorException;
+import com.anecacao.api.reporting.domain.exception.CertificateRenderBusyException;
+import com.anecacao.api.reporting.domain.exception.IdempotencyKeyReusedException;
 import com.anecacao.api.reporting.domain.exception.IndustrialSafetyViolationException;
 import com.anecacao.api.reporting.domain.exception.InvalidFumigationStatusException;
+import com.anecacao.api.reporting.domain.exception.ReportJobNotFoundException;
 import com.anecacao.api.reporting.domain.service.exception.TechnicalRoleException;
 import com.anecacao.api.request.creation.domain.exception.CompanyNotFoundException;
 import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
 import com.anecacao.api.request.creation.domain.exception.FumigationValidationException;
+import com.anecacao.api.request.creation.domain.exception.InvalidStatusTransitionException;
+import com.anecacao.api.signature.domain.exception.InvalidSignatureImageException;
+import com.anecacao.api.signature.domain.exception.SignatureImageTooLargeException;
+import com.anecacao.api.signature.domain.exception.SignatureNotFoundException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.anecacao.api.request.creation.domain.exception.FumigationApplicationNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -149,6 +159,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(buildResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidCursorException(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidStatusTransitionException(InvalidStatusTransitionException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDTO> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(buildResponse("The resource was modified by another request. Reload it and try again."));
+    }
+
+    @ExceptionHandler(CertificateRenderBusyException.class)
+    public ResponseEntity<ErrorResponseDTO> handleCertificateRenderBusyException(CertificateRenderBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidSignatureImageException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidSignatureImageException(InvalidSignatureImageException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(SignatureImageTooLargeException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSignatureImageTooLargeException(SignatureImageTooLargeException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(SignatureNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSignatureNotFoundException(SignatureNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(ReportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReportJobNotFoundException(ReportJobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(buildResponse(ex.getMessage()));
+    }
+
     private ErrorResponseDTO buildResponse (String message) {
         ErrorResponseDTO error = new ErrorResponseDTO();
         error.setMessage(message);
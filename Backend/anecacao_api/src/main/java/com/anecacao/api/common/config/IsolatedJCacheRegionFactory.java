@@ -0,0 +1,21 @@
+package com.anecacao.api.common.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Da a cada SessionFactory su propio CacheManager de Caffeine. Con la URI por defecto todos los
+ * contextos de la JVM (por ejemplo los de los tests) compartirían regiones y el primero en cerrar
+ * las cerraría para los demás. Caffeine sigue leyendo las regiones de application.conf.
+ */
+public class IsolatedJCacheRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected URI getUri(SessionFactoryOptions settings, Map<String, Object> properties) {
+        return URI.create("anecacao-hibernate-" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,78 @@
+package com.anecacao.api.common.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Envía las transacciones {@code readOnly} a la réplica mientras {@link ReplicaLagMonitor} la
+ * considere al día; todo lo demás va al primario. Debe envolverse en un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: el gestor de
+ * transacciones pide la conexión antes de marcar la transacción como de solo lectura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter replicaFallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = routedConnections(meterRegistry, "primary");
+        this.replicaConnections = routedConnections(meterRegistry, "replica");
+        this.replicaFallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections sent to the primary because the replica failed")
+                .register(meterRegistry);
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && lagMonitor.isReplicaUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineTargetDataSource() != replica) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            // Réplica caída: se descarta hasta el próximo latido correcto y se sirve desde el primario
+            lagMonitor.markReplicaUnavailable();
+            replicaFallbacks.increment();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private static Counter routedConnections(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.connections")
+                .tag("target", target)
+                .description("Connections handed out by the read/write routing data source")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.anecacao.api.common.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Mide el retraso de la réplica con un latido: escribe la hora actual en el primario y lee el
+ * último latido que llegó a la réplica. Si la réplica no responde o va más atrasada que
+ * {@code maxLag}, las lecturas vuelven al primario hasta que se ponga al día. La medida puede
+ * exceder el retraso real en hasta un intervalo de latido.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+    static final String HEARTBEAT_TABLE = "replica_heartbeat";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final Clock clock;
+
+    private volatile long lagMillis = -1;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Clock clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout((int) Math.max(1, maxLag.toSeconds()));
+        this.maxLagMillis = maxLag.toMillis();
+        this.clock = clock;
+    }
+
+    public void createHeartbeatTable() {
+        primary.execute("CREATE TABLE IF NOT EXISTS " + HEARTBEAT_TABLE +
+                " (id INT NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval:1s}")
+    public void heartbeat() {
+        long now = clock.millis();
+
+        try {
+            if (primary.update("UPDATE " + HEARTBEAT_TABLE + " SET beat_millis = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO " + HEARTBEAT_TABLE + " (id, beat_millis) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            // Sin primario no hay latido nuevo; la réplica se juzga con el último que haya recibido
+        }
+
+        try {
+            Long lastBeat = replica.query("SELECT beat_millis FROM " + HEARTBEAT_TABLE + " WHERE id = 1",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            lagMillis = lastBeat != null ? Math.max(0, now - lastBeat) : -1;
+        } catch (DataAccessException e) {
+            lagMillis = -1;
+        }
+
+        replicaUsable = lagMillis >= 0 && lagMillis <= maxLagMillis;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public void markReplicaUnavailable() {
+        replicaUsable = false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagMillis < 0 ? Double.NaN : m.lagMillis / 1000.0)
+                .baseUnit("seconds")
+                .description("Replication lag measured by the heartbeat, NaN when the replica is unreachable")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", this, m -> m.replicaUsable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(registry);
+    }
+}
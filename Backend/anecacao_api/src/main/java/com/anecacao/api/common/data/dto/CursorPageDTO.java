@@ -0,0 +1,21 @@
+package com.anecacao.api.common.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public <U> CursorPageDTO<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPageDTO<>(content.stream().<U>map(converter).toList(), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,18 @@
+package com.anecacao.api.common.data.dto;
+
+/**
+ * Parámetros del modo cursor: {@code after} es el token opaco devuelto como {@code nextCursor}
+ * por la página anterior (vacío para la primera página).
+ */
+public record CursorRequest(String after, int size) {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public CursorRequest {
+        size = Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static CursorRequest first(int size) {
+        return new CursorRequest(null, size);
+    }
+}
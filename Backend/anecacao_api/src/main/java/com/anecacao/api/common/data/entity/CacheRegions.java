@@ -0,0 +1,16 @@
+package com.anecacao.api.common.data.entity;
+
+/**
+ * Nombres de las regiones de la cache de segundo nivel. Cada región tiene su tamaño y TTL
+ * declarados en application.conf.
+ */
+public final class CacheRegions {
+    public static final String ROLES = "roles";
+    public static final String ROLE_BY_NAME = "role-by-name";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "user-roles";
+    public static final String COMPANIES = "companies";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,17 @@
+package com.anecacao.api.common.data.entity;
+
+/**
+ * Tabla compartida de generadores de ids. Cada entidad reserva bloques de {@link #ALLOCATION_SIZE}
+ * ids por viaje a la base, lo que permite a Hibernate agrupar los INSERT en lotes JDBC
+ * (con IDENTITY cada fila necesita su propio round-trip para conocer el id).
+ * El valor de segmento de cada entidad es el nombre de su tabla.
+ */
+public final class IdGenerators {
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "entity";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.anecacao.api.common.data.repository;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class IdOrdering {
+    private IdOrdering() {
+    }
+
+    // El IN no conserva el orden de la primera fase
+    static <R> List<R> sortByIds(List<R> content, List<Long> ids, Function<R, Long> idExtractor) {
+        Map<Long, Integer> positions = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) positions.put(ids.get(i), i);
+
+        return content.stream()
+                .sorted(Comparator.comparing(row -> positions.get(idExtractor.apply(row))))
+                .toList();
+    }
+}
@@ -0,0 +1,28 @@
+package com.anecacao.api.common.data.repository;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Describe una consulta paginada en dos fases: primero una página de ids (sin joins a colecciones,
+ * así no hace falta DISTINCT) y luego el contenido cargado solo para esos ids.
+ *
+ * @param alias        alias de la raíz en {@code idQuery}, sobre el que se aplica el orden pedido
+ * @param idQuery      JPQL que selecciona únicamente el id de la raíz, p. ej. {@code SELECT fa.id FROM ... fa WHERE ...}
+ * @param countQuery   JPQL de conteo sobre las mismas condiciones que {@code idQuery}
+ * @param contentQuery JPQL que carga el contenido y recibe los ids en el parámetro {@code :ids}
+ * @param parameters   parámetros compartidos por {@code idQuery} y {@code countQuery}
+ * @param resultType   tipo de cada fila de {@code contentQuery}
+ * @param idExtractor  obtiene el id de cada fila para restaurar el orden de la primera fase
+ */
+public record IdPageQuery<R>(
+        String alias,
+        String idQuery,
+        String countQuery,
+        String contentQuery,
+        Map<String, Object> parameters,
+        Class<R> resultType,
+        Function<R, Long> idExtractor
+) {
+    public static final String IDS_PARAMETER = "ids";
+}
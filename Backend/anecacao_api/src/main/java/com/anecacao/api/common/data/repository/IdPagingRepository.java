@@ -0,0 +1,12 @@
+package com.anecacao.api.common.data.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Fragmento de repositorio para listados filtrados por joins: pagina sobre ids y carga el
+ * contenido solo de la página pedida, sin DISTINCT ni paginación en memoria.
+ */
+public interface IdPagingRepository {
+    <R> Page<R> findPage(IdPageQuery<R> query, Pageable pageable);
+}
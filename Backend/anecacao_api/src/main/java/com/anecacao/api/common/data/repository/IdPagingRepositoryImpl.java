@@ -0,0 +1,60 @@
+package com.anecacao.api.common.data.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.Map;
+
+public class IdPagingRepositoryImpl implements IdPagingRepository {
+    private static final String ID_PROPERTY = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <R> Page<R> findPage(IdPageQuery<R> query, Pageable pageable) {
+        List<Long> ids = findIds(query, pageable);
+        if (ids.isEmpty()) {
+            return PageableExecutionUtils.getPage(List.of(), pageable, () -> count(query));
+        }
+
+        List<R> content = entityManager.createQuery(query.contentQuery(), query.resultType())
+                .setParameter(IdPageQuery.IDS_PARAMETER, ids)
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(IdOrdering.sortByIds(content, ids, query.idExtractor()),
+                pageable, () -> count(query));
+    }
+
+    private List<Long> findIds(IdPageQuery<?> query, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(query.idQuery(), withIdTieBreaker(pageable.getSort()), query.alias());
+        TypedQuery<Long> idQuery = bind(entityManager.createQuery(jpql, Long.class), query.parameters());
+
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset());
+            idQuery.setMaxResults(pageable.getPageSize());
+        }
+        return idQuery.getResultList();
+    }
+
+    private long count(IdPageQuery<?> query) {
+        return bind(entityManager.createQuery(query.countQuery(), Long.class), query.parameters()).getSingleResult();
+    }
+
+    // Orden estable entre páginas aunque el criterio pedido tenga empates
+    private static Sort withIdTieBreaker(Sort sort) {
+        return sort.getOrderFor(ID_PROPERTY) != null ? sort : sort.and(Sort.by(ID_PROPERTY));
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, Map<String, Object> parameters) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
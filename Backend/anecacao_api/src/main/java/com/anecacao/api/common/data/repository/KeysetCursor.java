@@ -0,0 +1,31 @@
+package com.anecacao.api.common.data.repository;
+
+import com.anecacao.api.common.domain.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición dentro de un listado ordenado por (clave, id). Se serializa como base64url de
+ * {@code id:clave} para que el cliente lo trate como un token opaco.
+ */
+record KeysetCursor(String key, long id) {
+    private static final char SEPARATOR = ':';
+
+    String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.anecacao.api.common.data.repository;
+
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+
+/**
+ * Fragmento de repositorio para el modo cursor de los listados: el costo de cada página no
+ * depende de su profundidad y no se ejecuta ningún COUNT.
+ */
+public interface KeysetPagingRepository {
+    <R> CursorPageDTO<R> findSlice(KeysetQuery<R> query, CursorRequest request);
+}
@@ -0,0 +1,75 @@
+package com.anecacao.api.common.data.repository;
+
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.domain.exception.InvalidCursorException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class KeysetPagingRepositoryImpl implements KeysetPagingRepository {
+    private static final String CURSOR_KEY = "cursorKey";
+    private static final String CURSOR_ID = "cursorId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <R> CursorPageDTO<R> findSlice(KeysetQuery<R> query, CursorRequest request) {
+        KeysetCursor after = KeysetCursor.decode(request.after());
+        List<Object[]> rows = findKeys(query, after, request.size());
+
+        boolean hasNext = rows.size() > request.size();
+        if (hasNext) rows = rows.subList(0, request.size());
+        if (rows.isEmpty()) return new CursorPageDTO<>(List.of(), null, false);
+
+        List<Long> ids = rows.stream().map(row -> (Long) row[1]).toList();
+        List<R> content = entityManager.createQuery(query.contentQuery(), query.resultType())
+                .setParameter(IdPageQuery.IDS_PARAMETER, ids)
+                .getResultList();
+
+        Object[] last = rows.get(rows.size() - 1);
+        String nextCursor = hasNext ? new KeysetCursor(String.valueOf(last[0]), (Long) last[1]).encode() : null;
+
+        return new CursorPageDTO<>(IdOrdering.sortByIds(content, ids, query.idExtractor()), nextCursor, hasNext);
+    }
+
+    // Lee size + 1 claves para saber si existe otra página sin contar
+    private List<Object[]> findKeys(KeysetQuery<?> query, KeysetCursor after, int size) {
+        String alias = query.alias();
+        String key = alias + "." + query.keyProperty();
+        String id = alias + "." + KeysetQuery.ID;
+        boolean orderedById = KeysetQuery.ID.equals(query.keyProperty());
+
+        List<String> conditions = new ArrayList<>();
+        if (query.where() != null) conditions.add("(" + query.where() + ")");
+        if (after != null) {
+            conditions.add(orderedById
+                    ? id + " < :" + CURSOR_ID
+                    : "(" + key + " < :" + CURSOR_KEY + " OR (" + key + " = :" + CURSOR_KEY + " AND " + id + " < :" + CURSOR_ID + "))");
+        }
+
+        String jpql = "SELECT " + key + ", " + id + " FROM " + query.entity() + " " + alias
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + (orderedById ? id + " DESC" : key + " DESC, " + id + " DESC");
+
+        TypedQuery<Object[]> keyQuery = entityManager.createQuery(jpql, Object[].class).setMaxResults(size + 1);
+        query.parameters().forEach(keyQuery::setParameter);
+        if (after != null) {
+            keyQuery.setParameter(CURSOR_ID, after.id());
+            if (!orderedById) keyQuery.setParameter(CURSOR_KEY, parseKey(query, after));
+        }
+        return keyQuery.getResultList();
+    }
+
+    private static Object parseKey(KeysetQuery<?> query, KeysetCursor after) {
+        try {
+            return query.keyParser().apply(after.key());
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(after.encode());
+        }
+    }
+}
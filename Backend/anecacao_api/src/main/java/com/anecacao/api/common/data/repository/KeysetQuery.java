@@ -0,0 +1,35 @@
+package com.anecacao.api.common.data.repository;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Describe un listado paginado por cursor: la primera fase recorre {@code (keyProperty, id)} en
+ * orden descendente a partir del cursor, sin OFFSET ni conteo; la segunda carga el contenido de
+ * esos ids con {@code contentQuery}, que recibe el parámetro {@code :ids}.
+ *
+ * @param entity       entidad raíz, p. ej. {@code "Fumigation"}
+ * @param alias        alias de la raíz usado en {@code where}, p. ej. {@code "f"}
+ * @param where        condición de filtrado sin la palabra WHERE, o {@code null}
+ * @param parameters   parámetros de {@code where}
+ * @param keyProperty  atributo no nulo de la raíz por el que se ordena; el id desempata
+ * @param keyParser    convierte la clave guardada en el cursor al tipo del atributo
+ */
+public record KeysetQuery<R>(
+        String entity,
+        String alias,
+        String where,
+        Map<String, Object> parameters,
+        String keyProperty,
+        Function<String, Object> keyParser,
+        String contentQuery,
+        Class<R> resultType,
+        Function<R, Long> idExtractor
+) {
+    public static final String ID = "id";
+
+    public static <R> KeysetQuery<R> byId(String entity, String alias, String where, Map<String, Object> parameters,
+                                          String contentQuery, Class<R> resultType, Function<R, Long> idExtractor) {
+        return new KeysetQuery<>(entity, alias, where, parameters, ID, Long::valueOf, contentQuery, resultType, idExtractor);
+    }
+}
@@ -0,0 +1,14 @@
+package com.anecacao.api.common.data.repository;
+
+/**
+ * Valores de {@code @QueryHint} para consultas que devuelven {@code Stream}: las filas se leen del
+ * cursor del servidor en bloques (MySQL necesita {@code useCursorFetch=true} en la URL) y las
+ * entidades se cargan en modo solo lectura, sin copia para dirty checking.
+ */
+public final class StreamingQueryHints {
+    public static final String FETCH_SIZE = "500";
+    public static final String READ_ONLY = "true";
+
+    private StreamingQueryHints() {
+    }
+}
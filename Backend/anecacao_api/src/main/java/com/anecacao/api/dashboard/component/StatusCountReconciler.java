@@ -0,0 +1,22 @@
+package com.anecacao.api.dashboard.component;
+
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Los contadores se mantienen con deltas; si alguno se desvía (datos previos a la tabla, cambios
+ * hechos fuera de la API) se recalcula cada noche. No se ejecuta al arrancar para no cargar la base
+ * en cada despliegue; un administrador puede lanzarlo a mano desde el dashboard.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatusCountReconciler {
+    private final StatusCountService statusCountService;
+
+    @Scheduled(cron = "${app.dashboard.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        statusCountService.reconcile();
+    }
+}
@@ -0,0 +1,28 @@
+package com.anecacao.api.dashboard.controller;
+
+import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.dashboard.data.dto.response.StatusCountsDTO;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+    private final StatusCountService statusCountService;
+
+    @GetMapping("/status-counts")
+    public ResponseEntity<StatusCountsDTO> getStatusCounts(
+            @RequestParam(name = "companyId", required = false) Long companyId
+    ) {
+        return ResponseEntity.ok(statusCountService.getStatusCounts(companyId));
+    }
+
+    @PostMapping("/status-counts/reconcile")
+    public ResponseEntity<MessageDTO> reconcileStatusCounts() {
+        int repaired = statusCountService.reconcile();
+        return ResponseEntity.ok(new MessageDTO("Status counters reconciled: " + repaired + " corrected"));
+    }
+}
@@ -0,0 +1,11 @@
+package com.anecacao.api.dashboard.data.dto;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+
+// from es null cuando la fumigación se acaba de crear
+public record StatusChange(
+        Long companyId,
+        Status from,
+        Status to
+) {
+}
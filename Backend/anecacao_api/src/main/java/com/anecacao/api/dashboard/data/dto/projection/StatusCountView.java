@@ -0,0 +1,10 @@
+package com.anecacao.api.dashboard.data.dto.projection;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+
+public record StatusCountView(
+        Long companyId,
+        Status status,
+        Long total
+) {
+}
@@ -0,0 +1,17 @@
+package com.anecacao.api.dashboard.data.dto.response;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusCountsDTO {
+    // null para los totales de todas las compañías
+    private Long companyId;
+    private Map<Status, Long> counts;
+}
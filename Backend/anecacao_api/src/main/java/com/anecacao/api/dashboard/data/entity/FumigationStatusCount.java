@@ -0,0 +1,41 @@
+package com.anecacao.api.dashboard.data.entity;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Número de fumigaciones por estado y compañía. Se mantiene en la misma transacción que cada
+ * cambio de estado; el total de todas las compañías está en {@link FumigationStatusTotal}.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "fumigation_status_counts")
+@IdClass(FumigationStatusCount.Key.class)
+public class FumigationStatusCount {
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long companyId;
+        private Status status;
+    }
+}
@@ -0,0 +1,43 @@
+package com.anecacao.api.dashboard.data.entity;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Número de fumigaciones por estado de todas las compañías, repartido en {@link #SHARDS} filas por
+ * estado para que las transacciones concurrentes no escriban siempre la misma. El total es la suma
+ * de las filas de cada estado.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "fumigation_status_totals")
+@IdClass(FumigationStatusTotal.Key.class)
+public class FumigationStatusTotal {
+    public static final int SHARDS = 8;
+
+    @Id
+    private int shard;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private int shard;
+        private Status status;
+    }
+}
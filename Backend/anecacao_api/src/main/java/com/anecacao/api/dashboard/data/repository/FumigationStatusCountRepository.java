@@ -0,0 +1,48 @@
+package com.anecacao.api.dashboard.data.repository;
+
+import com.anecacao.api.dashboard.data.dto.projection.StatusCountView;
+import com.anecacao.api.dashboard.data.entity.FumigationStatusCount;
+import com.anecacao.api.request.creation.data.entity.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FumigationStatusCountRepository extends JpaRepository<FumigationStatusCount, FumigationStatusCount.Key> {
+    List<FumigationStatusCount> findByCompanyId(Long companyId);
+
+    @Modifying
+    @Query("UPDATE FumigationStatusCount c SET c.total = c.total + :delta " +
+            "WHERE c.status = :status AND c.companyId IN :companyIds")
+    int addToTotals(@Param("companyIds") Collection<Long> companyIds,
+                    @Param("status") Status status,
+                    @Param("delta") long delta);
+
+    @Query("SELECT c.companyId FROM FumigationStatusCount c WHERE c.status = :status AND c.companyId IN :companyIds")
+    List<Long> findExistingCompanyIds(@Param("companyIds") Collection<Long> companyIds, @Param("status") Status status);
+
+    // Devuelve 0 si otra transacción ya creó la fila; el llamador debe sumar el delta con addToTotals
+    @Modifying
+    @Query("INSERT INTO FumigationStatusCount (companyId, status, total) VALUES (:companyId, :status, :total) " +
+            "ON CONFLICT DO NOTHING")
+    int insertIfMissing(@Param("companyId") Long companyId, @Param("status") Status status, @Param("total") long total);
+
+    // Igual que addToTotals, pero la compañía se resuelve desde la fumigación en la misma sentencia
+    @Modifying
+    @Query("UPDATE FumigationStatusCount c SET c.total = c.total + :delta " +
+            "WHERE c.status = :status AND c.companyId = " +
+            "(SELECT fa.company.id FROM Fumigation f JOIN f.fumigationApplication fa WHERE f.id = :fumigationId)")
+    int addToTotalOfFumigation(@Param("fumigationId") Long fumigationId,
+                               @Param("status") Status status,
+                               @Param("delta") long delta);
+
+    @Query("SELECT new com.anecacao.api.dashboard.data.dto.projection.StatusCountView(fa.company.id, f.status, COUNT(f)) " +
+            "FROM Fumigation f JOIN f.fumigationApplication fa " +
+            "GROUP BY fa.company.id, f.status")
+    List<StatusCountView> countFumigationsByCompanyAndStatus();
+}
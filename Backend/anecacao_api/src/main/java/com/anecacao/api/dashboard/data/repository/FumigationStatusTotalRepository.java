@@ -0,0 +1,30 @@
+package com.anecacao.api.dashboard.data.repository;
+
+import com.anecacao.api.dashboard.data.dto.projection.StatusCountView;
+import com.anecacao.api.dashboard.data.entity.FumigationStatusTotal;
+import com.anecacao.api.request.creation.data.entity.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FumigationStatusTotalRepository extends JpaRepository<FumigationStatusTotal, FumigationStatusTotal.Key> {
+    @Modifying
+    @Query("UPDATE FumigationStatusTotal t SET t.total = t.total + :delta WHERE t.shard = :shard AND t.status = :status")
+    int addToTotal(@Param("shard") int shard, @Param("status") Status status, @Param("delta") long delta);
+
+    // Devuelve 0 si otra transacción ya creó la fila; el llamador debe sumar el delta con addToTotal
+    @Modifying
+    @Query("INSERT INTO FumigationStatusTotal (shard, status, total) VALUES (:shard, :status, :total) " +
+            "ON CONFLICT DO NOTHING")
+    int insertIfMissing(@Param("shard") int shard, @Param("status") Status status, @Param("total") long total);
+
+    // Como mucho SHARDS filas por estado, sin importar cuántas compañías haya
+    @Query("SELECT new com.anecacao.api.dashboard.data.dto.projection.StatusCountView(CAST(NULL AS Long), t.status, SUM(t.total)) " +
+            "FROM FumigationStatusTotal t GROUP BY t.status")
+    List<StatusCountView> sumTotalsByStatus();
+}
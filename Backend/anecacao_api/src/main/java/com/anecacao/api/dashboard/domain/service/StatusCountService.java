@@ -0,0 +1,14 @@
+package com.anecacao.api.dashboard.domain.service;
+
+import com.anecacao.api.dashboard.data.dto.StatusChange;
+import com.anecacao.api.dashboard.data.dto.response.StatusCountsDTO;
+import com.anecacao.api.request.creation.data.entity.Status;
+
+import java.util.Collection;
+
+public interface StatusCountService {
+    void recordChanges(Collection<StatusChange> changes);
+    void recordChange(Long fumigationId, Status from, Status to);
+    StatusCountsDTO getStatusCounts(Long companyId);
+    int reconcile();
+}
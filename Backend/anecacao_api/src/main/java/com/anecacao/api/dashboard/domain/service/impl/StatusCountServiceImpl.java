@@ -0,0 +1,173 @@
+package com.anecacao.api.dashboard.domain.service.impl;
+
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
+import com.anecacao.api.dashboard.data.dto.StatusChange;
+import com.anecacao.api.dashboard.data.dto.projection.StatusCountView;
+import com.anecacao.api.dashboard.data.dto.response.StatusCountsDTO;
+import com.anecacao.api.dashboard.data.entity.FumigationStatusCount;
+import com.anecacao.api.dashboard.data.entity.FumigationStatusTotal;
+import com.anecacao.api.dashboard.data.repository.FumigationStatusCountRepository;
+import com.anecacao.api.dashboard.data.repository.FumigationStatusTotalRepository;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
+import com.anecacao.api.request.creation.data.entity.Status;
+import com.anecacao.api.request.creation.data.repository.CompanyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StatusCountServiceImpl implements StatusCountService {
+    private final FumigationStatusCountRepository repository;
+    private final FumigationStatusTotalRepository totalRepository;
+    private final CompanyRepository companyRepository;
+    private final AuthenticatedUserContext authenticatedUserContext;
+
+    // Corre dentro de la transacción que cambia los estados: un UPDATE por estado y delta, no por fumigación
+    @Transactional
+    @Override
+    public void recordChanges(Collection<StatusChange> changes) {
+        Map<Status, Map<Long, Long>> deltas = new EnumMap<>(Status.class);
+
+        for (StatusChange change : changes) {
+            if (change.from() == change.to()) continue;
+            if (change.from() != null) addDelta(deltas, change.from(), change.companyId(), -1);
+            addDelta(deltas, change.to(), change.companyId(), 1);
+        }
+
+        deltas.forEach((status, byScope) -> byScope.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((delta, scopes) -> addToTotals(scopes, status, delta)));
+
+        Map<Status, Long> globalDeltas = new EnumMap<>(Status.class);
+        deltas.forEach((status, byScope) -> globalDeltas.put(status,
+                byScope.values().stream().mapToLong(Long::longValue).sum()));
+        addToGlobalTotals(globalDeltas);
+    }
+
+    // Cambio de una sola fumigación cuya compañía no se leyó: se resuelve en el propio UPDATE
+    @Transactional
+    @Override
+    public void recordChange(Long fumigationId, Status from, Status to) {
+        if (from == to) return;
+
+        addToTotalOfFumigation(fumigationId, from, -1);
+        addToTotalOfFumigation(fumigationId, to, 1);
+        addToGlobalTotals(new EnumMap<>(Map.of(from, -1L, to, 1L)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public StatusCountsDTO getStatusCounts(Long companyId) {
+        checkAccess(companyId);
+
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        Arrays.stream(Status.values()).forEach(status -> counts.put(status, 0L));
+        if (companyId != null) {
+            repository.findByCompanyId(companyId).forEach(count -> counts.put(count.getStatus(), count.getTotal()));
+        } else {
+            totalRepository.sumTotalsByStatus().forEach(view -> counts.put(view.status(), view.total()));
+        }
+
+        return new StatusCountsDTO(companyId, counts);
+    }
+
+    // Contadores y fumigaciones se leen sin bloqueos en la misma instantánea; la diferencia se aplica
+    // como delta para no pisar los cambios que se confirmen mientras tanto
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public int reconcile() {
+        Map<FumigationStatusCount.Key, Long> drift = new HashMap<>();
+        Map<Status, Long> globalDrift = new EnumMap<>(Status.class);
+        for (StatusCountView view : repository.countFumigationsByCompanyAndStatus()) {
+            drift.merge(new FumigationStatusCount.Key(view.companyId(), view.status()), view.total(), Long::sum);
+            globalDrift.merge(view.status(), view.total(), Long::sum);
+        }
+        for (FumigationStatusCount count : repository.findAll()) {
+            drift.merge(new FumigationStatusCount.Key(count.getCompanyId(), count.getStatus()), -count.getTotal(), Long::sum);
+        }
+
+        int repaired = 0;
+        for (Map.Entry<FumigationStatusCount.Key, Long> entry : drift.entrySet()) {
+            if (entry.getValue() == 0) continue;
+
+            FumigationStatusCount.Key key = entry.getKey();
+            addToTotals(List.of(key.getCompanyId()), key.getStatus(), entry.getValue());
+            repaired++;
+        }
+
+        // El total global se compara con la suma de sus filas; la diferencia va a una sola de ellas
+        totalRepository.sumTotalsByStatus().forEach(view -> globalDrift.merge(view.status(), -view.total(), Long::sum));
+        globalDrift.values().removeIf(delta -> delta == 0);
+        addToGlobalTotals(globalDrift);
+
+        return repaired + globalDrift.size();
+    }
+
+    private void addToTotals(List<Long> scopes, Status status, long delta) {
+        if (repository.addToTotals(scopes, status, delta) == scopes.size()) return;
+
+        // Primer cambio hacia este estado en alguna compañía: se crean sus filas con el delta ya aplicado
+        Set<Long> existing = new HashSet<>(repository.findExistingCompanyIds(scopes, status));
+        scopes.stream()
+                .filter(scope -> !existing.contains(scope))
+                .forEach(scope -> insertOrAdd(scope, status, delta));
+    }
+
+    // Si otra transacción creó la fila entre medias el INSERT no hace nada y el delta se suma a la suya
+    private void insertOrAdd(Long scope, Status status, long delta) {
+        if (repository.insertIfMissing(scope, status, delta) == 0) {
+            repository.addToTotals(List.of(scope), status, delta);
+        }
+    }
+
+    private void addToTotalOfFumigation(Long fumigationId, Status status, long delta) {
+        if (repository.addToTotalOfFumigation(fumigationId, status, delta) == 1) return;
+
+        // Solo la primera vez que la compañía llega a este estado hace falta conocerla para crear su fila
+        companyRepository.findIdByFumigationId(fumigationId)
+                .ifPresent(companyId -> insertOrAdd(companyId, status, delta));
+    }
+
+    // Cada llamada suma en una sola de las filas del total global, elegida al azar para repartir las escrituras
+    private void addToGlobalTotals(Map<Status, Long> deltas) {
+        int shard = ThreadLocalRandom.current().nextInt(FumigationStatusTotal.SHARDS);
+        deltas.forEach((status, delta) -> {
+            if (delta == 0) return;
+            if (totalRepository.addToTotal(shard, status, delta) == 1) return;
+            if (totalRepository.insertIfMissing(shard, status, delta) == 0) {
+                totalRepository.addToTotal(shard, status, delta);
+            }
+        });
+    }
+
+    private void checkAccess(Long companyId) {
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+        if (user.hasRole(RoleName.ROLE_ADMIN) || user.hasRole(RoleName.ROLE_TECHNICIAN)) return;
+
+        if (companyId != null && companyRepository.existsByIdAndLegalRepresentativeId(companyId, user.getId())) return;
+
+        throw new UnauthorizedAccessException("StatusCounts", companyId, user.getId());
+    }
+
+    private static void addDelta(Map<Status, Map<Long, Long>> deltas, Status status, Long companyId, long delta) {
+        Map<Long, Long> byScope = deltas.computeIfAbsent(status, key -> new HashMap<>());
+        byScope.merge(companyId, delta, Long::sum);
+    }
+}
@@ -0,0 +1,22 @@
+package com.anecacao.api.reporting.component;
+
+import com.anecacao.api.reporting.domain.service.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revisa la cola de informes y la vacía lote a lote mientras los lotes salgan completos.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportJobWorker {
+    private final ReportJobService reportJobService;
+
+    @Scheduled(fixedDelayString = "${app.reports.jobs.poll-interval:1s}")
+    public void drain() {
+        while (reportJobService.processBatch()) {
+            // Se sigue con el próximo lote sin esperar al siguiente ciclo
+        }
+    }
+}
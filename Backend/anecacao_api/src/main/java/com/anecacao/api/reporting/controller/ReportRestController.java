@@ -1,28 +1,48 @@
 package com.anecacao.api.reporting.controller;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.reporting.data.dto.CertificateContent;
+import com.anecacao.api.reporting.data.dto.CertificateDocument;
 import com.anecacao.api.reporting.data.dto.CleanupReportDTO;
-import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+import com.anecacao.api.reporting.data.dto.ExportFormat;
 import com.anecacao.api.reporting.data.dto.response.CleanupReportResponseDTO;
 import com.anecacao.api.reporting.data.dto.FumigationReportDTO;
 import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
+import com.anecacao.api.reporting.data.dto.response.ReportJobResponseDTO;
+import com.anecacao.api.reporting.data.dto.response.ReportSearchResultDTO;
 import com.anecacao.api.reporting.domain.exception.IndustrialSafetyViolationException;
+import com.anecacao.api.reporting.domain.service.CertificatePdfRenderer;
+import com.anecacao.api.reporting.domain.service.ReportExportService;
+import com.anecacao.api.reporting.domain.service.ReportJobService;
 import com.anecacao.api.reporting.domain.service.ReportsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/reports")
 @RequiredArgsConstructor
 public class ReportRestController {
     private final ReportsService reportsService;
+    private final ReportExportService reportExportService;
+    private final CertificatePdfRenderer certificatePdfRenderer;
+    private final ReportJobService reportJobService;
 
     @GetMapping("/fumigations")
     public ResponseEntity<Page<FumigationReportResponseDTO>> getAllFumigationReports(Pageable pageable) {
@@ -30,9 +50,17 @@ public class ReportRestController {
         return ResponseEntity.ok(reports);
     }
 
+    @GetMapping(value = "/fumigations", params = "after")
+    public ResponseEntity<CursorPageDTO<FumigationReportResponseDTO>> getAllFumigationReports(CursorRequest cursor) {
+        return ResponseEntity.ok(reportsService.getAllFumigationReports(cursor));
+    }
+
     @GetMapping("/fumigations/all")
-    public ResponseEntity<List<FumigationReportResponseDTO>> getAllFumigationReportsNoPagination() {
-        return ResponseEntity.ok(reportsService.getAllFumigationReportsNoPagination());
+    public ResponseEntity<StreamingResponseBody> exportFumigationReports(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) throws HttpMediaTypeNotAcceptableException {
+        ExportFormat format = ExportFormat.fromAcceptHeader(accept);
+        return streamExport(format, "fumigation-reports", output -> reportExportService.exportFumigationReports(format, output));
     }
 
     @GetMapping("/fumigations/by-fumigation/{fumigationId}")
@@ -45,10 +73,19 @@ public class ReportRestController {
         return ResponseEntity.ok(reportsService.getFumigationReportById(id));
     }
 
+    /**
+     * Con {@code Prefer: respond-async} el informe solo se valida y se encola; el resultado se consulta en
+     * {@code Location}. Reenviar con el mismo {@code Idempotency-Key} devuelve el mismo trabajo.
+     */
     @PostMapping("/fumigations")
-    public ResponseEntity<MessageDTO> createFumigationReport(
-            @RequestBody @Valid FumigationReportDTO reportDTO
+    public ResponseEntity<?> createFumigationReport(
+            @RequestBody @Valid FumigationReportDTO reportDTO,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
             ) {
+        if (prefersAsync(prefer)) {
+            return accepted(reportJobService.submitFumigationReport(reportDTO, idempotencyKey));
+        }
 
         MessageDTO message = reportsService.createFumigationReport(reportDTO);
 
@@ -65,9 +102,17 @@ public class ReportRestController {
         return ResponseEntity.ok(reports);
     }
 
+    @GetMapping(value = "/cleanup", params = "after")
+    public ResponseEntity<CursorPageDTO<CleanupReportResponseDTO>> getAllCleanupReports(CursorRequest cursor) {
+        return ResponseEntity.ok(reportsService.getAllCleanupReports(cursor));
+    }
+
     @GetMapping("/cleanup/all")
-    public ResponseEntity<List<CleanupReportResponseDTO>> getAllCleanupReportsNoPagination() {
-        return ResponseEntity.ok(reportsService.getAllCleanupReportsNoPagination());
+    public ResponseEntity<StreamingResponseBody> exportCleanupReports(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) throws HttpMediaTypeNotAcceptableException {
+        ExportFormat format = ExportFormat.fromAcceptHeader(accept);
+        return streamExport(format, "cleanup-reports", output -> reportExportService.exportCleanupReports(format, output));
     }
 
     @GetMapping("/cleanup/by-fumigation/{fumigationId}")
@@ -80,10 +125,19 @@ public class ReportRestController {
         return ResponseEntity.ok(reportsService.getCleanupReportById(id));
     }
 
+    /**
+     * Igual que {@link #createFumigationReport}, para el informe de descarpe.
+     */
     @PostMapping("/cleanup")
-    public ResponseEntity<MessageDTO> createCleanupReport (
-            @RequestBody @Valid CleanupReportDTO reportDTO
+    public ResponseEntity<?> createCleanupReport (
+            @RequestBody @Valid CleanupReportDTO reportDTO,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
+        if (prefersAsync(prefer)) {
+            return accepted(reportJobService.submitCleanupReport(reportDTO, idempotencyKey));
+        }
+
         MessageDTO message = reportsService.createCleanupReport(reportDTO);
 
         if (message == null) throw new IndustrialSafetyViolationException(reportDTO.getId());
@@ -94,16 +148,82 @@ public class ReportRestController {
         );
     }
 
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobResponseDTO> getReportJob(@PathVariable Long id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    /**
+     * Búsqueda de texto libre sobre la ubicación y las observaciones de los informes de fumigación
+     * y de descarpe, ordenada por relevancia.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<ReportSearchResultDTO>> searchReports(@RequestParam("q") String query, Pageable pageable) {
+        return ResponseEntity.ok(reportsService.searchReports(query, pageable));
+    }
+
     /**
      * Obtiene el certificado de fumigación para una fumigación específica.
      * Solo disponible para fumigaciones en estado FINISHED.
      *
+     * Se sirve ya serializado con un ETag fuerte; con If-None-Match vigente responde 304 sin cuerpo.
+     *
      * @param fumigationId ID de la fumigación
-     * @return CertificateDTO con todos los datos del certificado
+     * @return CertificateDTO con todos los datos del certificado, en JSON
      */
     @GetMapping("/certificate/by-fumigation/{fumigationId}")
-    public ResponseEntity<CertificateDTO> getCertificateByFumigationId(@PathVariable Long fumigationId) {
-        CertificateDTO certificate = reportsService.getCertificateByFumigationId(fumigationId);
-        return ResponseEntity.ok(certificate);
+    public ResponseEntity<byte[]> getCertificateByFumigationId(@PathVariable Long fumigationId) {
+        CertificateContent certificate = reportsService.getCertificateByFumigationId(fumigationId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(certificate.eTag())
+                .body(certificate.content());
+    }
+
+    /**
+     * Certificado de fumigación en PDF, con las firmas del técnico y del cliente.
+     * Se genera en un pool acotado; si está lleno responde 503 para reintentar. La respuesta se escribe
+     * al completarse la generación, en el despacho asíncrono de la petición.
+     *
+     * @param fumigationId ID de la fumigación
+     */
+    @GetMapping("/certificate/by-fumigation/{fumigationId}/pdf")
+    public CompletableFuture<ResponseEntity<byte[]>> getCertificatePdfByFumigationId(@PathVariable Long fumigationId) {
+        CertificateDocument document = reportsService.getCertificateDocument(fumigationId);
+        return certificatePdfRenderer.render(document).thenApply(pdf -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename("certificado-" + fumigationId + ".pdf")
+                        .build()
+                        .toString())
+                .body(pdf));
+    }
+
+    // Prefer es una lista de preferencias (RFC 7240), cada una con valor y parámetros opcionales
+    private static boolean prefersAsync(String prefer) {
+        if (prefer == null) return false;
+
+        return Arrays.stream(prefer.split(","))
+                .map(preference -> preference.split("[=;]", 2)[0].strip())
+                .anyMatch("respond-async"::equalsIgnoreCase);
+    }
+
+    private ResponseEntity<ReportJobResponseDTO> accepted(ReportJobResponseDTO job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/reports/jobs/" + job.getId()))
+                .header("Preference-Applied", "respond-async")
+                .body(job);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamExport(ExportFormat format, String fileName, StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(format.getMediaType());
+        if (format == ExportFormat.CSV) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(fileName + "." + format.getExtension())
+                    .build()
+                    .toString());
+        }
+        return response.body(body);
     }
 }
@@ -0,0 +1,7 @@
+package com.anecacao.api.reporting.data.dto;
+
+/**
+ * Certificado ya serializado a JSON junto con su ETag fuerte (hash de los bytes).
+ */
+public record CertificateContent(byte[] content, String eTag) {
+}
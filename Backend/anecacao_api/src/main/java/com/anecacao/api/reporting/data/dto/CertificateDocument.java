@@ -0,0 +1,9 @@
+package com.anecacao.api.reporting.data.dto;
+
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+
+/**
+ * Datos del certificado junto con las imágenes de las firmas; una firma ausente es {@code null}.
+ */
+public record CertificateDocument(CertificateDTO certificate, byte[] technicianSignature, byte[] clientSignature) {
+}
@@ -0,0 +1,44 @@
+package com.anecacao.api.reporting.data.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    JSON(MediaType.APPLICATION_JSON, "json"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    /**
+     * Elige el formato según el header Accept; sin header (o con {@code *}/{@code *}) se mantiene JSON.
+     */
+    public static ExportFormat fromAcceptHeader(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank()) return JSON;
+
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType requested : acceptable) {
+            for (ExportFormat format : values()) {
+                if (requested.includes(format.mediaType)) return format;
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(Arrays.stream(values()).map(ExportFormat::getMediaType).toList());
+    }
+}
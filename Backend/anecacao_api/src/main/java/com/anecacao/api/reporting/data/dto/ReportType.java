@@ -0,0 +1,6 @@
+package com.anecacao.api.reporting.data.dto;
+
+public enum ReportType {
+    FUMIGATION,
+    CLEANUP
+}
@@ -0,0 +1,20 @@
+package com.anecacao.api.reporting.data.dto.projection;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+
+public record CertificateVersionView(
+        Long fumigationId,
+        Status status,
+        Long fumigationVersion,
+        Long fumigationReportVersion,
+        Long cleanupReportVersion
+) {
+    // Cambia con cualquier edición de la fumigación o de sus informes y con cada cambio de estado
+    public String contentVersion() {
+        return fumigationVersion + "." + versionOf(fumigationReportVersion) + "." + versionOf(cleanupReportVersion);
+    }
+
+    private static String versionOf(Long version) {
+        return version != null ? version.toString() : "x";
+    }
+}
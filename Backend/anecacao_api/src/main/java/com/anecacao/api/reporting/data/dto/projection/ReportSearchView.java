@@ -0,0 +1,16 @@
+package com.anecacao.api.reporting.data.dto.projection;
+
+import java.time.LocalDate;
+
+public record ReportSearchView(
+        Long reportId,
+        Long fumigationId,
+        String location,
+        String observations,
+        LocalDate date
+) {
+    // Los informes de descarpe no tienen observaciones
+    public ReportSearchView(Long reportId, Long fumigationId, String location, LocalDate date) {
+        this(reportId, fumigationId, location, null, date);
+    }
+}
@@ -0,0 +1,11 @@
+package com.anecacao.api.reporting.data.dto.projection;
+
+public record ReportTechnicianView(
+        Long reportId,
+        Long id,
+        String nationalId,
+        String firstName,
+        String lastName,
+        String email
+) {
+}
@@ -0,0 +1,17 @@
+package com.anecacao.api.reporting.data.dto.response;
+
+import com.anecacao.api.reporting.data.dto.ReportType;
+import com.anecacao.api.reporting.data.entity.ReportJobStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReportJobResponseDTO {
+    private Long id;
+    private ReportType type;
+    private ReportJobStatus status;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
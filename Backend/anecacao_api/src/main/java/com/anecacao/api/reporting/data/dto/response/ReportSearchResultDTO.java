@@ -0,0 +1,22 @@
+package com.anecacao.api.reporting.data.dto.response;
+
+import com.anecacao.api.reporting.data.dto.ReportType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportSearchResultDTO {
+    private ReportType type;
+    private Long reportId;
+    private Long fumigationId;
+    private String location;
+    private String observations;
+    private LocalDate date;
+    // Entre 0 y 1: parte de los trigramas de la búsqueda encontrados, pesando más la ubicación
+    private double score;
+}
@@ -1,9 +1,11 @@
 package com.anecacao.api.reporting.data.entity;
 
 import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.entity.IdGenerators;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,9 +17,17 @@ import java.util.Set;
 @Entity
 public class CleanupReport {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cleanup_report_id")
+    @TableGenerator(name = "cleanup_report_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "cleanup_report",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false)
     private String location;
 
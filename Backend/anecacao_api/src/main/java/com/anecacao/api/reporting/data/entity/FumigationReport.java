@@ -1,10 +1,12 @@
 package com.anecacao.api.reporting.data.entity;
 
 import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.entity.IdGenerators;
 import com.anecacao.api.request.creation.data.entity.Dimensions;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -17,9 +19,17 @@ import java.util.Set;
 @Entity
 public class FumigationReport {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "fumigation_report_id")
+    @TableGenerator(name = "fumigation_report_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "fumigation_report",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false)
     private String location;
 
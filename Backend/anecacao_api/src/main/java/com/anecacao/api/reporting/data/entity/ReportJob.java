@@ -0,0 +1,63 @@
+package com.anecacao.api.reporting.data.entity;
+
+import com.anecacao.api.common.data.entity.IdGenerators;
+import com.anecacao.api.reporting.data.dto.ReportType;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Informe aceptado para procesarse en segundo plano. Mientras está PROCESSING, {@link #availableAt} es el
+ * fin de la concesión del worker que lo tomó: si vence sin terminar, otro worker puede volver a tomarlo.
+ * {@link #attempts} identifica cada toma, así un worker que perdió la concesión no confirma el trabajo.
+ */
+@Data
+@Entity
+@Table(name = "report_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_report_jobs_idempotency_key",
+                columnNames = {"submitted_by", "idempotency_key"}),
+        indexes = @Index(name = "idx_report_jobs_claim", columnList = "status, available_at"))
+public class ReportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "report_job_id")
+    @TableGenerator(name = "report_job_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "report_jobs",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReportJobStatus status;
+
+    @Column(name = "submitted_by", nullable = false)
+    private Long submittedBy;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String payloadHash;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
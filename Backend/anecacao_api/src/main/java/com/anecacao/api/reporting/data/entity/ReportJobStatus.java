@@ -0,0 +1,8 @@
+package com.anecacao.api.reporting.data.entity;
+
+public enum ReportJobStatus {
+    PENDING,
+    PROCESSING,
+    SUCCEEDED,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package com.anecacao.api.reporting.data.entity;
 
+import com.anecacao.api.common.data.entity.IdGenerators;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -10,7 +11,10 @@ import java.math.BigDecimal;
 @Entity
 public class Supply {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "supply_id")
+    @TableGenerator(name = "supply_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "supply",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     @JsonIgnore
     private Long id;
 
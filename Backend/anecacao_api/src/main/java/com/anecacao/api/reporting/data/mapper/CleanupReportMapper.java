@@ -2,33 +2,29 @@ package com.anecacao.api.reporting.data.mapper;
 
 import com.anecacao.api.auth.data.dto.UserResponseDTO;
 import com.anecacao.api.reporting.data.dto.*;
+import com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView;
 import com.anecacao.api.reporting.data.dto.response.CleanupReportResponseDTO;
 import com.anecacao.api.reporting.data.dto.response.IndustrialSafetyConditionsResponseDTO;
 import com.anecacao.api.reporting.data.dto.response.LotDescriptionResponseDTO;
 import com.anecacao.api.reporting.data.entity.*;
-import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.signature.data.dto.SignatureResponse;
 import com.anecacao.api.signature.data.entity.Signature;
-import com.anecacao.api.signature.data.repository.SignatureRepository;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 public class CleanupReportMapper {
 
-    private final SignatureRepository signatureRepository;
-
-    public CleanupReportResponseDTO toResponseDTO(CleanupReport report) {
-        if (report == null) {
-            return null;
-        }
-
+    /**
+     * Técnicos y firmas llegan precargados por {@link ReportPageAssembler}
+     * para no recorrer las colecciones perezosas del informe.
+     */
+    public CleanupReportResponseDTO toResponseDTO(CleanupReport report,
+                                                  List<ReportTechnicianView> technicians,
+                                                  List<Signature> signatures) {
         CleanupReportResponseDTO dto = new CleanupReportResponseDTO();
 
         // Basic fields
@@ -46,7 +42,7 @@ public class CleanupReportMapper {
         dto.setIndustrialSafetyConditions(toIndustrialSafetyConditionsResponseDTO(report.getIndustrialSafetyConditions()));
 
         // Map technicians
-        dto.setTechnicians(toUserDTOList(report.getTechnicians()));
+        dto.setTechnicians(toUserDTOList(technicians));
 
         // Map fumigation info
         if (report.getFumigation() != null) {
@@ -54,18 +50,13 @@ public class CleanupReportMapper {
         }
 
         // Map signatures
-        dto.setSignatures(getSignaturesForCleanupReport(report.getId()));
+        dto.setSignatures(signatures.stream()
+                .map(this::toSignatureResponse)
+                .collect(Collectors.toList()));
 
         return dto;
     }
 
-    private List<SignatureResponse> getSignaturesForCleanupReport(Long reportId) {
-        List<Signature> signatures = signatureRepository.findByCleanupReportId(reportId);
-        return signatures.stream()
-                .map(this::toSignatureResponse)
-                .collect(Collectors.toList());
-    }
-
     private SignatureResponse toSignatureResponse(Signature signature) {
         Long reportId = signature.getFumigationReport() != null
                 ? signature.getFumigationReport().getId()
@@ -76,8 +67,9 @@ public class CleanupReportMapper {
         return new SignatureResponse(
                 signature.getId(),
                 signature.getSignatureType(),
-                signature.getFilePath(),
-                reportId
+                reportId,
+                SignatureResponse.contentUrl(signature.getId(), signature.getSha256()),
+                SignatureResponse.thumbnailUrl(signature.getId(), signature.getSha256())
         );
     }
 
@@ -104,27 +96,19 @@ public class CleanupReportMapper {
         return dto;
     }
 
-    private List<UserResponseDTO> toUserDTOList(Set<User> technicians) {
-        if (technicians == null) {
-            return null;
-        }
-
+    private List<UserResponseDTO> toUserDTOList(List<ReportTechnicianView> technicians) {
         return technicians.stream()
                 .map(this::toUserResponseDTO)
                 .collect(Collectors.toList());
     }
 
-    private UserResponseDTO toUserResponseDTO(User user) {
-        if (user == null) {
-            return null;
-        }
-
+    private UserResponseDTO toUserResponseDTO(ReportTechnicianView technician) {
         UserResponseDTO dto = new UserResponseDTO();
-        dto.setId(user.getId());
-        dto.setFirstName(user.getFirstName());
-        dto.setLastName(user.getLastName());
-        dto.setEmail(user.getEmail());
-        dto.setNationalId(user.getNationalId());
+        dto.setId(technician.id());
+        dto.setFirstName(technician.firstName());
+        dto.setLastName(technician.lastName());
+        dto.setEmail(technician.email());
+        dto.setNationalId(technician.nationalId());
 
         return dto;
     }
@@ -147,14 +131,4 @@ public class CleanupReportMapper {
 
         return dto;
     }
-
-    public List<CleanupReportResponseDTO> toResponseDTOList(List<CleanupReport> reports) {
-        if (reports == null) {
-            return null;
-        }
-
-        return reports.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
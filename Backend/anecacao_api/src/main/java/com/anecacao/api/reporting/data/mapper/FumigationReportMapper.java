@@ -2,32 +2,29 @@ package com.anecacao.api.reporting.data.mapper;
 
 import com.anecacao.api.auth.data.dto.UserResponseDTO;
 import com.anecacao.api.reporting.data.dto.*;
+import com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView;
 import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
 import com.anecacao.api.reporting.data.entity.*;
-import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.request.creation.data.entity.Dimensions;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
 import com.anecacao.api.signature.data.dto.SignatureResponse;
 import com.anecacao.api.signature.data.entity.Signature;
-import com.anecacao.api.signature.data.repository.SignatureRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 public class FumigationReportMapper {
 
-    private final SignatureRepository signatureRepository;
-
-    public FumigationReportResponseDTO toResponseDTO(FumigationReport report) {
-        if (report == null) {
-            return null;
-        }
-
+    /**
+     * Técnicos, insumos y firmas llegan precargados por {@link ReportPageAssembler}
+     * para no recorrer las colecciones perezosas del informe.
+     */
+    public FumigationReportResponseDTO toResponseDTO(FumigationReport report,
+                                                     List<ReportTechnicianView> technicians,
+                                                     List<Supply> supplies,
+                                                     List<Signature> signatures) {
         FumigationReportResponseDTO dto = new FumigationReportResponseDTO();
 
         // Basic fields
@@ -58,14 +55,14 @@ public class FumigationReportMapper {
             dto.setIndustrialSafetyConditions(toIndustrialSafetyConditionsDTO(report.getIndustrialSafetyConditions()));
         }
 
-        // Map technicians - manejar lazy loading
-        if (report.getTechnicians() != null && !report.getTechnicians().isEmpty()) {
-            dto.setTechnicians(toUserDTOList(report.getTechnicians()));
+        // Map technicians
+        if (!technicians.isEmpty()) {
+            dto.setTechnicians(toUserDTOList(technicians));
         }
 
-        // Map supplies - manejar lazy loading
-        if (report.getSupplies() != null && !report.getSupplies().isEmpty()) {
-            dto.setSupplies(toSupplyDTOList(report.getSupplies()));
+        // Map supplies
+        if (!supplies.isEmpty()) {
+            dto.setSupplies(toSupplyDTOList(supplies));
         }
 
         // Map fumigation info - manejar lazy loading
@@ -74,18 +71,13 @@ public class FumigationReportMapper {
         }
 
         // Map signatures
-        dto.setSignatures(getSignaturesForFumigationReport(report.getId()));
+        dto.setSignatures(signatures.stream()
+                .map(this::toSignatureResponse)
+                .collect(Collectors.toList()));
 
         return dto;
     }
 
-    private List<SignatureResponse> getSignaturesForFumigationReport(Long reportId) {
-        List<Signature> signatures = signatureRepository.findByFumigationReportId(reportId);
-        return signatures.stream()
-                .map(this::toSignatureResponse)
-                .collect(Collectors.toList());
-    }
-
     private SignatureResponse toSignatureResponse(Signature signature) {
         Long reportId = signature.getFumigationReport() != null
                 ? signature.getFumigationReport().getId()
@@ -96,8 +88,9 @@ public class FumigationReportMapper {
         return new SignatureResponse(
                 signature.getId(),
                 signature.getSignatureType(),
-                signature.getFilePath(),
-                reportId
+                reportId,
+                SignatureResponse.contentUrl(signature.getId(), signature.getSha256()),
+                SignatureResponse.thumbnailUrl(signature.getId(), signature.getSha256())
         );
     }
 
@@ -139,27 +132,19 @@ public class FumigationReportMapper {
         return dto;
     }
 
-    private List<UserResponseDTO> toUserDTOList(Set<User> technicians) {
-        if (technicians == null) {
-            return null;
-        }
-
+    private List<UserResponseDTO> toUserDTOList(List<ReportTechnicianView> technicians) {
         return technicians.stream()
                 .map(this::toUserResponseDTO)
                 .collect(Collectors.toList());
     }
 
-    private UserResponseDTO toUserResponseDTO(User user) {
-        if (user == null) {
-            return null;
-        }
-
+    private UserResponseDTO toUserResponseDTO(ReportTechnicianView technician) {
         UserResponseDTO dto = new UserResponseDTO();
-        dto.setId(user.getId());
-        dto.setFirstName(user.getFirstName());
-        dto.setLastName(user.getLastName());
-        dto.setEmail(user.getEmail());
-        dto.setNationalId(user.getNationalId());
+        dto.setId(technician.id());
+        dto.setFirstName(technician.firstName());
+        dto.setLastName(technician.lastName());
+        dto.setEmail(technician.email());
+        dto.setNationalId(technician.nationalId());
 
         return dto;
     }
@@ -208,14 +193,4 @@ public class FumigationReportMapper {
 
         return dto;
     }
-
-    public List<FumigationReportResponseDTO> toResponseDTOList(List<FumigationReport> reports) {
-        if (reports == null) {
-            return null;
-        }
-
-        return reports.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
-    }
-}
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.anecacao.api.reporting.data.mapper;
+
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView;
+import com.anecacao.api.reporting.data.dto.response.CleanupReportResponseDTO;
+import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
+import com.anecacao.api.reporting.data.entity.CleanupReport;
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import com.anecacao.api.reporting.data.entity.Supply;
+import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
+import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.reporting.data.repository.SupplyRepository;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.anecacao.api.signature.data.repository.SignatureRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Arma las respuestas de informes por página: reúne los ids de la página y carga técnicos,
+ * insumos y firmas con una consulta IN por asociación, así el número de consultas no crece
+ * con el tamaño de la página. Las consultas de un solo informe pasan por el mismo camino.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportPageAssembler {
+
+    private final FumigationReportRepository fumigationReportRepository;
+    private final CleanupReportRepository cleanupReportRepository;
+    private final SupplyRepository supplyRepository;
+    private final SignatureRepository signatureRepository;
+    private final FumigationReportMapper fumigationReportMapper;
+    private final CleanupReportMapper cleanupReportMapper;
+
+    public FumigationReportResponseDTO toFumigationReportDTO(FumigationReport report) {
+        return toFumigationReportDTOs(List.of(report)).get(0);
+    }
+
+    public Page<FumigationReportResponseDTO> toFumigationReportPage(Page<FumigationReport> page) {
+        return new PageImpl<>(toFumigationReportDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    public CursorPageDTO<FumigationReportResponseDTO> toFumigationReportPage(CursorPageDTO<FumigationReport> page) {
+        return new CursorPageDTO<>(toFumigationReportDTOs(page.getContent()), page.getNextCursor(), page.isHasNext());
+    }
+
+    public List<FumigationReportResponseDTO> toFumigationReportDTOs(List<FumigationReport> reports) {
+        if (reports.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = reports.stream().map(FumigationReport::getId).toList();
+
+        Map<Long, List<ReportTechnicianView>> technicians = groupTechnicians(
+                fumigationReportRepository.findTechniciansByReportIds(ids));
+        Map<Long, List<Supply>> supplies = supplyRepository.findByFumigationReportIdInOrderById(ids).stream()
+                .collect(Collectors.groupingBy(supply -> supply.getFumigationReport().getId()));
+        Map<Long, List<Signature>> signatures = signatureRepository.findByFumigationReportIdIn(ids).stream()
+                .collect(Collectors.groupingBy(signature -> signature.getFumigationReport().getId()));
+
+        return reports.stream()
+                .map(report -> fumigationReportMapper.toResponseDTO(report,
+                        technicians.getOrDefault(report.getId(), List.of()),
+                        supplies.getOrDefault(report.getId(), List.of()),
+                        signatures.getOrDefault(report.getId(), List.of())))
+                .toList();
+    }
+
+    public CleanupReportResponseDTO toCleanupReportDTO(CleanupReport report) {
+        return toCleanupReportDTOs(List.of(report)).get(0);
+    }
+
+    public Page<CleanupReportResponseDTO> toCleanupReportPage(Page<CleanupReport> page) {
+        return new PageImpl<>(toCleanupReportDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    public CursorPageDTO<CleanupReportResponseDTO> toCleanupReportPage(CursorPageDTO<CleanupReport> page) {
+        return new CursorPageDTO<>(toCleanupReportDTOs(page.getContent()), page.getNextCursor(), page.isHasNext());
+    }
+
+    public List<CleanupReportResponseDTO> toCleanupReportDTOs(List<CleanupReport> reports) {
+        if (reports.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = reports.stream().map(CleanupReport::getId).toList();
+
+        Map<Long, List<ReportTechnicianView>> technicians = groupTechnicians(
+                cleanupReportRepository.findTechniciansByReportIds(ids));
+        Map<Long, List<Signature>> signatures = signatureRepository.findByCleanupReportIdIn(ids).stream()
+                .collect(Collectors.groupingBy(signature -> signature.getCleanupReport().getId()));
+
+        return reports.stream()
+                .map(report -> cleanupReportMapper.toResponseDTO(report,
+                        technicians.getOrDefault(report.getId(), List.of()),
+                        signatures.getOrDefault(report.getId(), List.of())))
+                .toList();
+    }
+
+    private static Map<Long, List<ReportTechnicianView>> groupTechnicians(List<ReportTechnicianView> technicians) {
+        return technicians.stream().collect(Collectors.groupingBy(ReportTechnicianView::reportId));
+    }
+}
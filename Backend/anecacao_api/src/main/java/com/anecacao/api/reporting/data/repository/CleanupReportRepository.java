@@ -1,18 +1,50 @@
 package com.anecacao.api.reporting.data.repository;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.data.repository.KeysetPagingRepository;
+import com.anecacao.api.common.data.repository.KeysetQuery;
+import com.anecacao.api.common.data.repository.StreamingQueryHints;
+import com.anecacao.api.reporting.data.dto.projection.ReportSearchView;
+import com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView;
 import com.anecacao.api.reporting.data.entity.CleanupReport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CleanupReportRepository extends JpaRepository<CleanupReport, Long> {
+public interface CleanupReportRepository extends JpaRepository<CleanupReport, Long>, KeysetPagingRepository {
+    // El lado inverso del OneToOne de Fumigation no admite proxy: se trae junto con la fumigación
+    @EntityGraph(attributePaths = {"fumigation", "fumigation.fumigationReport"})
     Optional<CleanupReport> findByFumigationId(Long fumigationId);
 
+    @Override
+    @EntityGraph(attributePaths = {"fumigation", "fumigation.fumigationReport"})
+    Optional<CleanupReport> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"fumigation", "fumigation.fumigationReport"})
+    Page<CleanupReport> findAll(Pageable pageable);
+
+    @Query("SELECT new com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView(" +
+            "cr.id, t.id, t.nationalId, t.firstName, t.lastName, t.email) " +
+            "FROM CleanupReport cr JOIN cr.technicians t " +
+            "WHERE cr.id IN :reportIds " +
+            "ORDER BY t.id")
+    List<ReportTechnicianView> findTechniciansByReportIds(@Param("reportIds") Collection<Long> reportIds);
+
     // Búsqueda por rango de fechas
     Page<CleanupReport> findByDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
@@ -41,4 +73,24 @@ public interface CleanupReportRepository extends JpaRepository<CleanupReport, Lo
                                       @Param("minPpm") Double minPpm,
                                       @Param("maxPpm") Double maxPpm,
                                       Pageable pageable);
+
+    // Carga inicial del índice de búsqueda: solo los campos indexados
+    @Query("SELECT new com.anecacao.api.reporting.data.dto.projection.ReportSearchView(" +
+            "cr.id, cr.fumigation.id, cr.location, cr.date) FROM CleanupReport cr")
+    List<ReportSearchView> findAllForSearchIndex();
+
+    // Modo cursor: más recientes primero por fecha del informe
+    default CursorPageDTO<CleanupReport> findAll(CursorRequest cursor) {
+        return findSlice(new KeysetQuery<>("CleanupReport", "cr", null, Map.of(), "date", LocalDate::parse,
+                "SELECT cr FROM CleanupReport cr JOIN FETCH cr.fumigation f LEFT JOIN FETCH f.fumigationReport WHERE cr.id IN :ids", CleanupReport.class, CleanupReport::getId), cursor);
+    }
+
+    // Exportación completa: se recorre como cursor y el llamador limpia el contexto por bloques.
+    // El lado inverso del OneToOne de Fumigation no admite proxy, por eso se trae en el mismo join.
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueryHints.FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = StreamingQueryHints.READ_ONLY)
+    })
+    @Query("SELECT cr FROM CleanupReport cr JOIN FETCH cr.fumigation f LEFT JOIN FETCH f.fumigationReport ORDER BY cr.id")
+    Stream<CleanupReport> streamAllForExport();
 }
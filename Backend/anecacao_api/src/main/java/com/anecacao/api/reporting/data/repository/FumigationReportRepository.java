@@ -1,20 +1,53 @@
 package com.anecacao.api.reporting.data.repository;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.data.repository.KeysetPagingRepository;
+import com.anecacao.api.common.data.repository.KeysetQuery;
+import com.anecacao.api.common.data.repository.StreamingQueryHints;
+import com.anecacao.api.reporting.data.dto.projection.CertificateVersionView;
+import com.anecacao.api.reporting.data.dto.projection.ReportSearchView;
+import com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView;
 import com.anecacao.api.reporting.data.entity.FumigationReport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface FumigationReportRepository extends JpaRepository<FumigationReport, Long> {
+public interface FumigationReportRepository extends JpaRepository<FumigationReport, Long>, KeysetPagingRepository {
+    // El lado inverso del OneToOne de Fumigation no admite proxy: se trae junto con la fumigación
+    @EntityGraph(attributePaths = {"fumigation", "fumigation.cleanupReport"})
     Optional<FumigationReport> findByFumigationId(Long fumigationId);
 
+    @Override
+    @EntityGraph(attributePaths = {"fumigation", "fumigation.cleanupReport"})
+    Optional<FumigationReport> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"fumigation", "fumigation.cleanupReport"})
+    Page<FumigationReport> findAll(Pageable pageable);
+
+    @Query("SELECT new com.anecacao.api.reporting.data.dto.projection.ReportTechnicianView(" +
+            "fr.id, t.id, t.nationalId, t.firstName, t.lastName, t.email) " +
+            "FROM FumigationReport fr JOIN fr.technicians t " +
+            "WHERE fr.id IN :reportIds " +
+            "ORDER BY t.id")
+    List<ReportTechnicianView> findTechniciansByReportIds(@Param("reportIds") Collection<Long> reportIds);
+
     Page<FumigationReport> findByDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
     Page<FumigationReport> findByLocationContainingIgnoreCase(String location, Pageable pageable);
@@ -33,4 +66,31 @@ public interface FumigationReportRepository extends JpaRepository<FumigationRepo
                                          @Param("startDate") LocalDate startDate,
                                          @Param("endDate") LocalDate endDate,
                                          Pageable pageable);
+
+    // Versiones de la que depende el certificado; basta para saber si la copia guardada sigue vigente
+    @Query("SELECT new com.anecacao.api.reporting.data.dto.projection.CertificateVersionView(" +
+            "f.id, f.status, f.version, fr.version, cr.version) " +
+            "FROM Fumigation f LEFT JOIN f.fumigationReport fr LEFT JOIN f.cleanupReport cr " +
+            "WHERE f.id = :fumigationId")
+    Optional<CertificateVersionView> findCertificateVersion(@Param("fumigationId") Long fumigationId);
+
+    // Carga inicial del índice de búsqueda: solo los campos indexados
+    @Query("SELECT new com.anecacao.api.reporting.data.dto.projection.ReportSearchView(" +
+            "fr.id, fr.fumigation.id, fr.location, fr.observations, fr.date) FROM FumigationReport fr")
+    List<ReportSearchView> findAllForSearchIndex();
+
+    // Modo cursor: más recientes primero por fecha del informe
+    default CursorPageDTO<FumigationReport> findAll(CursorRequest cursor) {
+        return findSlice(new KeysetQuery<>("FumigationReport", "fr", null, Map.of(), "date", LocalDate::parse,
+                "SELECT fr FROM FumigationReport fr JOIN FETCH fr.fumigation f LEFT JOIN FETCH f.cleanupReport WHERE fr.id IN :ids", FumigationReport.class, FumigationReport::getId), cursor);
+    }
+
+    // Exportación completa: se recorre como cursor y el llamador limpia el contexto por bloques.
+    // El lado inverso del OneToOne de Fumigation no admite proxy, por eso se trae en el mismo join.
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueryHints.FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = StreamingQueryHints.READ_ONLY)
+    })
+    @Query("SELECT fr FROM FumigationReport fr JOIN FETCH fr.fumigation f LEFT JOIN FETCH f.cleanupReport ORDER BY fr.id")
+    Stream<FumigationReport> streamAllForExport();
 }
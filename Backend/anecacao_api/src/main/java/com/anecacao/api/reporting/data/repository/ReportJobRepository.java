@@ -0,0 +1,40 @@
+package com.anecacao.api.reporting.data.repository;
+
+import com.anecacao.api.reporting.data.entity.ReportJob;
+import com.anecacao.api.reporting.data.entity.ReportJobStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    // Valor especial de jakarta.persistence.lock.timeout que Hibernate traduce a SKIP LOCKED
+    // (el mismo que LockOptions.SKIP_LOCKED, obsoleto en Hibernate 6.6)
+    String SKIP_LOCKED = "-2";
+
+    Optional<ReportJob> findBySubmittedByAndIdempotencyKey(Long submittedBy, String idempotencyKey);
+
+    // SKIP LOCKED: varios workers (o nodos) toman lotes distintos sin esperarse entre sí
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT j FROM ReportJob j WHERE j.status IN :statuses AND j.availableAt <= :now ORDER BY j.id")
+    List<ReportJob> findClaimable(@Param("statuses") Collection<ReportJobStatus> statuses,
+                                  @Param("now") LocalDateTime now,
+                                  Limit limit);
+
+    // Se bloquea mientras corre el trabajo: con la fila tomada ningún otro worker puede reclamarlo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ReportJob j WHERE j.id = :id")
+    Optional<ReportJob> findByIdForUpdate(@Param("id") Long id);
+}
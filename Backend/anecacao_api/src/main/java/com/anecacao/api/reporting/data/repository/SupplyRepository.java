@@ -4,6 +4,10 @@ import com.anecacao.api.reporting.data.entity.Supply;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface SupplyRepository extends JpaRepository <Supply, Long> {
+    List<Supply> findByFumigationReportIdInOrderById(Collection<Long> fumigationReportIds);
 }
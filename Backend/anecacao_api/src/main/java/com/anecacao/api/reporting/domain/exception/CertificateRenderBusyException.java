@@ -0,0 +1,7 @@
+package com.anecacao.api.reporting.domain.exception;
+
+public class CertificateRenderBusyException extends RuntimeException {
+    public CertificateRenderBusyException() {
+        super ("Too many certificates are being generated right now. Try again in a few seconds.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.anecacao.api.reporting.domain.exception;
+
+public class ReportJobNotFoundException extends RuntimeException {
+    public ReportJobNotFoundException(Long id) {
+        super ("Report job with id: " + id + " was not found.");
+    }
+}
@@ -0,0 +1,15 @@
+package com.anecacao.api.reporting.domain.service;
+
+import com.anecacao.api.reporting.data.dto.CertificateDocument;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Genera el PDF del certificado en un pool acotado, fuera de los hilos de las peticiones. Devuelve el
+ * documento completo: la respuesta la escribe el despacho asíncrono de la petición, nunca el pool, y un
+ * error al generarlo no deja una respuesta a medias.
+ * Si el pool está lleno lanza {@link com.anecacao.api.reporting.domain.exception.CertificateRenderBusyException}.
+ */
+public interface CertificatePdfRenderer {
+    CompletableFuture<byte[]> render(CertificateDocument document);
+}
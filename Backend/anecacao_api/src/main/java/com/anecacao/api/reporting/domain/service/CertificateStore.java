@@ -0,0 +1,15 @@
+package com.anecacao.api.reporting.domain.service;
+
+import com.anecacao.api.reporting.data.dto.CertificateContent;
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+
+import java.util.function.Supplier;
+
+/**
+ * Certificados serializados por fumigación y versión de contenido. Una fumigación FINISHED no cambia
+ * mientras su versión se mantenga, así que cada versión se calcula una sola vez; las versiones
+ * anteriores simplemente dejan de pedirse.
+ */
+public interface CertificateStore {
+    CertificateContent getOrCompute(Long fumigationId, String contentVersion, Supplier<CertificateDTO> certificate);
+}
@@ -0,0 +1,12 @@
+package com.anecacao.api.reporting.domain.service;
+
+import com.anecacao.api.reporting.data.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ReportExportService {
+    void exportFumigationReports(ExportFormat format, OutputStream output) throws IOException;
+
+    void exportCleanupReports(ExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,28 @@
+package com.anecacao.api.reporting.domain.service;
+
+import com.anecacao.api.reporting.data.dto.CleanupReportDTO;
+import com.anecacao.api.reporting.data.dto.FumigationReportDTO;
+import com.anecacao.api.reporting.data.dto.response.ReportJobResponseDTO;
+
+/**
+ * Cola de informes en la base de datos. Enviar solo guarda el informe como trabajo pendiente; los
+ * workers lo procesan después con la misma lógica de {@link ReportsService}, y el efecto del informe
+ * se confirma en la misma transacción que marca el trabajo como terminado.
+ * <p>
+ * Con {@code Idempotency-Key}, reenviar el mismo informe devuelve el trabajo ya creado en lugar de
+ * encolarlo otra vez; la clave es propia de cada usuario.
+ */
+public interface ReportJobService {
+    ReportJobResponseDTO submitFumigationReport(FumigationReportDTO reportDTO, String idempotencyKey);
+
+    ReportJobResponseDTO submitCleanupReport(CleanupReportDTO reportDTO, String idempotencyKey);
+
+    ReportJobResponseDTO getJob(Long id);
+
+    /**
+     * Toma y procesa un lote de trabajos pendientes.
+     *
+     * @return {@code true} si el lote salió completo y probablemente quedan más
+     */
+    boolean processBatch();
+}
@@ -0,0 +1,20 @@
+package com.anecacao.api.reporting.domain.service;
+
+import com.anecacao.api.reporting.data.dto.response.ReportSearchResultDTO;
+import com.anecacao.api.reporting.data.entity.CleanupReport;
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Índice invertido de trigramas sobre la ubicación y las observaciones de los informes.
+ * Se construye al arrancar y se actualiza al guardar informes, de modo que la búsqueda
+ * de texto libre no recorre las tablas con LIKE '%x%'.
+ */
+public interface ReportSearchIndex {
+    Page<ReportSearchResultDTO> search(String query, Pageable pageable);
+
+    void index(FumigationReport report);
+
+    void index(CleanupReport report);
+}
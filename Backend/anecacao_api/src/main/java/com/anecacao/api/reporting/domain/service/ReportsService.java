@@ -1,16 +1,18 @@
 package com.anecacao.api.reporting.domain.service;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.reporting.data.dto.CertificateContent;
+import com.anecacao.api.reporting.data.dto.CertificateDocument;
 import com.anecacao.api.reporting.data.dto.CleanupReportDTO;
-import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
 import com.anecacao.api.reporting.data.dto.response.CleanupReportResponseDTO;
 import com.anecacao.api.reporting.data.dto.FumigationReportDTO;
 import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
+import com.anecacao.api.reporting.data.dto.response.ReportSearchResultDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import java.util.List;
-
 public interface ReportsService {
     MessageDTO createFumigationReport(FumigationReportDTO reportDTO);
 
@@ -18,7 +20,7 @@ public interface ReportsService {
 
     Page<FumigationReportResponseDTO> getAllFumigationReports(Pageable pageable);
 
-    List<FumigationReportResponseDTO> getAllFumigationReportsNoPagination();
+    CursorPageDTO<FumigationReportResponseDTO> getAllFumigationReports(CursorRequest cursor);
 
     FumigationReportResponseDTO getFumigationReportById(Long id);
 
@@ -26,11 +28,15 @@ public interface ReportsService {
 
     Page<CleanupReportResponseDTO> getAllCleanupReports(Pageable pageable);
 
-    List<CleanupReportResponseDTO> getAllCleanupReportsNoPagination();
+    CursorPageDTO<CleanupReportResponseDTO> getAllCleanupReports(CursorRequest cursor);
 
     CleanupReportResponseDTO getCleanupReportById(Long id);
 
     CleanupReportResponseDTO getCleanupReportByFumigationId(Long fumigationId);
 
-    CertificateDTO getCertificateByFumigationId(Long fumigationId);
+    CertificateContent getCertificateByFumigationId(Long fumigationId);
+
+    CertificateDocument getCertificateDocument(Long fumigationId);
+
+    Page<ReportSearchResultDTO> searchReports(String query, Pageable pageable);
 }
@@ -1,7 +1,9 @@
 package com.anecacao.api.reporting.domain.service.exception;
 
+import java.util.Collection;
+
 public class TechnicalRoleException extends RuntimeException {
-    public TechnicalRoleException(String id) {
-        super ("User with ID " + id + " does not have the TECHNICIAN role.");
+    public TechnicalRoleException(Collection<Long> ids) {
+        super ("Users with IDs " + ids + " do not exist or do not have the TECHNICIAN role.");
     }
 }
@@ -0,0 +1,263 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.CertificateDocument;
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+import com.anecacao.api.reporting.domain.exception.CertificateRenderBusyException;
+import com.anecacao.api.reporting.domain.service.CertificatePdfRenderer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * La plantilla (campos, etiquetas y medidas) y las métricas de Helvetica se preparan una sola vez al
+ * arrancar; cada certificado solo arma su página y la escribe en la salida. Las fuentes estándar no se
+ * incrustan, así que crear sus objetos por documento no vuelve a leer ningún archivo.
+ */
+@Service
+public class CertificatePdfRendererImpl implements CertificatePdfRenderer {
+    private static final PDRectangle PAGE = PDRectangle.A4;
+    private static final float MARGIN = 56;
+    private static final float TITLE_SIZE = 16;
+    private static final float TEXT_SIZE = 11;
+    private static final float LEADING = 16;
+    private static final float LABEL_GAP = 12;
+    private static final int MAX_VALUE_LINES = 3;
+    private static final float SIGNATURE_WIDTH = 200;
+    private static final float SIGNATURE_HEIGHT = 80;
+    private static final String TITLE = "CERTIFICADO DE FUMIGACIÓN";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final List<Field> FIELDS = List.of(
+            new Field("Razón social", CertificateDTO::getCompanyName),
+            new Field("Fecha de fumigación", CertificateDTO::getFumigationDate),
+            new Field("Tipo/Clase de cacao", CertificateDTO::getQuality),
+            new Field("No. de lote", CertificateDTO::getLotNumber),
+            new Field("País/Ciudad de destino", CertificateDTO::getPortDestination),
+            new Field("Producto utilizado", CertificateDTO::getProductName),
+            new Field("Sistema de fumigación", CertificateDTO::getFumigationSystem),
+            new Field("Tiempo de acción", CertificateDTO::getActionTime),
+            new Field("Dosis aplicada", CertificateDTO::getAppliedDosage),
+            new Field("Temperatura ambiente", CertificateDTO::getAmbientTemperature),
+            new Field("Medición de fosfina (ppm)", CertificateDTO::getPhosphineMeasurement),
+            new Field("Fecha de descarpe", CertificateDTO::getCleanUpDate));
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+    private final Counter signatureErrors;
+    private final BitSet encodable;
+    private final float labelWidth;
+    private final float titleWidth;
+
+    public CertificatePdfRendererImpl(MeterRegistry meterRegistry,
+                                      @Value("${app.certificates.pdf.threads:2}") int threads,
+                                      @Value("${app.certificates.pdf.queue-capacity:16}") int queueCapacity) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("certificate-pdf-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "reports.certificates.pdf");
+        this.rejected = Counter.builder("reports.certificates.pdf.rejected")
+                .description("Certificate PDFs refused because the render pool was full")
+                .register(meterRegistry);
+        this.signatureErrors = Counter.builder("reports.certificates.pdf.signature.errors")
+                .description("Signature images that could not be embedded in a certificate PDF")
+                .register(meterRegistry);
+
+        this.encodable = winAnsiCharacters();
+        PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        float widest = 0;
+        for (Field field : FIELDS) {
+            widest = Math.max(widest, width(bold, TEXT_SIZE, field.label()));
+        }
+        this.labelWidth = widest;
+        this.titleWidth = width(bold, TITLE_SIZE, TITLE);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> render(CertificateDocument document) {
+        try {
+            return CompletableFuture.supplyAsync(() -> write(document), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new CertificateRenderBusyException();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private byte[] write(CertificateDocument document) {
+        try (PDDocument pdf = layout(document)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            pdf.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PDDocument layout(CertificateDocument document) throws IOException {
+        PDDocument pdf = new PDDocument();
+        try {
+            PDPage page = new PDPage(PAGE);
+            pdf.addPage(page);
+            PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+
+            try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                float y = PAGE.getHeight() - MARGIN - TITLE_SIZE;
+                text(content, bold, TITLE_SIZE, (PAGE.getWidth() - titleWidth) / 2, y, TITLE);
+                y -= TITLE_SIZE * 2;
+
+                float valueX = MARGIN + labelWidth + LABEL_GAP;
+                float valueWidth = PAGE.getWidth() - MARGIN - valueX;
+                for (Field field : FIELDS) {
+                    text(content, bold, TEXT_SIZE, MARGIN, y, field.label());
+                    for (String line : wrap(regular, format(field.value().apply(document.certificate())), valueWidth)) {
+                        text(content, regular, TEXT_SIZE, valueX, y, line);
+                        y -= LEADING;
+                    }
+                }
+
+                signature(pdf, content, regular, MARGIN, document.technicianSignature(), "Firma del técnico");
+                signature(pdf, content, regular, PAGE.getWidth() - MARGIN - SIGNATURE_WIDTH,
+                        document.clientSignature(), "Firma del cliente");
+            }
+            return pdf;
+        } catch (IOException | RuntimeException e) {
+            pdf.close();
+            throw e;
+        }
+    }
+
+    private void signature(PDDocument pdf, PDPageContentStream content, PDFont font, float x,
+                           byte[] image, String caption) throws IOException {
+        float lineY = MARGIN + LEADING;
+        if (image != null) {
+            try {
+                PDImageXObject signature = PDImageXObject.createFromByteArray(pdf, image, caption);
+                float scale = Math.min(SIGNATURE_WIDTH / signature.getWidth(), SIGNATURE_HEIGHT / signature.getHeight());
+                float width = signature.getWidth() * scale;
+                content.drawImage(signature, x + (SIGNATURE_WIDTH - width) / 2, lineY + 4, width, signature.getHeight() * scale);
+            } catch (IOException | IllegalArgumentException e) {
+                // Una imagen dañada deja el recuadro en blanco en vez de impedir el certificado
+                signatureErrors.increment();
+            }
+        }
+
+        content.moveTo(x, lineY);
+        content.lineTo(x + SIGNATURE_WIDTH, lineY);
+        content.stroke();
+        text(content, font, TEXT_SIZE, x, MARGIN, caption);
+    }
+
+    private void text(PDPageContentStream content, PDFont font, float size, float x, float y, String text) throws IOException {
+        content.beginText();
+        content.setFont(font, size);
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+
+    private List<String> wrap(PDFont font, String text, float maxWidth) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" +")) {
+            String candidate = line.isEmpty() ? word : line + " " + word;
+            if (width(font, TEXT_SIZE, candidate) <= maxWidth) {
+                line.setLength(0);
+                line.append(candidate);
+                continue;
+            }
+
+            if (!line.isEmpty()) lines.add(line.toString());
+            line.setLength(0);
+            // Palabras más anchas que la columna se cortan por caracteres
+            for (char c : word.toCharArray()) {
+                if (!line.isEmpty() && width(font, TEXT_SIZE, line.toString() + c) > maxWidth) {
+                    lines.add(line.toString());
+                    line.setLength(0);
+                }
+                line.append(c);
+            }
+        }
+        lines.add(line.toString());
+
+        if (lines.size() <= MAX_VALUE_LINES) return lines;
+
+        List<String> kept = new ArrayList<>(lines.subList(0, MAX_VALUE_LINES));
+        String last = kept.get(MAX_VALUE_LINES - 1);
+        while (!last.isEmpty() && width(font, TEXT_SIZE, last + "…") > maxWidth) {
+            last = last.substring(0, last.length() - 1);
+        }
+        kept.set(MAX_VALUE_LINES - 1, last + "…");
+        return kept;
+    }
+
+    // Helvetica sin incrustar solo cubre WinAnsi; el resto de caracteres se reemplaza por '?'
+    private String format(Object value) {
+        String text;
+        if (value == null) text = "-";
+        else if (value instanceof LocalDate date) text = DATE_FORMAT.format(date);
+        else if (value instanceof BigDecimal number) text = number.toPlainString();
+        else text = value.toString();
+
+        String normalized = Normalizer.normalize(text.strip(), Normalizer.Form.NFC);
+        StringBuilder safe = new StringBuilder(normalized.length());
+        for (char c : normalized.toCharArray()) {
+            if (Character.isWhitespace(c)) safe.append(' ');
+            else safe.append(encodable.get(c) ? c : '?');
+        }
+        return safe.isEmpty() ? "-" : safe.toString();
+    }
+
+    private static BitSet winAnsiCharacters() {
+        BitSet characters = new BitSet(Character.MAX_VALUE + 1);
+        GlyphList glyphs = GlyphList.getAdobeGlyphList();
+        WinAnsiEncoding.INSTANCE.getCodeToNameMap().values().forEach(name -> {
+            String unicode = glyphs.toUnicode(name);
+            if (unicode != null && unicode.length() == 1) characters.set(unicode.charAt(0));
+        });
+        return characters;
+    }
+
+    private static float width(PDFont font, float size, String text) {
+        try {
+            return font.getStringWidth(text) / 1000 * size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Field(String label, Function<CertificateDTO, Object> value) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.CertificateContent;
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+import com.anecacao.api.reporting.domain.service.CertificateStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Dos niveles: una LRU en memoria acotada por bytes y un directorio local que sobrevive a reinicios.
+ * Cada versión se escribe en su propio archivo ({@code <fumigationId>-<versión>.json}) con un
+ * move atómico, y al guardar una versión nueva se borran las anteriores de la misma fumigación.
+ * El disco es un nivel de apoyo: si falla, el certificado se sirve igual desde memoria.
+ */
+@Service
+public class CertificateStoreImpl implements CertificateStore {
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final LinkedHashMap<String, CertificateContent> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter computed;
+    private final Counter diskErrors;
+
+    public CertificateStoreImpl(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.certificates.cache.dir:cache/certificates}") Path directory,
+                                @Value("${app.certificates.cache.max-memory:16MB}") DataSize maxMemory) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemory.toBytes();
+        this.memoryHits = lookups(meterRegistry, "memory", "Certificates served from the in-memory tier");
+        this.diskHits = lookups(meterRegistry, "disk", "Certificates served from the local disk tier");
+        this.computed = lookups(meterRegistry, "computed", "Certificates built from the database");
+        this.diskErrors = Counter.builder("reports.certificates.disk.errors")
+                .description("Failed reads or writes on the certificate disk tier")
+                .register(meterRegistry);
+        Gauge.builder("reports.certificates.memory.bytes", this, CertificateStoreImpl::memoryBytes)
+                .description("Bytes held by the in-memory certificate tier")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CertificateContent getOrCompute(Long fumigationId, String contentVersion, Supplier<CertificateDTO> certificate) {
+        String key = fumigationId + "-" + contentVersion;
+
+        CertificateContent cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+
+        cached = fromDisk(key);
+        if (cached != null) {
+            diskHits.increment();
+            toMemory(key, cached);
+            return cached;
+        }
+
+        // Dos peticiones simultáneas pueden calcular la misma versión; el resultado es idéntico
+        CertificateContent content = toContent(serialize(certificate.get()));
+        computed.increment();
+        toMemory(key, content);
+        toDisk(fumigationId, key, content);
+        return content;
+    }
+
+    private synchronized CertificateContent fromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void toMemory(String key, CertificateContent content) {
+        if (content.content().length > maxMemoryBytes) return;
+
+        CertificateContent previous = memory.put(key, content);
+        if (previous != null) memoryBytes -= previous.content().length;
+        memoryBytes += content.content().length;
+
+        var eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().content().length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    private CertificateContent fromDisk(String key) {
+        Path file = directory.resolve(key + ".json");
+        if (!Files.isRegularFile(file)) return null;
+
+        try {
+            return toContent(Files.readAllBytes(file));
+        } catch (IOException e) {
+            diskErrors.increment();
+            return null;
+        }
+    }
+
+    private void toDisk(Long fumigationId, String key, CertificateContent content) {
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try {
+                Files.write(temp, content.content());
+                Files.move(temp, directory.resolve(key + ".json"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            try (DirectoryStream<Path> versions = Files.newDirectoryStream(directory, fumigationId + "-*.json")) {
+                for (Path version : versions) {
+                    if (!version.getFileName().toString().equals(key + ".json")) Files.deleteIfExists(version);
+                }
+            }
+        } catch (IOException e) {
+            diskErrors.increment();
+        }
+    }
+
+    private byte[] serialize(CertificateDTO certificate) {
+        try {
+            return objectMapper.writeValueAsBytes(certificate);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CertificateContent toContent(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return new CertificateContent(bytes, "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry registry, String tier, String description) {
+        return Counter.builder("reports.certificates.lookups")
+                .description(description)
+                .tag("tier", tier)
+                .register(registry);
+    }
+}
@@ -0,0 +1,155 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.auth.data.dto.UserResponseDTO;
+import com.anecacao.api.reporting.data.dto.ExportFormat;
+import com.anecacao.api.reporting.data.dto.response.CleanupReportResponseDTO;
+import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
+import com.anecacao.api.reporting.data.mapper.ReportPageAssembler;
+import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
+import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.reporting.domain.service.ReportExportService;
+import com.anecacao.api.signature.data.dto.SignatureResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ReportExportServiceImpl implements ReportExportService {
+    static final int CHUNK_SIZE = 200;
+
+    private static final Map<String, Function<FumigationReportResponseDTO, Object>> FUMIGATION_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<CleanupReportResponseDTO, Object>> CLEANUP_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        FUMIGATION_COLUMNS.put("id", FumigationReportResponseDTO::getId);
+        FUMIGATION_COLUMNS.put("fumigationId", dto -> dto.getFumigationInfo() != null ? dto.getFumigationInfo().getId() : null);
+        FUMIGATION_COLUMNS.put("lotNumber", dto -> dto.getFumigationInfo() != null ? dto.getFumigationInfo().getLotNumber() : null);
+        FUMIGATION_COLUMNS.put("status", dto -> dto.getFumigationInfo() != null ? dto.getFumigationInfo().getStatus() : null);
+        FUMIGATION_COLUMNS.put("date", FumigationReportResponseDTO::getDate);
+        FUMIGATION_COLUMNS.put("startTime", FumigationReportResponseDTO::getStartTime);
+        FUMIGATION_COLUMNS.put("endTime", FumigationReportResponseDTO::getEndTime);
+        FUMIGATION_COLUMNS.put("location", FumigationReportResponseDTO::getLocation);
+        FUMIGATION_COLUMNS.put("supervisor", FumigationReportResponseDTO::getSupervisor);
+        FUMIGATION_COLUMNS.put("technicians", dto -> joinTechnicians(dto.getTechnicians()));
+        FUMIGATION_COLUMNS.put("supplies", dto -> dto.getSupplies() != null ? dto.getSupplies().size() : 0);
+        FUMIGATION_COLUMNS.put("observations", FumigationReportResponseDTO::getObservations);
+        FUMIGATION_COLUMNS.put("signatures", dto -> joinSignatures(dto.getSignatures()));
+
+        CLEANUP_COLUMNS.put("id", CleanupReportResponseDTO::getId);
+        CLEANUP_COLUMNS.put("fumigationId", dto -> dto.getFumigationInfo() != null ? dto.getFumigationInfo().getId() : null);
+        CLEANUP_COLUMNS.put("lotNumber", dto -> dto.getFumigationInfo() != null ? dto.getFumigationInfo().getLotNumber() : null);
+        CLEANUP_COLUMNS.put("status", dto -> dto.getFumigationInfo() != null ? dto.getFumigationInfo().getStatus() : null);
+        CLEANUP_COLUMNS.put("date", CleanupReportResponseDTO::getDate);
+        CLEANUP_COLUMNS.put("startTime", CleanupReportResponseDTO::getStartTime);
+        CLEANUP_COLUMNS.put("endTime", CleanupReportResponseDTO::getEndTime);
+        CLEANUP_COLUMNS.put("location", CleanupReportResponseDTO::getLocation);
+        CLEANUP_COLUMNS.put("supervisor", CleanupReportResponseDTO::getSupervisor);
+        CLEANUP_COLUMNS.put("stripsState", dto -> dto.getLotDescription() != null ? dto.getLotDescription().getStripsState() : null);
+        CLEANUP_COLUMNS.put("fumigationTime", dto -> dto.getLotDescription() != null ? dto.getLotDescription().getFumigationTime() : null);
+        CLEANUP_COLUMNS.put("ppmFosfina", dto -> dto.getLotDescription() != null ? dto.getLotDescription().getPpmFosfina() : null);
+        CLEANUP_COLUMNS.put("technicians", dto -> joinTechnicians(dto.getTechnicians()));
+        CLEANUP_COLUMNS.put("signatures", dto -> joinSignatures(dto.getSignatures()));
+    }
+
+    private final FumigationReportRepository fumigationReportRepository;
+    private final CleanupReportRepository cleanupReportRepository;
+    private final ReportPageAssembler reportPageAssembler;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportExportServiceImpl(FumigationReportRepository fumigationReportRepository,
+                                   CleanupReportRepository cleanupReportRepository,
+                                   ReportPageAssembler reportPageAssembler,
+                                   ObjectMapper objectMapper,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager) {
+        this.fumigationReportRepository = fumigationReportRepository;
+        this.cleanupReportRepository = cleanupReportRepository;
+        this.reportPageAssembler = reportPageAssembler;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void exportFumigationReports(ExportFormat format, OutputStream output) throws IOException {
+        ReportExportWriter<FumigationReportResponseDTO> writer =
+                new ReportExportWriter<>(format, output, objectMapper, FUMIGATION_COLUMNS);
+
+        export(fumigationReportRepository::streamAllForExport, writer, reportPageAssembler::toFumigationReportDTOs);
+    }
+
+    @Override
+    public void exportCleanupReports(ExportFormat format, OutputStream output) throws IOException {
+        ReportExportWriter<CleanupReportResponseDTO> writer =
+                new ReportExportWriter<>(format, output, objectMapper, CLEANUP_COLUMNS);
+
+        export(cleanupReportRepository::streamAllForExport, writer, reportPageAssembler::toCleanupReportDTOs);
+    }
+
+    /**
+     * Recorre el cursor por bloques de {@link #CHUNK_SIZE}: mapea el bloque con sus asociaciones
+     * en una consulta por asociación, lo escribe y vacía el contexto de persistencia antes de leer el siguiente, de modo
+     * que la memoria usada no depende del total de filas.
+     */
+    private <E, D> void export(Supplier<Stream<E>> source, ReportExportWriter<D> writer,
+                               Function<List<E>, List<D>> chunkMapper) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<E> rows = source.get()) {
+                    writer.begin();
+                    Iterator<E> iterator = rows.iterator();
+                    List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+
+                    while (true) {
+                        // hasNext() ya hidrata la fila siguiente: no se llama con el bloque lleno
+                        while (chunk.size() < CHUNK_SIZE && iterator.hasNext()) chunk.add(iterator.next());
+                        if (chunk.isEmpty()) break;
+
+                        for (D row : chunkMapper.apply(chunk)) writer.write(row);
+                        writer.flush();
+
+                        chunk.clear();
+                        entityManager.clear();
+                    }
+                    writer.end();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String joinTechnicians(List<UserResponseDTO> technicians) {
+        if (technicians == null) return "";
+
+        return technicians.stream()
+                .map(technician -> (technician.getFirstName() + " " + technician.getLastName()).trim())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String joinSignatures(List<SignatureResponse> signatures) {
+        if (signatures == null) return "";
+
+        return signatures.stream().map(SignatureResponse::getSignatureType).collect(Collectors.joining("; "));
+    }
+}
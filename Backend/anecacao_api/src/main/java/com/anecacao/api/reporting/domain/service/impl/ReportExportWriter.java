@@ -0,0 +1,91 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Escribe filas de una exportación de a una, sin acumularlas: arreglo JSON, una línea JSON por fila
+ * (NDJSON) o CSV con las columnas indicadas.
+ */
+class ReportExportWriter<T> {
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+
+    private final ExportFormat format;
+    private final OutputStream output;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Function<T, Object>> csvColumns;
+    private boolean first = true;
+
+    ReportExportWriter(ExportFormat format, OutputStream output, ObjectMapper objectMapper,
+                       Map<String, Function<T, Object>> csvColumns) {
+        this.format = format;
+        this.output = new BufferedOutputStream(output);
+        this.objectMapper = objectMapper;
+        this.csvColumns = csvColumns;
+    }
+
+    void begin() throws IOException {
+        switch (format) {
+            case JSON -> output.write('[');
+            case CSV -> writeCsvLine(List.copyOf(csvColumns.keySet()));
+            case NDJSON -> { }
+        }
+    }
+
+    void write(T row) throws IOException {
+        switch (format) {
+            case JSON -> {
+                if (!first) output.write(SEPARATOR);
+                output.write(objectMapper.writeValueAsBytes(row));
+            }
+            case NDJSON -> {
+                output.write(objectMapper.writeValueAsBytes(row));
+                output.write(NEW_LINE);
+            }
+            case CSV -> writeCsvLine(csvColumns.values().stream()
+                    .map(column -> column.apply(row))
+                    .toList());
+        }
+        first = false;
+    }
+
+    void end() throws IOException {
+        if (format == ExportFormat.JSON) output.write(']');
+        output.flush();
+    }
+
+    void flush() throws IOException {
+        output.flush();
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        String line = values.stream().map(ReportExportWriter::escapeCsv).collect(Collectors.joining(","));
+        output.write(line.getBytes(StandardCharsets.UTF_8));
+        output.write(NEW_LINE);
+    }
+
+    private static String escapeCsv(Object cell) {
+        if (cell == null) return "";
+
+        String value = cell.toString();
+        if (value.isEmpty()) return value;
+
+        // Evita que hojas de cálculo interpreten un texto libre como fórmula
+        if (cell instanceof CharSequence && "=+-@".indexOf(value.charAt(0)) >= 0) value = "'" + value;
+
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
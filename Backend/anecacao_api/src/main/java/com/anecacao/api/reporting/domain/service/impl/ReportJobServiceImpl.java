@@ -0,0 +1,296 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.reporting.data.dto.CleanupReportDTO;
+import com.anecacao.api.reporting.data.dto.FumigationReportDTO;
+import com.anecacao.api.reporting.data.dto.ReportType;
+import com.anecacao.api.reporting.data.dto.response.ReportJobResponseDTO;
+import com.anecacao.api.reporting.data.entity.ReportJob;
+import com.anecacao.api.reporting.data.entity.ReportJobStatus;
+import com.anecacao.api.reporting.data.repository.ReportJobRepository;
+import com.anecacao.api.reporting.domain.exception.IdempotencyKeyReusedException;
+import com.anecacao.api.reporting.domain.exception.IndustrialSafetyViolationException;
+import com.anecacao.api.reporting.domain.exception.ReportJobNotFoundException;
+import com.anecacao.api.reporting.domain.service.ReportJobService;
+import com.anecacao.api.reporting.domain.service.ReportsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Las consultas van siempre al primario (las transacciones no son readOnly): una réplica atrasada podría
+ * no ver el trabajo recién creado con la misma clave, o uno ya tomado por otro worker.
+ * <p>
+ * Cada trabajo corre en su propia transacción con su fila bloqueada. Si el informe falla se descartan sus
+ * efectos y el fallo se anota aparte; los errores transitorios de la base vuelven a la cola con espera.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+    private static final List<ReportJobStatus> CLAIMABLE = List.of(ReportJobStatus.PENDING, ReportJobStatus.PROCESSING);
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final ReportJobRepository jobRepository;
+    private final ReportsService reportsService;
+    private final ObjectMapper objectMapper;
+    private final AuthenticatedUserContext authenticatedUserContext;
+    private final TransactionTemplate transaction;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter retried;
+
+    public ReportJobServiceImpl(ReportJobRepository jobRepository,
+                                ReportsService reportsService,
+                                ObjectMapper objectMapper,
+                                AuthenticatedUserContext authenticatedUserContext,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.reports.jobs.threads:4}") int threads,
+                                @Value("${app.reports.jobs.batch-size:20}") int batchSize,
+                                @Value("${app.reports.jobs.lease:5m}") Duration lease,
+                                @Value("${app.reports.jobs.max-attempts:5}") int maxAttempts) {
+        this.jobRepository = jobRepository;
+        this.reportsService = reportsService;
+        this.objectMapper = objectMapper;
+        this.authenticatedUserContext = authenticatedUserContext;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // La cola nunca crece más que un lote: se espera a que termine antes de tomar el siguiente
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("report-jobs-"));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "reports.jobs");
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.succeeded = outcome(meterRegistry, "succeeded", "Report jobs whose report was applied");
+        this.failed = outcome(meterRegistry, "failed", "Report jobs rejected or abandoned after their last attempt");
+        this.retried = outcome(meterRegistry, "retried", "Report jobs sent back to the queue after a transient error");
+    }
+
+    @Override
+    public ReportJobResponseDTO submitFumigationReport(FumigationReportDTO reportDTO, String idempotencyKey) {
+        return submit(ReportType.FUMIGATION, reportDTO, idempotencyKey);
+    }
+
+    @Override
+    public ReportJobResponseDTO submitCleanupReport(CleanupReportDTO reportDTO, String idempotencyKey) {
+        return submit(ReportType.CLEANUP, reportDTO, idempotencyKey);
+    }
+
+    @Override
+    public ReportJobResponseDTO getJob(Long id) {
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+        ReportJob job = transaction.execute(status -> jobRepository.findById(id))
+                .filter(found -> user.hasRole(RoleName.ROLE_ADMIN) || found.getSubmittedBy().equals(user.getId()))
+                .orElseThrow(() -> new ReportJobNotFoundException(id));
+        return toDTO(job);
+    }
+
+    @Override
+    public boolean processBatch() {
+        List<ReportJob> claimed = transaction.execute(status -> claim());
+        if (claimed.isEmpty()) {
+            return false;
+        }
+
+        CompletableFuture.allOf(claimed.stream()
+                        .map(job -> CompletableFuture.runAsync(() -> run(job), executor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        return claimed.size() == batchSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private ReportJobResponseDTO submit(ReportType type, Object report, String idempotencyKey) {
+        Long userId = authenticatedUserContext.getCurrentUserId();
+        String payload = toJson(report);
+        String payloadHash = sha256(payload);
+
+        if (idempotencyKey != null) {
+            Optional<ReportJob> existing = transaction.execute(status ->
+                    jobRepository.findBySubmittedByAndIdempotencyKey(userId, idempotencyKey));
+            if (existing.isPresent()) {
+                return replay(existing.get(), type, payloadHash);
+            }
+        }
+
+        ReportJob job = new ReportJob();
+        job.setType(type);
+        job.setStatus(ReportJobStatus.PENDING);
+        job.setSubmittedBy(userId);
+        job.setIdempotencyKey(idempotencyKey);
+        job.setPayload(payload);
+        job.setPayloadHash(payloadHash);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setAvailableAt(job.getCreatedAt());
+
+        try {
+            return toDTO(transaction.execute(status -> jobRepository.saveAndFlush(job)));
+        } catch (DataIntegrityViolationException e) {
+            // Un reintento concurrente con la misma clave se adelantó; gana el primero en insertar
+            ReportJob winner = transaction.execute(status ->
+                            jobRepository.findBySubmittedByAndIdempotencyKey(userId, idempotencyKey))
+                    .orElseThrow(() -> e);
+            return replay(winner, type, payloadHash);
+        }
+    }
+
+    private ReportJobResponseDTO replay(ReportJob job, ReportType type, String payloadHash) {
+        if (job.getType() != type || !job.getPayloadHash().equals(payloadHash)) {
+            throw new IdempotencyKeyReusedException(job.getIdempotencyKey());
+        }
+        return toDTO(job);
+    }
+
+    private List<ReportJob> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReportJob> claimed = new ArrayList<>();
+
+        for (ReportJob job : jobRepository.findClaimable(CLAIMABLE, now, Limit.of(batchSize))) {
+            // Un trabajo que agotó sus tomas sin terminar (el worker murió cada vez) no se reintenta más
+            if (job.getAttempts() >= maxAttempts) {
+                complete(job, ReportJobStatus.FAILED, "Processing was interrupted " + job.getAttempts() + " times.");
+                failed.increment();
+                continue;
+            }
+            job.setStatus(ReportJobStatus.PROCESSING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setAvailableAt(now.plus(lease));
+            claimed.add(job);
+        }
+        return claimed;
+    }
+
+    private void run(ReportJob claimed) {
+        try {
+            transaction.executeWithoutResult(status -> lockClaimed(claimed).ifPresent(this::execute));
+        } catch (RuntimeException e) {
+            transaction.executeWithoutResult(status -> lockClaimed(claimed).ifPresent(job -> fail(job, e)));
+        }
+    }
+
+    // Vacío si otro worker volvió a tomar el trabajo tras vencer la concesión, o si ya terminó
+    private Optional<ReportJob> lockClaimed(ReportJob claimed) {
+        return jobRepository.findByIdForUpdate(claimed.getId())
+                .filter(job -> job.getStatus() == ReportJobStatus.PROCESSING && job.getAttempts() == claimed.getAttempts());
+    }
+
+    private void execute(ReportJob job) {
+        Long fumigationId;
+        MessageDTO result;
+        if (job.getType() == ReportType.FUMIGATION) {
+            FumigationReportDTO report = fromJson(job, FumigationReportDTO.class);
+            fumigationId = report.getId();
+            result = reportsService.createFumigationReport(report);
+        } else {
+            CleanupReportDTO report = fromJson(job, CleanupReportDTO.class);
+            fumigationId = report.getId();
+            result = reportsService.createCleanupReport(report);
+        }
+
+        // Igual que la respuesta síncrona: el informe se guarda y la fumigación pasa a FAILED, pero se rechaza
+        if (result == null) {
+            complete(job, ReportJobStatus.FAILED, new IndustrialSafetyViolationException(fumigationId).getMessage());
+            failed.increment();
+            return;
+        }
+        complete(job, ReportJobStatus.SUCCEEDED, result.getMessage());
+        succeeded.increment();
+    }
+
+    private void fail(ReportJob job, RuntimeException e) {
+        if (e instanceof TransientDataAccessException && job.getAttempts() < maxAttempts) {
+            job.setStatus(ReportJobStatus.PENDING);
+            job.setAvailableAt(LocalDateTime.now().plusSeconds(5L * job.getAttempts()));
+            retried.increment();
+            return;
+        }
+        complete(job, ReportJobStatus.FAILED, e.getMessage());
+        failed.increment();
+    }
+
+    private static void complete(ReportJob job, ReportJobStatus status, String message) {
+        job.setStatus(status);
+        job.setMessage(message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+        job.setCompletedAt(LocalDateTime.now());
+    }
+
+    private String toJson(Object report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Report could not be serialized", e);
+        }
+    }
+
+    private <T> T fromJson(ReportJob job, Class<T> type) {
+        try {
+            return objectMapper.readValue(job.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Report job " + job.getId() + " has an unreadable payload", e);
+        }
+    }
+
+    private static ReportJobResponseDTO toDTO(ReportJob job) {
+        ReportJobResponseDTO dto = new ReportJobResponseDTO();
+        dto.setId(job.getId());
+        dto.setType(job.getType());
+        dto.setStatus(job.getStatus());
+        dto.setMessage(job.getMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
+    }
+
+    private static String sha256(String payload) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter outcome(MeterRegistry registry, String result, String description) {
+        return Counter.builder("reports.jobs.outcomes")
+                .description(description)
+                .tag("result", result)
+                .register(registry);
+    }
+}
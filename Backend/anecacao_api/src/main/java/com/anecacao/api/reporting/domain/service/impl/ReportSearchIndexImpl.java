@@ -0,0 +1,214 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.ReportType;
+import com.anecacao.api.reporting.data.dto.projection.ReportSearchView;
+import com.anecacao.api.reporting.data.dto.response.ReportSearchResultDTO;
+import com.anecacao.api.reporting.data.entity.CleanupReport;
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
+import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.reporting.domain.service.ReportSearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Cada palabra se rellena con espacios (" gye ") y se parte en trigramas; cada trigrama apunta a los
+ * informes que lo contienen junto con una máscara de campos. La puntuación es la parte de los trigramas
+ * de la búsqueda que aparecen en el informe, con la ubicación pesando el doble que las observaciones.
+ * El índice es local a la instancia; los informes guardados aquí se indexan después del commit.
+ */
+@Service
+public class ReportSearchIndexImpl implements ReportSearchIndex, SmartInitializingSingleton {
+    private static final int LOCATION = 1;
+    private static final int OBSERVATIONS = 2;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int OBSERVATIONS_WEIGHT = 1;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Comparator<ReportSearchResultDTO> RANKING =
+            Comparator.comparingDouble(ReportSearchResultDTO::getScore).reversed()
+                    .thenComparing(ReportSearchResultDTO::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(ReportSearchResultDTO::getType)
+                    .thenComparing(ReportSearchResultDTO::getReportId, Comparator.reverseOrder());
+
+    private final FumigationReportRepository fumigationReportRepository;
+    private final CleanupReportRepository cleanupReportRepository;
+    private final double minScore;
+    private final Map<DocumentKey, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Map<DocumentKey, Integer>> postings = new ConcurrentHashMap<>();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final Timer queries;
+
+    public ReportSearchIndexImpl(FumigationReportRepository fumigationReportRepository,
+                                 CleanupReportRepository cleanupReportRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.reports.search.min-score:0.3}") double minScore) {
+        this.fumigationReportRepository = fumigationReportRepository;
+        this.cleanupReportRepository = cleanupReportRepository;
+        this.minScore = minScore;
+        this.queries = Timer.builder("reports.search.query")
+                .description("Time spent answering report searches from the trigram index")
+                .register(meterRegistry);
+        Gauge.builder("reports.search.index.documents", documents, Map::size)
+                .description("Reports currently held in the search index")
+                .register(meterRegistry);
+        Gauge.builder("reports.search.index.trigrams", postings, Map::size)
+                .description("Distinct trigrams in the search index")
+                .register(meterRegistry);
+        Gauge.builder("reports.search.index.postings", postingCount, AtomicLong::get)
+                .description("Trigram to report entries in the search index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    @Override
+    public Page<ReportSearchResultDTO> search(String query, Pageable pageable) {
+        return queries.record(() -> rank(query, pageable));
+    }
+
+    @Override
+    public void index(FumigationReport report) {
+        indexAfterCommit(ReportType.FUMIGATION, new ReportSearchView(report.getId(), report.getFumigation().getId(),
+                report.getLocation(), report.getObservations(), report.getDate()));
+    }
+
+    @Override
+    public void index(CleanupReport report) {
+        indexAfterCommit(ReportType.CLEANUP, new ReportSearchView(report.getId(), report.getFumigation().getId(),
+                report.getLocation(), report.getDate()));
+    }
+
+    private synchronized void load() {
+        fumigationReportRepository.findAllForSearchIndex().forEach(view -> put(ReportType.FUMIGATION, view));
+        cleanupReportRepository.findAllForSearchIndex().forEach(view -> put(ReportType.CLEANUP, view));
+    }
+
+    private Page<ReportSearchResultDTO> rank(String query, Pageable pageable) {
+        Set<String> queryGrams = trigrams(query != null && query.length() > MAX_QUERY_LENGTH
+                ? query.substring(0, MAX_QUERY_LENGTH) : query).keySet();
+        if (queryGrams.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Map<DocumentKey, Integer> weights = new HashMap<>();
+        for (String gram : queryGrams) {
+            postings.getOrDefault(gram, Map.of())
+                    .forEach((key, fields) -> weights.merge(key, weightOf(fields), Integer::sum));
+        }
+
+        double maxWeight = (double) queryGrams.size() * LOCATION_WEIGHT;
+        List<ReportSearchResultDTO> matches = new ArrayList<>();
+        weights.forEach((key, weight) -> {
+            Document document = documents.get(key);
+            double score = weight / maxWeight;
+            if (document != null && score >= minScore) matches.add(toResult(key.type(), document.view(), score));
+        });
+        matches.sort(RANKING);
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    private void indexAfterCommit(ReportType type, ReportSearchView view) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(type, view);
+            return;
+        }
+
+        // Si la transacción hace rollback el informe no se publica en el índice
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(type, view);
+            }
+        });
+    }
+
+    private synchronized void put(ReportType type, ReportSearchView view) {
+        DocumentKey key = new DocumentKey(type, view.reportId());
+        Document previous = documents.remove(key);
+        if (previous != null) {
+            previous.grams().keySet().forEach(gram -> removePosting(gram, key));
+        }
+
+        Map<String, Integer> grams = trigrams(view.location(), LOCATION);
+        trigrams(view.observations(), OBSERVATIONS).forEach((gram, field) -> grams.merge(gram, field, (a, b) -> a | b));
+
+        grams.forEach((gram, fields) -> {
+            postings.computeIfAbsent(gram, g -> new ConcurrentHashMap<>()).put(key, fields);
+            postingCount.incrementAndGet();
+        });
+        documents.put(key, new Document(view, grams));
+    }
+
+    private void removePosting(String gram, DocumentKey key) {
+        Map<DocumentKey, Integer> keys = postings.get(gram);
+        if (keys == null || keys.remove(key) == null) return;
+
+        postingCount.decrementAndGet();
+        if (keys.isEmpty()) postings.remove(gram);
+    }
+
+    private static Map<String, Integer> trigrams(String text) {
+        return trigrams(text, LOCATION);
+    }
+
+    // Minúsculas y sin tildes: "Guayaquil" y "GUAYAQUÍL" producen los mismos trigramas
+    private static Map<String, Integer> trigrams(String text, int field) {
+        Map<String, Integer> grams = new HashMap<>();
+        if (text == null || text.isBlank()) return grams;
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("");
+        for (String word : SEPARATORS.split(normalized)) {
+            if (word.isEmpty()) continue;
+
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.put(padded.substring(i, i + 3), field);
+            }
+        }
+        return grams;
+    }
+
+    private static int weightOf(int fields) {
+        return (fields & LOCATION) != 0 ? LOCATION_WEIGHT : OBSERVATIONS_WEIGHT;
+    }
+
+    private static ReportSearchResultDTO toResult(ReportType type, ReportSearchView view, double score) {
+        return new ReportSearchResultDTO(type, view.reportId(), view.fumigationId(), view.location(),
+                view.observations(), view.date(), score);
+    }
+
+    private record DocumentKey(ReportType type, Long reportId) {
+    }
+
+    private record Document(ReportSearchView view, Map<String, Integer> grams) {
+    }
+}
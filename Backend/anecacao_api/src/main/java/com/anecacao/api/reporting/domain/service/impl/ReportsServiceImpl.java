@@ -2,20 +2,26 @@ package com.anecacao.api.reporting.domain.service.impl;
 
 import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.domain.service.UserService;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
 import com.anecacao.api.reporting.data.dto.*;
+import com.anecacao.api.reporting.data.dto.projection.CertificateVersionView;
 import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
 import com.anecacao.api.reporting.data.dto.response.CleanupReportResponseDTO;
 import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
+import com.anecacao.api.reporting.data.dto.response.ReportSearchResultDTO;
 import com.anecacao.api.reporting.data.entity.CleanupReport;
 import com.anecacao.api.reporting.data.entity.FumigationReport;
 import com.anecacao.api.reporting.data.entity.IndustrialSafetyConditions;
 import com.anecacao.api.reporting.data.mapper.CertificateMapper;
-import com.anecacao.api.reporting.data.mapper.CleanupReportMapper;
-import com.anecacao.api.reporting.data.mapper.FumigationReportMapper;
+import com.anecacao.api.reporting.data.mapper.ReportPageAssembler;
 import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
 import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
 import com.anecacao.api.reporting.domain.exception.InvalidFumigationStatusException;
+import com.anecacao.api.reporting.domain.service.CertificateStore;
+import com.anecacao.api.reporting.domain.service.ReportSearchIndex;
 import com.anecacao.api.reporting.domain.service.ReportsService;
 import com.anecacao.api.reporting.domain.service.exception.CleanupReportNotFoundException;
 import com.anecacao.api.reporting.domain.service.exception.FumigationReportNotFoundException;
@@ -25,13 +31,23 @@ import com.anecacao.api.request.creation.data.entity.Status;
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationMapper;
 import com.anecacao.api.request.creation.data.repository.FumigationRepository;
 import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
-import jakarta.transaction.Transactional;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
+import com.anecacao.api.request.creation.domain.exception.InvalidStatusTransitionException;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.anecacao.api.signature.data.repository.SignatureRepository;
+import com.anecacao.api.signature.domain.service.SignatureService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -41,9 +57,14 @@ public class ReportsServiceImpl implements ReportsService {
     private final CleanupReportRepository cleanupReportRepository;
     private final UserService userService;
     private final FumigationApplicationMapper mapper;
-    private final FumigationReportMapper fumigationReportMapper;
-    private final CleanupReportMapper cleanupReportMapper;
+    private final ReportPageAssembler reportPageAssembler;
     private final CertificateMapper certificateMapper;
+    private final StatusCountService statusCountService;
+    private final ReportSearchIndex reportSearchIndex;
+    private final CertificateStore certificateStore;
+    private final SignatureRepository signatureRepository;
+    private final SignatureService signatureService;
+    private final FumigationAuthorizationService authorizationService;
 
     @Transactional
     @Override
@@ -60,6 +81,7 @@ public class ReportsServiceImpl implements ReportsService {
         return processReportAndUpdateStatus(mapper.toConditionEntity(conditionsDTO), fumigation, report,Status.FUMIGATED, true);
     }
 
+    @Transactional
     @Override
     public MessageDTO createCleanupReport(CleanupReportDTO reportDTO) {
         Fumigation fumigation = getValidFumigation(reportDTO.getId(), Status.FUMIGATED);
@@ -71,36 +93,91 @@ public class ReportsServiceImpl implements ReportsService {
         return processReportAndUpdateStatus(reportDTO.getIndustrialSafetyConditions(), fumigation, report, Status.FINISHED,false);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public CertificateDTO getCertificateByFumigationId(Long fumigationId) {
-        // Obtener la fumigación con todas sus relaciones
-        Fumigation fumigation = fumigationRepository.findById(fumigationId)
+    public CertificateContent getCertificateByFumigationId(Long fumigationId) {
+        authorizationService.checkFumigationAccess(fumigationId);
+        CertificateVersionView version = getFinishedCertificateVersion(fumigationId);
+
+        // Solo se cargan la fumigación y sus informes si esta versión no está guardada
+        return certificateStore.getOrCompute(fumigationId, version.contentVersion(), () -> buildCertificate(fumigationId));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CertificateDocument getCertificateDocument(Long fumigationId) {
+        // El PDF incluye las firmas: un cliente solo puede descargar el de sus propias fumigaciones
+        authorizationService.checkFumigationAccess(fumigationId);
+        getFinishedCertificateVersion(fumigationId);
+
+        CertificateSources sources = loadCertificateSources(fumigationId);
+
+        // Las firmas del descarpe cierran el proceso; las del informe de fumigación quedan como respaldo
+        List<Signature> signatures = new ArrayList<>();
+        if (sources.cleanupReport() != null) {
+            signatures.addAll(signatureRepository.findByCleanupReportId(sources.cleanupReport().getId()));
+        }
+        if (sources.fumigationReport() != null) {
+            signatures.addAll(signatureRepository.findByFumigationReportId(sources.fumigationReport().getId()));
+        }
+
+        return new CertificateDocument(
+                toCertificateDTO(sources),
+                signatureImage(signatures, "technician"),
+                signatureImage(signatures, "client"));
+    }
+
+    private CertificateVersionView getFinishedCertificateVersion(Long fumigationId) {
+        CertificateVersionView version = fumigationReportRepository.findCertificateVersion(fumigationId)
                 .orElseThrow(() -> new FumigationNotFoundException(fumigationId));
 
         // Verificar que la fumigación esté en estado FINISHED para generar certificado
-        if (!Status.FINISHED.equals(fumigation.getStatus())) {
+        if (!Status.FINISHED.equals(version.status())) {
             throw new InvalidFumigationStatusException(fumigationId, Status.FINISHED);
         }
+        return version;
+    }
+
+    private byte[] signatureImage(List<Signature> signatures, String signatureType) {
+        return signatures.stream()
+                .filter(signature -> signatureType.equalsIgnoreCase(signature.getSignatureType()))
+                .map(signatureService::readSignatureImage)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private CertificateDTO buildCertificate(Long fumigationId) {
+        return toCertificateDTO(loadCertificateSources(fumigationId));
+    }
+
+    private CertificateSources loadCertificateSources(Long fumigationId) {
+        Fumigation fumigation = fumigationRepository.findById(fumigationId)
+                .orElseThrow(() -> new FumigationNotFoundException(fumigationId));
 
-        // Cargar las relaciones necesarias (lazy loading)
-        // Esto asegura que todas las entidades relacionadas estén disponibles
         FumigationReport fumigationReport = fumigationReportRepository.findByFumigationId(fumigationId)
                 .orElse(null);
 
         CleanupReport cleanupReport = cleanupReportRepository.findByFumigationId(fumigationId)
                 .orElse(null);
 
-        // Usar el mapper para crear el CertificateDTO
-        return certificateMapper.toCertificateDTO(fumigation, fumigationReport, cleanupReport);
+        return new CertificateSources(fumigation, fumigationReport, cleanupReport);
+    }
+
+    private CertificateDTO toCertificateDTO(CertificateSources sources) {
+        return certificateMapper.toCertificateDTO(sources.fumigation(), sources.fumigationReport(), sources.cleanupReport());
+    }
+
+    private record CertificateSources(Fumigation fumigation, FumigationReport fumigationReport, CleanupReport cleanupReport) {
     }
 
     private void checkTechniciansRole(List<SimpleUserDTO> technicians) {
-        technicians.forEach(t -> {
-            if (!userService.hasRole(t.getId().toString(), RoleName.ROLE_TECHNICIAN)) {
-                throw new TechnicalRoleException(t.getId().toString());
-            }
-        });
+        List<Long> technicianIds = technicians.stream().map(SimpleUserDTO::getId).toList();
+        List<Long> invalidIds = userService.findUsersWithoutRole(technicianIds, RoleName.ROLE_TECHNICIAN);
+
+        if (!invalidIds.isEmpty()) {
+            throw new TechnicalRoleException(invalidIds);
+        }
     }
 
     private IndustrialSafetyConditions toConditionEntity (IndustrialSafetyConditionsDTO conditionsDTO) {
@@ -164,73 +241,93 @@ public class ReportsServiceImpl implements ReportsService {
                                                     Object report,
                                                     Status status,
                                                     boolean isFumigationReport) {
-        if (conditions.hasAnyDanger()) {
-            fumigation.setStatus(Status.FAILED);
-        } else {
-            fumigation.setStatus(status);
+        Status target = conditions.hasAnyDanger() ? Status.FAILED : status;
+
+        // El estado se leyó al validar; solo se cambia si la fila sigue en ese mismo estado
+        Set<Status> sources = EnumSet.copyOf(status.allowedSources());
+        sources.retainAll(target.allowedSources());
+        Status current = fumigation.getStatus();
+        if (!sources.contains(current)) {
+            throw new InvalidStatusTransitionException(fumigation.getId(), current, target);
         }
 
-        fumigationRepository.save(fumigation);
+        if (fumigationRepository.updateStatuses(List.of(fumigation.getId()), EnumSet.of(current), target, null) != 1) {
+            throw new OptimisticLockingFailureException("Status of fumigation " + fumigation.getId() + " changed while the report was being saved");
+        }
+        statusCountService.recordChange(fumigation.getId(), current, target);
 
         if (isFumigationReport) {
             fumigationReportRepository.save((FumigationReport) report);
+            reportSearchIndex.index((FumigationReport) report);
         } else {
             cleanupReportRepository.save((CleanupReport) report);
+            reportSearchIndex.index((CleanupReport) report);
         }
 
         return conditions.hasAnyDanger() ? null : new MessageDTO("Fumigation report created successfully");
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public FumigationReportResponseDTO getFumigationReportByFumigationId(Long fumigationId) {
         FumigationReport report = fumigationReportRepository.findByFumigationId(fumigationId)
                 .orElseThrow(() -> new FumigationReportNotFoundException("No report found for fumigation ID: " + fumigationId));
-        return fumigationReportMapper.toResponseDTO(report);
+        return reportPageAssembler.toFumigationReportDTO(report);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<FumigationReportResponseDTO> getAllFumigationReports(Pageable pageable) {
         Page<FumigationReport> reportPage = fumigationReportRepository.findAll(pageable);
-        return reportPage.map(fumigationReportMapper::toResponseDTO);
+        return reportPageAssembler.toFumigationReportPage(reportPage);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<FumigationReportResponseDTO> getAllFumigationReportsNoPagination() {
-        List<FumigationReport> reports = fumigationReportRepository.findAll();
-        return fumigationReportMapper.toResponseDTOList(reports);
+    public CursorPageDTO<FumigationReportResponseDTO> getAllFumigationReports(CursorRequest cursor) {
+        return reportPageAssembler.toFumigationReportPage(fumigationReportRepository.findAll(cursor));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public FumigationReportResponseDTO getFumigationReportById(Long id) {
         FumigationReport report = fumigationReportRepository.findById(id)
                 .orElseThrow(() -> new FumigationReportNotFoundException(id));
-        return fumigationReportMapper.toResponseDTO(report);
+        return reportPageAssembler.toFumigationReportDTO(report);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<CleanupReportResponseDTO> getAllCleanupReports(Pageable pageable) {
         Page<CleanupReport> reportPage = cleanupReportRepository.findAll(pageable);
-        return reportPage.map(cleanupReportMapper::toResponseDTO);
+        return reportPageAssembler.toCleanupReportPage(reportPage);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<CleanupReportResponseDTO> getAllCleanupReportsNoPagination() {
-        List<CleanupReport> reports = cleanupReportRepository.findAll();
-        return cleanupReportMapper.toResponseDTOList(reports);
+    public CursorPageDTO<CleanupReportResponseDTO> getAllCleanupReports(CursorRequest cursor) {
+        return reportPageAssembler.toCleanupReportPage(cleanupReportRepository.findAll(cursor));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public CleanupReportResponseDTO getCleanupReportById(Long id) {
         CleanupReport report = cleanupReportRepository.findById(id)
                 .orElseThrow(() -> new CleanupReportNotFoundException(id));
-        return cleanupReportMapper.toResponseDTO(report);
+        return reportPageAssembler.toCleanupReportDTO(report);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public CleanupReportResponseDTO getCleanupReportByFumigationId(Long fumigationId) {
         CleanupReport report = cleanupReportRepository.findByFumigationId(fumigationId)
                 .orElseThrow(() -> new CleanupReportNotFoundException("No cleanup report found for fumigation ID: " + fumigationId));
-        return cleanupReportMapper.toResponseDTO(report);
+        return reportPageAssembler.toCleanupReportDTO(report);
+    }
+
+    // Se responde desde el índice en memoria, sin consultar la base de datos
+    @Override
+    public Page<ReportSearchResultDTO> searchReports(String query, Pageable pageable) {
+        return reportSearchIndex.search(query, pageable);
     }
 }
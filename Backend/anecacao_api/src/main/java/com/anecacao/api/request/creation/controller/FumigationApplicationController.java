@@ -1,5 +1,7 @@
 package com.anecacao.api.request.creation.controller;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import com.anecacao.api.request.creation.data.dto.request.FumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.ClientFumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationApplicationResponseDTO;
@@ -25,19 +27,17 @@ public class FumigationApplicationController {
 
     @PostMapping
     public ResponseEntity<FumigationApplicationResponseDTO> createFumigationApplication (
-            @RequestBody @Valid FumigationApplicationDTO fumigationRequestDTO,
-            @RequestHeader("Authorization") String jwt
+            @RequestBody @Valid FumigationApplicationDTO fumigationRequestDTO
     ) {
-        return new ResponseEntity<>(fumigationApplicationService.createFumigationApplication(fumigationRequestDTO, jwt), HttpStatus.CREATED);
+        return new ResponseEntity<>(fumigationApplicationService.createFumigationApplication(fumigationRequestDTO), HttpStatus.CREATED);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<FumigationApplicationResponseDTO> getFumigationApplicationById(
-            @PathVariable Long id,
-            @RequestHeader("Authorization") String token
+            @PathVariable Long id
     ) {
 
-        FumigationApplicationResponseDTO fumigationApplicationResponseDTO = fumigationApplicationService.getFumigationApplicationById(id, token);
+        FumigationApplicationResponseDTO fumigationApplicationResponseDTO = fumigationApplicationService.getFumigationApplicationById(id);
         return ResponseEntity.ok(fumigationApplicationResponseDTO);
     }
 
@@ -52,10 +52,24 @@ public class FumigationApplicationController {
 
     @GetMapping("/my-applications")
     public ResponseEntity<Page<ClientFumigationApplicationDTO>> getMyFumigationApplications(
-            @RequestHeader("Authorization") String token,
             Pageable pageable
     ) {
-        Page<ClientFumigationApplicationDTO> applications = fumigationApplicationService.getClientFumigationApplications(token, pageable);
+        Page<ClientFumigationApplicationDTO> applications = fumigationApplicationService.getClientFumigationApplications(pageable);
         return ResponseEntity.ok(applications);
     }
-}
\ No newline at end of file
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<FumigationApplicationSummaryDTO>> getFumigationApplicationsByStatus(
+            @RequestParam(name = "status") String status,
+            CursorRequest cursor
+    ) {
+        return ResponseEntity.ok(fumigationApplicationService.getFumigationApplicationsByStatus(status, cursor));
+    }
+
+    @GetMapping(value = "/my-applications", params = "after")
+    public ResponseEntity<CursorPageDTO<ClientFumigationApplicationDTO>> getMyFumigationApplications(
+            CursorRequest cursor
+    ) {
+        return ResponseEntity.ok(fumigationApplicationService.getClientFumigationApplications(cursor));
+    }
+}
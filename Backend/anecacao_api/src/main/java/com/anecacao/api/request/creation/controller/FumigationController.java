@@ -1,11 +1,15 @@
 package com.anecacao.api.request.creation.controller;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.request.creation.data.dto.request.BatchStatusUpdateRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.FumigationCreationRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.UpdateStatusRequestDTO;
 import com.anecacao.api.auth.domain.service.UserService;
 import com.anecacao.api.request.creation.data.dto.response.FumigationDetailDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationInfoDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationResponseDTO;
+import com.anecacao.api.request.creation.data.dto.response.StatusUpdateResultDTO;
 import com.anecacao.api.request.creation.domain.service.FumigationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +18,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/fumigations")
 @RequiredArgsConstructor
@@ -30,40 +36,51 @@ public class FumigationController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/status:batch")
+    public ResponseEntity<List<StatusUpdateResultDTO>> updateFumigationStatuses(
+            @RequestBody @Valid BatchStatusUpdateRequestDTO request
+    ) {
+        return ResponseEntity.ok(fumigationService.updateFumigationStatuses(request));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<FumigationResponseDTO> updateFumigation(
             @PathVariable Long id,
-            @RequestBody @Valid FumigationCreationRequestDTO fumigationDTO,
-            @RequestHeader("Authorization") String token
+            @RequestBody @Valid FumigationCreationRequestDTO fumigationDTO
     ) {
-        FumigationResponseDTO updatedFumigationResponseDTO = fumigationService.updateFumigation(id, fumigationDTO, token);
+        FumigationResponseDTO updatedFumigationResponseDTO = fumigationService.updateFumigation(id, fumigationDTO);
         return ResponseEntity.ok(updatedFumigationResponseDTO);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<FumigationResponseDTO> getFumigationById (
-            @PathVariable Long id,
-            @RequestHeader("Authorization") String token
+            @PathVariable Long id
     ) {
-        return ResponseEntity.ok(fumigationService.getFumigationById(id, token));
+        return ResponseEntity.ok(fumigationService.getFumigationById(id));
     }
 
     @GetMapping("/info/{id}")
     public ResponseEntity<FumigationInfoDTO> getFumigationInfo(
-            @PathVariable Long id,
-            @RequestHeader("Authorization") String token
+            @PathVariable Long id
     ) {
-        FumigationInfoDTO fumigationInfo = fumigationService.getFumigationInfo(id, token);
+        FumigationInfoDTO fumigationInfo = fumigationService.getFumigationInfo(id);
         return ResponseEntity.ok(fumigationInfo);
     }
 
     @GetMapping
     public ResponseEntity<Page<FumigationDetailDTO>> getFumigationsByStatus(
             @RequestParam(name = "status") String status,
-            @RequestHeader("Authorization") String token,
             Pageable pageable
     ) {
-        Page<FumigationDetailDTO> fumigations = fumigationService.getFumigationsByStatus(status, token, pageable);
+        Page<FumigationDetailDTO> fumigations = fumigationService.getFumigationsByStatus(status, pageable);
         return ResponseEntity.ok(fumigations);
     }
-}
\ No newline at end of file
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<FumigationDetailDTO>> getFumigationsByStatus(
+            @RequestParam(name = "status") String status,
+            CursorRequest cursor
+    ) {
+        return ResponseEntity.ok(fumigationService.getFumigationsByStatus(status, cursor));
+    }
+}
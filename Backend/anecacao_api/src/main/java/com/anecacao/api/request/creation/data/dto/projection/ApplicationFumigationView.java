@@ -0,0 +1,24 @@
+package com.anecacao.api.request.creation.data.dto.projection;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lote de una solicitud leído como fila plana, con el id de la solicitud
+ * para poder agruparlo sin cargar entidades Fumigation.
+ */
+public record ApplicationFumigationView(
+        Long applicationId,
+        Long id,
+        String lotNumber,
+        BigDecimal ton,
+        String portDestination,
+        Long sacks,
+        String quality,
+        Status status,
+        String message,
+        LocalDateTime dateTime
+) {
+}
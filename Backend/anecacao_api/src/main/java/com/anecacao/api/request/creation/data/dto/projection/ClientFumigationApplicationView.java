@@ -0,0 +1,22 @@
+package com.anecacao.api.request.creation.data.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record ClientFumigationApplicationView(
+        Long id,
+        LocalDate createdAt,
+        Long companyId,
+        String companyName,
+        String businessName,
+        String phoneNumber,
+        String ruc,
+        String address,
+        Long representativeId,
+        String representativeFirstName,
+        String representativeLastName,
+        BigDecimal totalTons,
+        LocalDateTime earlyDate
+) {
+}
@@ -0,0 +1,21 @@
+package com.anecacao.api.request.creation.data.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de una solicitud con los agregados (SUM de toneladas, MIN de fecha)
+ * calculados en la base de datos.
+ */
+public record FumigationApplicationSummaryView(
+        Long id,
+        String companyName,
+        String companyAddress,
+        String representativeFirstName,
+        String representativeLastName,
+        LocalDate createdAt,
+        BigDecimal totalTons,
+        LocalDateTime earlyDate
+) {
+}
@@ -0,0 +1,21 @@
+package com.anecacao.api.request.creation.data.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana para los listados de fumigaciones: se llena con una sola consulta
+ * que ya trae la compañía y el representante legal.
+ */
+public record FumigationDetailView(
+        Long id,
+        String lotNumber,
+        BigDecimal ton,
+        LocalDateTime dateTime,
+        String companyName,
+        String phoneNumber,
+        String address,
+        String representativeFirstName,
+        String representativeLastName
+) {
+}
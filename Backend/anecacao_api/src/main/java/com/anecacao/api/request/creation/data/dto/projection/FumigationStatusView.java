@@ -0,0 +1,10 @@
+package com.anecacao.api.request.creation.data.dto.projection;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+
+public record FumigationStatusView(
+        Long id,
+        Status status,
+        Long companyId
+) {
+}
@@ -0,0 +1,19 @@
+package com.anecacao.api.request.creation.data.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BatchStatusUpdateRequestDTO extends UpdateStatusRequestDTO {
+    @NotEmpty(message = "Fumigation id list must not be empty")
+    @Size(max = 1000, message = "At most 1000 fumigations can be updated at once")
+    private List<@NotNull Long> ids;
+}
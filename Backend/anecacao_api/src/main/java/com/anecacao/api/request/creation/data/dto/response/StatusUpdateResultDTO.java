@@ -0,0 +1,22 @@
+package com.anecacao.api.request.creation.data.dto.response;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusUpdateResultDTO {
+    private Long id;
+    private Outcome outcome;
+    // Estado con el que quedó la fumigación; null si no existe
+    private Status status;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID_TRANSITION
+    }
+}
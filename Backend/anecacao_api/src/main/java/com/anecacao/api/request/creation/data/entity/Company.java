@@ -1,16 +1,20 @@
 package com.anecacao.api.request.creation.data.entity;
 
 import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.entity.CacheRegions;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
 @Entity
 @Data
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.COMPANIES)
 public class Company {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,10 +1,12 @@
 package com.anecacao.api.request.creation.data.entity;
 
+import com.anecacao.api.common.data.entity.IdGenerators;
 import com.anecacao.api.reporting.data.entity.CleanupReport;
 import com.anecacao.api.reporting.data.entity.FumigationReport;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,9 +15,17 @@ import java.time.LocalDateTime;
 @Entity
 public class Fumigation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "fumigation_id")
+    @TableGenerator(name = "fumigation_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "fumigation",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false)
     private String lotNumber;
 
@@ -1,5 +1,6 @@
 package com.anecacao.api.request.creation.data.entity;
 
+import com.anecacao.api.common.data.entity.IdGenerators;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -10,7 +11,10 @@ import java.util.List;
 @Data
 public class FumigationApplication {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "fumigation_application_id")
+    @TableGenerator(name = "fumigation_application_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "fumigation_application",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,10 +1,28 @@
 package com.anecacao.api.request.creation.data.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
     APPROVED,
     PENDING,
     REJECTED,
     FUMIGATED,
     FINISHED,
-    FAILED
-}
\ No newline at end of file
+    FAILED;
+
+    // Estados desde los que se puede llegar a este; REJECTED y FINISHED son finales
+    public Set<Status> allowedSources() {
+        return switch (this) {
+            case APPROVED, REJECTED -> EnumSet.of(PENDING);
+            case FUMIGATED -> EnumSet.of(APPROVED, FAILED);
+            case FINISHED -> EnumSet.of(FUMIGATED, FAILED);
+            case FAILED -> EnumSet.of(APPROVED, FUMIGATED, FAILED);
+            case PENDING -> EnumSet.noneOf(Status.class);
+        };
+    }
+
+    public boolean canTransitionTo(Status target) {
+        return target.allowedSources().contains(this);
+    }
+}
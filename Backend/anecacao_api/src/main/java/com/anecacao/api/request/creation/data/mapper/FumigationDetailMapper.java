@@ -1,5 +1,6 @@
 package com.anecacao.api.request.creation.data.mapper;
 
+import com.anecacao.api.request.creation.data.dto.projection.FumigationDetailView;
 import com.anecacao.api.request.creation.data.dto.response.FumigationDetailDTO;
 import com.anecacao.api.request.creation.data.entity.Company;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
@@ -26,6 +27,24 @@ public interface FumigationDetailMapper {
 
     List<FumigationDetailDTO> toDetailDtoList(List<Fumigation> fumigations);
 
+    default FumigationDetailDTO toDetailDto(FumigationDetailView view) {
+        String representative = view.representativeFirstName() == null && view.representativeLastName() == null
+                ? "Unknown"
+                : (view.representativeFirstName() != null ? view.representativeFirstName() : "") + " " +
+                  (view.representativeLastName() != null ? view.representativeLastName() : "");
+
+        return new FumigationDetailDTO(
+                view.id(),
+                view.lotNumber(),
+                view.companyName() != null ? view.companyName() : "Unknown",
+                view.ton() != null ? view.ton() : BigDecimal.ZERO,
+                representative,
+                view.phoneNumber() != null ? view.phoneNumber() : "No phone",
+                view.address() != null ? view.address() : "No location",
+                view.dateTime() != null ? view.dateTime().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")) : "No date"
+        );
+    }
+
     default BigDecimal getTon(Fumigation fumigation) {
         if (fumigation != null && fumigation.getTon() != null) {
             return fumigation.getTon();
@@ -3,6 +3,8 @@ package com.anecacao.api.request.creation.data.repository;
 import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.request.creation.data.entity.Company;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -10,4 +12,9 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     Optional<Company> findByIdAndLegalRepresentative(Long companyId, User legalRepresentative);
 
     boolean existsByRuc(String ruc);
+
+    boolean existsByIdAndLegalRepresentativeId(Long id, Long legalRepresentativeId);
+
+    @Query("SELECT fa.company.id FROM Fumigation f JOIN f.fumigationApplication fa WHERE f.id = :fumigationId")
+    Optional<Long> findIdByFumigationId(@Param("fumigationId") Long fumigationId);
 }
@@ -1,5 +1,13 @@
 package com.anecacao.api.request.creation.data.repository;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.data.repository.IdPageQuery;
+import com.anecacao.api.common.data.repository.IdPagingRepository;
+import com.anecacao.api.common.data.repository.KeysetPagingRepository;
+import com.anecacao.api.common.data.repository.KeysetQuery;
+import com.anecacao.api.request.creation.data.dto.projection.ClientFumigationApplicationView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationApplicationSummaryView;
 import com.anecacao.api.request.creation.data.entity.FumigationApplication;
 import com.anecacao.api.request.creation.data.entity.Status;
 import org.springframework.data.domain.Page;
@@ -9,13 +17,91 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Repository
-public interface FumigationApplicationRepository extends JpaRepository<FumigationApplication, Long> {
+public interface FumigationApplicationRepository extends JpaRepository<FumigationApplication, Long>, IdPagingRepository, KeysetPagingRepository {
+
+    String HAS_FUMIGATION_WITH_STATUS =
+            "EXISTS (SELECT 1 FROM Fumigation sf WHERE sf.fumigationApplication = fa AND sf.status = :status)";
+
+    String OWNED_BY_USER = "fa.company.legalRepresentative.id = :userId";
+
+    String SUMMARY_VIEW_QUERY = "SELECT new com.anecacao.api.request.creation.data.dto.projection.FumigationApplicationSummaryView(" +
+            "fa.id, c.name, c.address, u.firstName, u.lastName, fa.createdAt, SUM(f.ton), MIN(f.dateTime)) " +
+            "FROM FumigationApplication fa " +
+            "JOIN fa.company c " +
+            "LEFT JOIN c.legalRepresentative u " +
+            "LEFT JOIN fa.fumigations f " +
+            "WHERE fa.id IN :ids " +
+            "GROUP BY fa.id, c.name, c.address, u.firstName, u.lastName, fa.createdAt";
+
+    String CLIENT_VIEW_QUERY = "SELECT new com.anecacao.api.request.creation.data.dto.projection.ClientFumigationApplicationView(" +
+            "fa.id, fa.createdAt, c.id, c.name, c.businessName, c.phoneNumber, c.ruc, c.address, " +
+            "u.id, u.firstName, u.lastName, SUM(f.ton), MIN(f.dateTime)) " +
+            "FROM FumigationApplication fa " +
+            "JOIN fa.company c " +
+            "JOIN c.legalRepresentative u " +
+            "LEFT JOIN fa.fumigations f " +
+            "WHERE fa.id IN :ids " +
+            "GROUP BY fa.id, fa.createdAt, c.id, c.name, c.businessName, c.phoneNumber, c.ruc, c.address, " +
+            "u.id, u.firstName, u.lastName";
+
+    default Page<FumigationApplicationSummaryView> findSummariesByFumigationStatus(Status status, Pageable pageable) {
+        return findPage(new IdPageQuery<>(
+                "fa",
+                "SELECT fa.id FROM FumigationApplication fa WHERE " + HAS_FUMIGATION_WITH_STATUS,
+                "SELECT COUNT(fa) FROM FumigationApplication fa WHERE " + HAS_FUMIGATION_WITH_STATUS,
+                SUMMARY_VIEW_QUERY,
+                Map.of("status", status),
+                FumigationApplicationSummaryView.class,
+                FumigationApplicationSummaryView::id
+        ), pageable);
+    }
+
+    default Page<ClientFumigationApplicationView> findClientSummaries(Long userId, Pageable pageable) {
+        return findPage(new IdPageQuery<>(
+                "fa",
+                "SELECT fa.id FROM FumigationApplication fa WHERE " + OWNED_BY_USER,
+                "SELECT COUNT(fa) FROM FumigationApplication fa WHERE " + OWNED_BY_USER,
+                CLIENT_VIEW_QUERY,
+                Map.of("userId", userId),
+                ClientFumigationApplicationView.class,
+                ClientFumigationApplicationView::id
+        ), pageable);
+    }
+
+    default CursorPageDTO<FumigationApplicationSummaryView> findSummariesByFumigationStatus(Status status, CursorRequest cursor) {
+        return findSlice(new KeysetQuery<>(
+                "FumigationApplication", "fa",
+                HAS_FUMIGATION_WITH_STATUS,
+                Map.of("status", status),
+                "createdAt", LocalDate::parse,
+                SUMMARY_VIEW_QUERY,
+                FumigationApplicationSummaryView.class,
+                FumigationApplicationSummaryView::id
+        ), cursor);
+    }
+
+    default CursorPageDTO<ClientFumigationApplicationView> findClientSummaries(Long userId, CursorRequest cursor) {
+        return findSlice(new KeysetQuery<>(
+                "FumigationApplication", "fa",
+                OWNED_BY_USER,
+                Map.of("userId", userId),
+                "createdAt", LocalDate::parse,
+                CLIENT_VIEW_QUERY,
+                ClientFumigationApplicationView.class,
+                ClientFumigationApplicationView::id
+        ), cursor);
+    }
 
-    @Query("SELECT DISTINCT fa FROM FumigationApplication fa " +
-            "JOIN fa.fumigations f " +
-            "WHERE f.status = :status")
-    Page<FumigationApplication> findByFumigationStatus(@Param("status") Status status, Pageable pageable);
+    boolean existsByIdAndCompanyLegalRepresentativeId(Long id, Long userId);
 
-    Page<FumigationApplication> findByCompanyLegalRepresentativeId(Long userId, Pageable pageable);
-}
\ No newline at end of file
+    @Query("SELECT fa.id FROM FumigationApplication fa " +
+            "WHERE fa.id IN :ids " +
+            "AND fa.company.legalRepresentative.id = :userId")
+    List<Long> findIdsOwnedBy(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+}
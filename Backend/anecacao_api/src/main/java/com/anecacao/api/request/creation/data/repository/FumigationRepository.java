@@ -1,21 +1,93 @@
 package com.anecacao.api.request.creation.data.repository;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.data.repository.KeysetPagingRepository;
+import com.anecacao.api.common.data.repository.KeysetQuery;
+import com.anecacao.api.request.creation.data.dto.projection.ApplicationFumigationView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationDetailView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationStatusView;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
 import com.anecacao.api.request.creation.data.entity.Status;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @Repository
-public interface FumigationRepository extends JpaRepository<Fumigation, Long> {
-    Page<Fumigation> findByStatus(Status status, Pageable pageable);
-    @Query("SELECT f FROM Fumigation f " +
-            "WHERE f.status = :status " +
+public interface FumigationRepository extends JpaRepository<Fumigation, Long>, KeysetPagingRepository {
+    String DETAIL_VIEW_SELECT = "SELECT new com.anecacao.api.request.creation.data.dto.projection.FumigationDetailView(" +
+            "f.id, f.lotNumber, f.ton, f.dateTime, c.name, c.phoneNumber, c.address, u.firstName, u.lastName) " +
+            "FROM Fumigation f " +
+            "JOIN f.fumigationApplication fa " +
+            "JOIN fa.company c " +
+            "LEFT JOIN c.legalRepresentative u ";
+
+    @Query(value = DETAIL_VIEW_SELECT + "WHERE f.status = :status",
+            countQuery = "SELECT COUNT(f) FROM Fumigation f WHERE f.status = :status")
+    Page<FumigationDetailView> findDetailsByStatus(@Param("status") Status status, Pageable pageable);
+
+    @Query(value = DETAIL_VIEW_SELECT + "WHERE f.status = :status AND c.legalRepresentative.id = :userId",
+            countQuery = "SELECT COUNT(f) FROM Fumigation f " +
+                    "WHERE f.status = :status " +
+                    "AND f.fumigationApplication.company.legalRepresentative.id = :userId")
+    Page<FumigationDetailView> findDetailsByStatusAndUserId(@Param("status") Status status,
+                                                            @Param("userId") Long userId,
+                                                            Pageable pageable);
+
+    default CursorPageDTO<FumigationDetailView> findDetailsByStatus(Status status, CursorRequest cursor) {
+        return findSlice(KeysetQuery.byId("Fumigation", "f", "f.status = :status", Map.of("status", status),
+                DETAIL_VIEW_SELECT + "WHERE f.id IN :ids", FumigationDetailView.class, FumigationDetailView::id), cursor);
+    }
+
+    default CursorPageDTO<FumigationDetailView> findDetailsByStatusAndUserId(Status status, Long userId, CursorRequest cursor) {
+        return findSlice(KeysetQuery.byId("Fumigation", "f",
+                "f.status = :status AND f.fumigationApplication.company.legalRepresentative.id = :userId",
+                Map.of("status", status, "userId", userId),
+                DETAIL_VIEW_SELECT + "WHERE f.id IN :ids", FumigationDetailView.class, FumigationDetailView::id), cursor);
+    }
+
+    @Query("SELECT new com.anecacao.api.request.creation.data.dto.projection.ApplicationFumigationView(" +
+            "f.fumigationApplication.id, f.id, f.lotNumber, f.ton, f.portDestination, f.sacks, f.quality, f.status, f.message, f.dateTime) " +
+            "FROM Fumigation f " +
+            "WHERE f.fumigationApplication.id IN :applicationIds " +
+            "ORDER BY f.id")
+    List<ApplicationFumigationView> findViewsByApplicationIds(@Param("applicationIds") Collection<Long> applicationIds);
+
+    // Aplica la transición solo a las filas cuyo estado sigue siendo uno de los permitidos; devuelve las filas afectadas.
+    // Sube la versión para que las escrituras optimistas que leyeron el estado anterior fallen
+    @Modifying
+    @Query("UPDATE Fumigation f SET f.status = :target, f.message = :message, f.version = f.version + 1 " +
+            "WHERE f.id IN :ids AND f.status IN :sources")
+    int updateStatuses(@Param("ids") Collection<Long> ids,
+                       @Param("sources") Collection<Status> sources,
+                       @Param("target") Status target,
+                       @Param("message") String message);
+
+    @Query("SELECT f.status FROM Fumigation f WHERE f.id = :id")
+    Optional<Status> findStatusById(@Param("id") Long id);
+
+    // Bloquea las filas hasta el fin de la transacción para que el UPDATE posterior vea los mismos estados
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.anecacao.api.request.creation.data.dto.projection.FumigationStatusView(" +
+            "f.id, f.status, f.fumigationApplication.company.id) " +
+            "FROM Fumigation f WHERE f.id IN :ids")
+    List<FumigationStatusView> findStatusesForUpdate(@Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndFumigationApplicationCompanyLegalRepresentativeId(Long id, Long userId);
+
+    @Query("SELECT f.id FROM Fumigation f " +
+            "WHERE f.id IN :ids " +
             "AND f.fumigationApplication.company.legalRepresentative.id = :userId")
-    Page<Fumigation> findByStatusAndUserId(@Param("status") Status status,
-                                           @Param("userId") Long userId,
-                                           Pageable pageable);
+    List<Long> findIdsOwnedBy(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 }
@@ -0,0 +1,9 @@
+package com.anecacao.api.request.creation.domain.exception;
+
+import com.anecacao.api.request.creation.data.entity.Status;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+    public InvalidStatusTransitionException(Long id, Status current, Status target) {
+        super ("Fumigation with id: " + id + " cannot change from " + current + " to " + target + ".");
+    }
+}
@@ -1,5 +1,7 @@
 package com.anecacao.api.request.creation.domain.service;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
 import com.anecacao.api.request.creation.data.dto.request.FumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.ClientFumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationApplicationResponseDTO;
@@ -8,8 +10,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface FumigationApplicationService {
-    FumigationApplicationResponseDTO createFumigationApplication(FumigationApplicationDTO dto, String jwt);
-    FumigationApplicationResponseDTO getFumigationApplicationById(Long id, String token);
+    FumigationApplicationResponseDTO createFumigationApplication(FumigationApplicationDTO dto);
+    FumigationApplicationResponseDTO getFumigationApplicationById(Long id);
     Page<FumigationApplicationSummaryDTO> getFumigationApplicationsByStatus(String status, Pageable pageable);
-    Page<ClientFumigationApplicationDTO> getClientFumigationApplications(String token, Pageable pageable);
+    CursorPageDTO<FumigationApplicationSummaryDTO> getFumigationApplicationsByStatus(String status, CursorRequest cursor);
+    Page<ClientFumigationApplicationDTO> getClientFumigationApplications(Pageable pageable);
+    CursorPageDTO<ClientFumigationApplicationDTO> getClientFumigationApplications(CursorRequest cursor);
 }
@@ -0,0 +1,18 @@
+package com.anecacao.api.request.creation.domain.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Reglas de acceso a fumigaciones y solicitudes: los roles salen de los claims del
+ * usuario autenticado y la propiedad se comprueba con una sola consulta EXISTS.
+ */
+public interface FumigationAuthorizationService {
+    void checkFumigationAccess(Long fumigationId);
+
+    void checkApplicationAccess(Long applicationId);
+
+    Set<Long> filterAccessibleFumigations(Collection<Long> fumigationIds);
+
+    Set<Long> filterAccessibleApplications(Collection<Long> applicationIds);
+}
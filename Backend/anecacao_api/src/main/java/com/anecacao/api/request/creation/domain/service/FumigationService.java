@@ -1,17 +1,25 @@
 package com.anecacao.api.request.creation.domain.service;
 
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.request.creation.data.dto.request.BatchStatusUpdateRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.FumigationCreationRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.UpdateStatusRequestDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationDetailDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationInfoDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationResponseDTO;
+import com.anecacao.api.request.creation.data.dto.response.StatusUpdateResultDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface FumigationService {
-    FumigationResponseDTO updateFumigation(Long fumigationId, FumigationCreationRequestDTO fumigationDTO, String token);
-    FumigationResponseDTO getFumigationById(Long id, String token);
+    FumigationResponseDTO updateFumigation(Long fumigationId, FumigationCreationRequestDTO fumigationDTO);
+    FumigationResponseDTO getFumigationById(Long id);
     void updateFumigationStatus(Long id, UpdateStatusRequestDTO updateStatusRequestDTO);
-    FumigationInfoDTO getFumigationInfo(Long id, String token);
-    Page<FumigationDetailDTO> getFumigationsByStatus(String status, String token, Pageable pageable);
+    List<StatusUpdateResultDTO> updateFumigationStatuses(BatchStatusUpdateRequestDTO request);
+    FumigationInfoDTO getFumigationInfo(Long id);
+    Page<FumigationDetailDTO> getFumigationsByStatus(String status, Pageable pageable);
+    CursorPageDTO<FumigationDetailDTO> getFumigationsByStatus(String status, CursorRequest cursor);
 }
\ No newline at end of file
@@ -4,10 +4,18 @@ import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.auth.domain.exception.UserInvalidException;
 import com.anecacao.api.auth.domain.service.UserService;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.dashboard.data.dto.StatusChange;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
 import com.anecacao.api.request.creation.data.dto.request.FumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.ClientFumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationApplicationResponseDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationApplicationSummaryDTO;
+import com.anecacao.api.request.creation.data.dto.response.FumigationResponseDTO;
+import com.anecacao.api.request.creation.data.dto.projection.ApplicationFumigationView;
+import com.anecacao.api.request.creation.data.dto.projection.ClientFumigationApplicationView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationApplicationSummaryView;
 import com.anecacao.api.request.creation.data.entity.Company;
 import com.anecacao.api.request.creation.data.entity.FumigationApplication;
 import com.anecacao.api.request.creation.data.entity.Status;
@@ -15,61 +23,64 @@ import com.anecacao.api.request.creation.data.mapper.ClientFumigationApplication
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationMapper;
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationSummaryMapper;
 import com.anecacao.api.request.creation.data.repository.FumigationApplicationRepository;
+import com.anecacao.api.request.creation.data.repository.FumigationRepository;
 import com.anecacao.api.request.creation.domain.service.CompanyService;
 import com.anecacao.api.request.creation.domain.exception.FumigationApplicationNotFoundException;
 import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
 import com.anecacao.api.request.creation.domain.service.FumigationApplicationService;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FumigationApplicationServiceImpl implements FumigationApplicationService {
     private final FumigationApplicationRepository repository;
+    private final FumigationRepository fumigationRepository;
     private final UserService userService;
     private final CompanyService companyService;
     private final FumigationApplicationMapper mapper;
     private final FumigationApplicationSummaryMapper summaryMapper;
     private final ClientFumigationApplicationMapper clientMapper;
+    private final FumigationAuthorizationService authorizationService;
+    private final StatusCountService statusCountService;
 
+    @Transactional
     @Override
-    public FumigationApplicationResponseDTO createFumigationApplication(FumigationApplicationDTO dto, String jwt) {
+    public FumigationApplicationResponseDTO createFumigationApplication(FumigationApplicationDTO dto) {
         if (!userService.hasCompletedProfile()) throw new UserInvalidException();
 
-        Company company = findCompany(jwt, dto.getCompany().getId());
+        Company company = findCompany(dto.getCompany().getId());
         FumigationApplication newFumigation = saveNewFumigationApplication(dto, company, Status.PENDING);
+        statusCountService.recordChanges(newFumigation.getFumigations().stream()
+                .map(fumigation -> new StatusChange(company.getId(), null, fumigation.getStatus()))
+                .toList());
 
         return mapper.toFumigationApplicationResponseDTO(newFumigation);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public FumigationApplicationResponseDTO getFumigationApplicationById(Long id, String token) {
+    public FumigationApplicationResponseDTO getFumigationApplicationById(Long id) {
+        authorizationService.checkApplicationAccess(id);
+
         FumigationApplication fumigationApplication = repository.findById(id)
                 .orElseThrow(() -> new FumigationApplicationNotFoundException(id));
 
-        validateUserPermission(fumigationApplication, id, token);
-
         return mapper.toFumigationApplicationResponseDTO(fumigationApplication);
     }
 
-    private void validateUserPermission(FumigationApplication fumigationApplication, Long id, String token) {
-        String userIdFromToken = userService.getUserReferenceById(token).getId().toString();
-
-        Long companyOwnerId = fumigationApplication.getCompany().getLegalRepresentative().getId();
-        boolean isAuthorized = userIdFromToken.equals(companyOwnerId.toString()) || userService.hasRole(userIdFromToken, RoleName.ROLE_ADMIN);
-
-        if (!isAuthorized) {
-            throw new UnauthorizedAccessException("FumigationApplication", id, Long.parseLong(userIdFromToken));
-        }
-    }
-
-    private Company findCompany (String jwt, Long id) {
-        User legalRepresentative = userService.getUserReferenceById(jwt);
+    private Company findCompany (Long id) {
+        User legalRepresentative = userService.getCurrentUserReference();
         return companyService.getCompanyOwnedByLegalRepresentative(id, legalRepresentative);
     }
 
@@ -82,11 +93,12 @@ public class FumigationApplicationServiceImpl implements FumigationApplicationSe
         return repository.save(newApplication);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<FumigationApplicationSummaryDTO> getFumigationApplicationsByStatus(String status, Pageable pageable) {
         Status statusEnum = parseAndValidateStatus(status);
-        Page<FumigationApplication> applications = repository.findByFumigationStatus(statusEnum, pageable);
-        return applications.map(app -> summaryMapper.toSummaryDto(app, status.toUpperCase()));
+        Page<FumigationApplicationSummaryView> applications = repository.findSummariesByFumigationStatus(statusEnum, pageable);
+        return applications.map(app -> summaryMapper.toSummaryDto(app, statusEnum.name()));
     }
 
     private Status parseAndValidateStatus(String status) {
@@ -98,21 +110,57 @@ public class FumigationApplicationServiceImpl implements FumigationApplicationSe
         }
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<FumigationApplicationSummaryDTO> getFumigationApplicationsByStatus(String status, CursorRequest cursor) {
+        Status statusEnum = parseAndValidateStatus(status);
+        CursorPageDTO<FumigationApplicationSummaryView> applications = repository.findSummariesByFumigationStatus(statusEnum, cursor);
+        return applications.map(app -> summaryMapper.toSummaryDto(app, statusEnum.name()));
+    }
+
+    @Transactional(readOnly = true)
     @Override
-    public Page<ClientFumigationApplicationDTO> getClientFumigationApplications(String token, Pageable pageable) {
-        // Obtener el usuario del token
-        User user = userService.getUserReferenceById(token);
+    public Page<ClientFumigationApplicationDTO> getClientFumigationApplications(Pageable pageable) {
+        User user = getCurrentClient();
+
+        // Totales y fecha más temprana vienen agregados desde la consulta
+        Page<ClientFumigationApplicationView> applications = repository.findClientSummaries(user.getId(), pageable);
+        Map<Long, List<FumigationResponseDTO>> fumigationsByApplication = findFumigationsByApplication(applications.getContent());
+
+        return applications.map(app ->
+                clientMapper.toDto(app, fumigationsByApplication.getOrDefault(app.id(), List.of())));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<ClientFumigationApplicationDTO> getClientFumigationApplications(CursorRequest cursor) {
+        User user = getCurrentClient();
+
+        CursorPageDTO<ClientFumigationApplicationView> applications = repository.findClientSummaries(user.getId(), cursor);
+        Map<Long, List<FumigationResponseDTO>> fumigationsByApplication = findFumigationsByApplication(applications.getContent());
+
+        return applications.map(app ->
+                clientMapper.toDto(app, fumigationsByApplication.getOrDefault(app.id(), List.of())));
+    }
+
+    private User getCurrentClient() {
+        User user = userService.getCurrentUserReference();
 
         // Validar que sea un cliente
         if (!userService.hasRole(user.getId().toString(), RoleName.ROLE_CLIENT)) {
             // Usar la excepción con el formato correcto: resource, resourceId, userId
             throw new UnauthorizedAccessException("ClientFumigationApplications", 0L, user.getId());
         }
+        return user;
+    }
 
-        // Obtener todas las aplicaciones del cliente
-        Page<FumigationApplication> applications = repository.findByCompanyLegalRepresentativeId(user.getId(), pageable);
+    // Lotes de toda la página en una sola consulta
+    private Map<Long, List<FumigationResponseDTO>> findFumigationsByApplication(List<ClientFumigationApplicationView> applications) {
+        if (applications.isEmpty()) return Map.of();
 
-        // Mapear a DTO con los campos calculados usando el mapper dedicado
-        return applications.map(clientMapper::toDto);
+        List<Long> applicationIds = applications.stream().map(ClientFumigationApplicationView::id).toList();
+        return fumigationRepository.findViewsByApplicationIds(applicationIds).stream()
+                .collect(Collectors.groupingBy(ApplicationFumigationView::applicationId,
+                        Collectors.mapping(clientMapper::toFumigationResponseDTO, Collectors.toList())));
     }
 }
@@ -0,0 +1,73 @@
+package com.anecacao.api.request.creation.domain.service.impl;
+
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
+import com.anecacao.api.request.creation.data.repository.FumigationApplicationRepository;
+import com.anecacao.api.request.creation.data.repository.FumigationRepository;
+import com.anecacao.api.request.creation.domain.exception.FumigationApplicationNotFoundException;
+import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class FumigationAuthorizationServiceImpl implements FumigationAuthorizationService {
+    private final FumigationRepository fumigationRepository;
+    private final FumigationApplicationRepository applicationRepository;
+    private final AuthenticatedUserContext authenticatedUserContext;
+
+    @Override
+    public void checkFumigationAccess(Long fumigationId) {
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+        if (canReadAllFumigations(user)) return;
+
+        if (fumigationRepository.existsByIdAndFumigationApplicationCompanyLegalRepresentativeId(fumigationId, user.getId())) return;
+
+        // Solo en el camino de error se distingue entre inexistente (404) y ajeno (403)
+        if (!fumigationRepository.existsById(fumigationId)) throw new FumigationNotFoundException(fumigationId);
+        throw new UnauthorizedAccessException("Fumigation", fumigationId, user.getId());
+    }
+
+    @Override
+    public void checkApplicationAccess(Long applicationId) {
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+        if (user.hasRole(RoleName.ROLE_ADMIN)) return;
+
+        if (applicationRepository.existsByIdAndCompanyLegalRepresentativeId(applicationId, user.getId())) return;
+
+        if (!applicationRepository.existsById(applicationId)) throw new FumigationApplicationNotFoundException(applicationId);
+        throw new UnauthorizedAccessException("FumigationApplication", applicationId, user.getId());
+    }
+
+    @Override
+    public Set<Long> filterAccessibleFumigations(Collection<Long> fumigationIds) {
+        if (fumigationIds.isEmpty()) return Set.of();
+
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+        if (canReadAllFumigations(user)) return new LinkedHashSet<>(fumigationIds);
+
+        return new HashSet<>(fumigationRepository.findIdsOwnedBy(fumigationIds, user.getId()));
+    }
+
+    @Override
+    public Set<Long> filterAccessibleApplications(Collection<Long> applicationIds) {
+        if (applicationIds.isEmpty()) return Set.of();
+
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+        if (user.hasRole(RoleName.ROLE_ADMIN)) return new LinkedHashSet<>(applicationIds);
+
+        return new HashSet<>(applicationRepository.findIdsOwnedBy(applicationIds, user.getId()));
+    }
+
+    private boolean canReadAllFumigations(AuthenticatedUser user) {
+        return user.hasRole(RoleName.ROLE_ADMIN) || user.hasRole(RoleName.ROLE_TECHNICIAN);
+    }
+}
@@ -1,11 +1,21 @@
 package com.anecacao.api.request.creation.domain.service.impl;
 
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
 import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.dashboard.data.dto.StatusChange;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
+import com.anecacao.api.request.creation.data.dto.request.BatchStatusUpdateRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.FumigationCreationRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.UpdateStatusRequestDTO;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationDetailView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationStatusView;
 import com.anecacao.api.request.creation.data.dto.response.FumigationDetailDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationInfoDTO;
+import com.anecacao.api.request.creation.data.dto.response.StatusUpdateResultDTO;
 import com.anecacao.api.request.creation.data.mapper.FumigationDetailMapper;
 import com.anecacao.api.request.creation.data.entity.Company;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
@@ -13,83 +23,130 @@ import com.anecacao.api.request.creation.data.entity.Status;
 import com.anecacao.api.request.creation.data.repository.FumigationRepository;
 import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
 import com.anecacao.api.request.creation.domain.exception.FumigationValidationException;
+import com.anecacao.api.request.creation.domain.exception.InvalidStatusTransitionException;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
 import com.anecacao.api.request.creation.domain.service.FumigationService;
 import io.micrometer.common.util.StringUtils;
 import com.anecacao.api.request.creation.data.dto.response.FumigationResponseDTO;
-import com.anecacao.api.auth.domain.service.UserService;
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationMapper;
-import com.anecacao.api.request.creation.data.entity.FumigationApplication;
-import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FumigationServiceImpl implements FumigationService {
     private final FumigationRepository repository;
-    private final UserService userService;
+    private final AuthenticatedUserContext authenticatedUserContext;
     private final FumigationApplicationMapper mapper;
     private final FumigationDetailMapper detailMapper;
+    private final FumigationAuthorizationService authorizationService;
+    private final StatusCountService statusCountService;
 
+    @Transactional
     @Override
     public void updateFumigationStatus(Long id, UpdateStatusRequestDTO updateStatusRequestDTO) {
-        Fumigation fumigation = getFumigationOrThrow(id);
         validateStatusUpdate(updateStatusRequestDTO);
 
         Status status = updateStatusRequestDTO.getStatus();
-        fumigation.setStatus(status);
+        String message = statusRequiresMessage(status) ? updateStatusRequestDTO.getMessage() : null;
+        Set<Status> sources = status.allowedSources();
+
+        // Un UPDATE condicional por estado de origen: el que afecta a la fila indica el estado anterior,
+        // así que no hace falta leer ni bloquear la fumigación
+        for (Status source : sources) {
+            if (repository.updateStatuses(List.of(id), EnumSet.of(source), status, message) == 1) {
+                statusCountService.recordChange(id, source, status);
+                return;
+            }
+        }
 
-        if (statusRequiresMessage(status)) {
-            fumigation.setMessage(updateStatusRequestDTO.getMessage());
-        } else {
-            fumigation.setMessage(null);
+        // Solo si no cambió nada se lee el estado, para distinguir el motivo del rechazo
+        Status current = repository.findStatusById(id)
+                .orElseThrow(() -> new FumigationNotFoundException(id));
+        if (sources.contains(current)) {
+            throw new OptimisticLockingFailureException("Status of fumigation " + id + " changed during the update");
+        }
+        throw new InvalidStatusTransitionException(id, current, status);
+    }
+
+    @Transactional
+    @Override
+    public List<StatusUpdateResultDTO> updateFumigationStatuses(BatchStatusUpdateRequestDTO request) {
+        validateStatusUpdate(request);
+        List<Long> ids = request.getIds().stream().distinct().toList();
+
+        Status status = request.getStatus();
+        String message = statusRequiresMessage(status) ? request.getMessage() : null;
+        Set<Status> sources = status.allowedSources();
+
+        // El lote informa el resultado de cada id, así que aquí sí se leen los estados con bloqueo
+        Map<Long, FumigationStatusView> current = repository.findStatusesForUpdate(ids).stream()
+                .collect(Collectors.toMap(FumigationStatusView::id, Function.identity()));
+
+        List<FumigationStatusView> updatable = ids.stream()
+                .map(current::get)
+                .filter(view -> view != null && sources.contains(view.status()))
+                .toList();
+        if (!updatable.isEmpty()) {
+            // Con las filas ya bloqueadas el UPDATE debe afectar a todas las que se leyeron
+            int updated = repository.updateStatuses(updatable.stream().map(FumigationStatusView::id).toList(), sources, status, message);
+            if (updated != updatable.size()) {
+                throw new OptimisticLockingFailureException("Expected to update " + updatable.size()
+                        + " fumigation statuses but updated " + updated);
+            }
+            statusCountService.recordChanges(updatable.stream()
+                    .map(view -> new StatusChange(view.companyId(), view.status(), status))
+                    .toList());
         }
 
-        repository.save(fumigation);
+        return ids.stream().map(id -> {
+            FumigationStatusView before = current.get(id);
+            if (before == null) {
+                return new StatusUpdateResultDTO(id, StatusUpdateResultDTO.Outcome.NOT_FOUND, null);
+            }
+            return sources.contains(before.status())
+                    ? new StatusUpdateResultDTO(id, StatusUpdateResultDTO.Outcome.UPDATED, status)
+                    : new StatusUpdateResultDTO(id, StatusUpdateResultDTO.Outcome.INVALID_TRANSITION, before.status());
+        }).toList();
     }
 
+    @Transactional
     @Override
-    public FumigationResponseDTO updateFumigation(Long fumigationId, FumigationCreationRequestDTO fumigationDTO, String token) {
+    public FumigationResponseDTO updateFumigation(Long fumigationId, FumigationCreationRequestDTO fumigationDTO) {
+        authorizationService.checkFumigationAccess(fumigationId);
+
         Fumigation fumigation = repository.findById(fumigationId)
                 .orElseThrow(() -> new FumigationNotFoundException(fumigationId));
 
-        validateUserPermission(fumigation, token);
         updateFumigationData(fumigation, fumigationDTO);
 
         return mapper.toFumigationResponseDTO(repository.save(fumigation));
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public FumigationResponseDTO getFumigationById(Long id, String token) {
+    public FumigationResponseDTO getFumigationById(Long id) {
+        authorizationService.checkFumigationAccess(id);
+
         Fumigation fumigation = repository.findById(id)
                 .orElseThrow(() -> new FumigationNotFoundException(id));
 
-        validateUserPermission(fumigation, token);
-
         return mapper.toFumigationResponseDTO(fumigation);
     }
 
-    private void validateUserPermission(Fumigation fumigation, String token) {
-        String userIdFromToken = userService.getUserReferenceById(token).getId().toString();
-        FumigationApplication fumigationApplication = fumigation.getFumigationApplication();
-        Long companyOwnerId = fumigationApplication.getCompany().getLegalRepresentative().getId();
-
-        boolean isAuthorized = userIdFromToken.equals(companyOwnerId.toString()) ||
-                userService.hasRole(userIdFromToken, RoleName.ROLE_ADMIN) ||
-                userService.hasRole(userIdFromToken, RoleName.ROLE_TECHNICIAN);
-
-        if (!isAuthorized) {
-            throw new UnauthorizedAccessException("Fumigation", fumigation.getId(), Long.parseLong(userIdFromToken));
-        }
-    }
-
     private void updateFumigationData(Fumigation fumigation, FumigationCreationRequestDTO fumigationDTO) {
         fumigation.setTon(fumigationDTO.getTon());
         fumigation.setPortDestination(fumigationDTO.getPortDestination());
@@ -102,11 +159,6 @@ public class FumigationServiceImpl implements FumigationService {
         return status == Status.REJECTED;
     }
 
-    private Fumigation getFumigationOrThrow(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new FumigationNotFoundException(id));
-    }
-
     private void validateStatusUpdate (UpdateStatusRequestDTO dto) {
         boolean statusIsRejected = dto.getStatus() == Status.REJECTED;
         boolean messageIsBlank = StringUtils.isBlank(dto.getMessage());
@@ -114,12 +166,14 @@ public class FumigationServiceImpl implements FumigationService {
         if (statusIsRejected && messageIsBlank) throw new FumigationValidationException();
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public FumigationInfoDTO getFumigationInfo(Long id, String token) {
+    public FumigationInfoDTO getFumigationInfo(Long id) {
+        authorizationService.checkFumigationAccess(id);
+
         Fumigation fumigation = repository.findById(id)
                 .orElseThrow(() -> new FumigationNotFoundException(id));
 
-        validateUserPermission(fumigation, token);
         FumigationInfoDTO infoDTO = new FumigationInfoDTO();
 
         Company company = fumigation.getFumigationApplication().getCompany();
@@ -159,28 +213,44 @@ public class FumigationServiceImpl implements FumigationService {
         return infoDTO;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public Page<FumigationDetailDTO> getFumigationsByStatus(String status, String token, Pageable pageable) {
+    public Page<FumigationDetailDTO> getFumigationsByStatus(String status, Pageable pageable) {
         Status statusEnum = parseAndValidateStatus(status);
 
-        // Obtener el usuario del token
-        User user = userService.getUserReferenceById(token);
-        String userId = user.getId().toString();
+        // Obtener el usuario autenticado
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
 
-        Page<Fumigation> fumigations;
+        Page<FumigationDetailView> fumigations;
 
         // Si es ADMIN o TECHNICIAN, devolver todas las fumigaciones con ese status
-        if (userService.hasRole(userId, RoleName.ROLE_ADMIN) ||
-                userService.hasRole(userId, RoleName.ROLE_TECHNICIAN)) {
-            fumigations = repository.findByStatus(statusEnum, pageable);
+        if (canSeeAllFumigations(user)) {
+            fumigations = repository.findDetailsByStatus(statusEnum, pageable);
         } else {
             // Si es CLIENT, devolver solo las fumigaciones de su compañía
-            fumigations = repository.findByStatusAndUserId(statusEnum, user.getId(), pageable);
+            fumigations = repository.findDetailsByStatusAndUserId(statusEnum, user.getId(), pageable);
         }
 
         return fumigations.map(detailMapper::toDetailDto);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<FumigationDetailDTO> getFumigationsByStatus(String status, CursorRequest cursor) {
+        Status statusEnum = parseAndValidateStatus(status);
+        AuthenticatedUser user = authenticatedUserContext.getCurrentUser();
+
+        CursorPageDTO<FumigationDetailView> fumigations = canSeeAllFumigations(user)
+                ? repository.findDetailsByStatus(statusEnum, cursor)
+                : repository.findDetailsByStatusAndUserId(statusEnum, user.getId(), cursor);
+
+        return fumigations.map(detailMapper::toDetailDto);
+    }
+
+    private boolean canSeeAllFumigations(AuthenticatedUser user) {
+        return user.hasRole(RoleName.ROLE_ADMIN) || user.hasRole(RoleName.ROLE_TECHNICIAN);
+    }
+
     private Status parseAndValidateStatus(String status) {
         try {
             return Status.valueOf(status.toUpperCase());
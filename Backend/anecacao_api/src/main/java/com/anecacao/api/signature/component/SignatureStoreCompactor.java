@@ -0,0 +1,22 @@
+package com.anecacao.api.signature.component;
+
+import com.anecacao.api.signature.domain.service.SignatureStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Borra cada noche las imágenes de firma que ya ninguna firma referencia.
+ */
+@Component
+@RequiredArgsConstructor
+public class SignatureStoreCompactor {
+    private final SignatureStore signatureStore;
+
+    @Scheduled(cron = "${app.upload.compaction-cron:0 0 4 * * *}")
+    public void compact() throws IOException {
+        signatureStore.compact();
+    }
+}
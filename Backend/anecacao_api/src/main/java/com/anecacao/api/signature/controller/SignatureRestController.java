@@ -1,17 +1,26 @@
 package com.anecacao.api.signature.controller;
 
+import com.anecacao.api.signature.data.dto.SignatureContent;
+import com.anecacao.api.signature.data.dto.SignatureImageRequest;
 import com.anecacao.api.signature.data.dto.SignatureResponse;
 import com.anecacao.api.signature.data.dto.SignatureUploadRequest;
+import com.anecacao.api.signature.data.dto.SignatureVariant;
 import com.anecacao.api.signature.domain.service.SignatureService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/signatures")
@@ -19,6 +28,36 @@ import java.io.IOException;
 public class SignatureRestController {
     private final SignatureService signatureService;
 
+    /**
+     * Imagen de la firma. Admite Range (206) e If-None-Match (304) sobre el ETag del contenido.
+     * Pedida con {@code ?v=<sha256>} vigente se marca como inmutable; sin él el cliente revalida.
+     * Mientras la variante pedida no esté generada se sirve el original, siempre con revalidación.
+     *
+     * @param id ID de la firma
+     * @param variant FULL (por defecto, la versión normalizada), THUMBNAIL u ORIGINAL
+     * @param version hash del contenido, tal como aparece en {@code contentUrl}
+     */
+    @GetMapping("/{id}/content")
+    public ResponseEntity<Resource> getSignatureContent(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "FULL") SignatureVariant variant,
+                                                        @RequestParam(name = "v", required = false) String version) {
+        SignatureContent content = signatureService.getSignatureContent(id, variant);
+        Resource image = new FileSystemResource(content.file());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(image).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        if (content.sha256() == null) {
+            return response.cacheControl(CacheControl.noCache().cachePrivate()).body(image);
+        }
+
+        CacheControl cacheControl = content.variant() == variant && content.sha256().equals(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+        return response.cacheControl(cacheControl)
+                .eTag(content.etag())
+                .body(image);
+    }
+
     @PostMapping
     public ResponseEntity<SignatureResponse> uploadSignature(@RequestBody SignatureUploadRequest request) {
         try {
@@ -29,4 +68,32 @@ public class SignatureRestController {
                     .body(null);
         }
     }
+
+    /**
+     * Firma como archivo multipart ("file") junto con fumigationId/cleanupId y signatureType.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<SignatureResponse> uploadSignatureFile(@Valid @ModelAttribute SignatureImageRequest request,
+                                                                 @RequestPart("file") MultipartFile file) {
+        try (InputStream image = file.getInputStream()) {
+            return ResponseEntity.ok(signatureService.saveSignature(request, image));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+
+    /**
+     * Firma como cuerpo image/jpeg o image/png; los demás datos van como parámetros de la URL.
+     */
+    @PostMapping(consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE})
+    public ResponseEntity<SignatureResponse> uploadSignatureImage(@Valid @ModelAttribute SignatureImageRequest request,
+                                                                  InputStream image) {
+        try {
+            return ResponseEntity.ok(signatureService.saveSignature(request, image));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.anecacao.api.signature.data.dto;
+
+import java.nio.file.Path;
+
+/**
+ * Archivo de una firma listo para servirse; {@code sha256} es nulo en firmas anteriores al cálculo del hash.
+ * {@code variant} es la versión que realmente se sirve, que puede ser el original mientras la pedida no exista.
+ */
+public record SignatureContent(Path file, String sha256, SignatureVariant variant) {
+
+    // Cada variante tiene su propio ETag: al generarse la miniatura deja de coincidir con el del original
+    public String etag() {
+        if (sha256 == null) return null;
+        return variant.isDerived() ? sha256 + "-" + variant.getSuffix() : sha256;
+    }
+}
@@ -0,0 +1,16 @@
+package com.anecacao.api.signature.data.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Datos de una firma cuya imagen llega aparte, como archivo multipart o como cuerpo image/*.
+ */
+@Data
+public class SignatureImageRequest {
+    private Long fumigationId;
+    private Long cleanupId;
+
+    @NotNull
+    private String signatureType;
+}
@@ -8,6 +8,23 @@ import lombok.Data;
 public class SignatureResponse {
     private Long id;
     private String signatureType;
-    private String fileUrl;
     private Long reportId;
+    private String contentUrl;
+    private String thumbnailUrl;
+
+    // Los archivos ya no se sirven como estáticos: fileUrl se mantiene para los clientes existentes
+    // y apunta al mismo endpoint con control de acceso que contentUrl
+    public String getFileUrl() {
+        return contentUrl;
+    }
+
+    // Con el hash en la URL la respuesta puede guardarse en caché como inmutable
+    public static String contentUrl(Long id, String sha256) {
+        return "/signatures/" + id + "/content" + (sha256 != null ? "?v=" + sha256 : "");
+    }
+
+    // Las listas de informes cargan la miniatura; la imagen completa queda en contentUrl
+    public static String thumbnailUrl(Long id, String sha256) {
+        return "/signatures/" + id + "/content?variant=" + SignatureVariant.THUMBNAIL + (sha256 != null ? "&v=" + sha256 : "");
+    }
 }
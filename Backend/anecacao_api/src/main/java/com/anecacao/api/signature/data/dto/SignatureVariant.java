@@ -0,0 +1,22 @@
+package com.anecacao.api.signature.data.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Versiones servibles de una firma: la imagen tal como se subió y las derivadas que genera el
+ * procesamiento posterior (escala de grises con paleta, en PNG).
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SignatureVariant {
+    ORIGINAL(null),
+    FULL("full"),
+    THUMBNAIL("thumb");
+
+    private final String suffix;
+
+    public boolean isDerived() {
+        return suffix != null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.anecacao.api.signature.data.dto;
+
+/**
+ * Imagen ya guardada en el almacén: su hash y la ruta pública con la que se referencia desde la firma.
+ */
+public record StoredSignature(String sha256, String filePath) {
+}
@@ -25,4 +25,8 @@ public class Signature {
 
     @Column(nullable = false)
     private String filePath;
+
+    // SHA-256 en hexadecimal; nulo en firmas guardadas antes de calcularse al subirlas
+    @Column(length = 64)
+    private String sha256;
 }
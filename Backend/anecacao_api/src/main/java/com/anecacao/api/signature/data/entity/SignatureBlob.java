@@ -0,0 +1,24 @@
+package com.anecacao.api.signature.data.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Imagen de firma guardada una sola vez por contenido. {@link #refCount} cuenta las firmas que la usan
+ * y se ajusta en la misma transacción que cada firma; el archivo se borra al compactar cuando llega a cero.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "signature_blobs")
+public class SignatureBlob {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long refCount;
+}
@@ -0,0 +1,32 @@
+package com.anecacao.api.signature.data.repository;
+
+import com.anecacao.api.signature.data.entity.SignatureBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SignatureBlobRepository extends JpaRepository<SignatureBlob, String> {
+    @Modifying
+    @Query("INSERT INTO SignatureBlob (sha256, refCount) VALUES (:sha256, 0) ON CONFLICT DO NOTHING")
+    int insertIfMissing(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("UPDATE SignatureBlob b SET b.refCount = b.refCount + :delta WHERE b.sha256 = :sha256")
+    int addReferences(@Param("sha256") String sha256, @Param("delta") long delta);
+
+    @Query("SELECT b.sha256 FROM SignatureBlob b WHERE b.sha256 IN :hashes AND b.refCount > 0")
+    List<String> findReferenced(@Param("hashes") Collection<String> hashes);
+
+    // La condición se evalúa sobre la fila bloqueada: una referencia confirmada a la vez la conserva
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SignatureBlob b WHERE b.sha256 = :sha256 AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
@@ -2,7 +2,10 @@ package com.anecacao.api.signature.data.repository;
 
 import com.anecacao.api.signature.data.entity.Signature;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,10 @@ public interface SignatureRepository extends JpaRepository<Signature, Long> {
     Optional<Signature> findByCleanupReportIdAndSignatureType(Long reportId, String signatureType);
     List<Signature> findByFumigationReportId(Long fumigationReportId);
     List<Signature> findByCleanupReportId(Long cleanupReportId);
+    List<Signature> findByFumigationReportIdIn(Collection<Long> fumigationReportIds);
+    List<Signature> findByCleanupReportIdIn(Collection<Long> cleanupReportIds);
+
+    @Query("SELECT COALESCE(fr.fumigation.id, cr.fumigation.id) FROM Signature s " +
+            "LEFT JOIN s.fumigationReport fr LEFT JOIN s.cleanupReport cr WHERE s.id = :id")
+    Optional<Long> findFumigationIdById(@Param("id") Long signatureId);
 }
@@ -0,0 +1,7 @@
+package com.anecacao.api.signature.domain.exception;
+
+public class InvalidSignatureImageException extends RuntimeException {
+    public InvalidSignatureImageException(String message) {
+        super (message);
+    }
+}
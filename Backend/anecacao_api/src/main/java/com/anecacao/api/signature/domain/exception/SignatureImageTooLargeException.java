@@ -0,0 +1,7 @@
+package com.anecacao.api.signature.domain.exception;
+
+public class SignatureImageTooLargeException extends RuntimeException {
+    public SignatureImageTooLargeException(long maxBytes) {
+        super ("Signature image exceeds the maximum size of " + maxBytes + " bytes.");
+    }
+}
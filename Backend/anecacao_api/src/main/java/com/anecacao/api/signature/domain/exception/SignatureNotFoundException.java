@@ -0,0 +1,7 @@
+package com.anecacao.api.signature.domain.exception;
+
+public class SignatureNotFoundException extends RuntimeException {
+    public SignatureNotFoundException(Long id) {
+        super ("Signature with id: " + id + " was not found.");
+    }
+}
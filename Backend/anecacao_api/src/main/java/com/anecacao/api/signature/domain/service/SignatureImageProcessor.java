@@ -0,0 +1,12 @@
+package com.anecacao.api.signature.domain.service;
+
+import com.anecacao.api.signature.data.dto.StoredSignature;
+
+/**
+ * Genera en segundo plano las variantes de una imagen de firma: una versión canónica reducida en escala
+ * de grises y una miniatura. Dentro de una transacción espera a que confirme; si el pool está lleno la
+ * imagen se descarta y se vuelve a pedir la próxima vez que alguien solicite una variante que falta.
+ */
+public interface SignatureImageProcessor {
+    void normalize(StoredSignature blob);
+}
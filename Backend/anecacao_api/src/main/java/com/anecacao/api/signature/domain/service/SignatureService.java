@@ -1,10 +1,22 @@
 package com.anecacao.api.signature.domain.service;
 
+import com.anecacao.api.signature.data.dto.SignatureContent;
+import com.anecacao.api.signature.data.dto.SignatureImageRequest;
 import com.anecacao.api.signature.data.dto.SignatureResponse;
 import com.anecacao.api.signature.data.dto.SignatureUploadRequest;
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.entity.Signature;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
 
 public interface SignatureService {
     SignatureResponse saveSignature (SignatureUploadRequest request) throws IOException;
+
+    SignatureResponse saveSignature (SignatureImageRequest request, InputStream image) throws IOException;
+
+    Optional<byte[]> readSignatureImage (Signature signature);
+
+    SignatureContent getSignatureContent (Long id, SignatureVariant variant);
 }
@@ -0,0 +1,39 @@
+package com.anecacao.api.signature.domain.service;
+
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
+import com.anecacao.api.signature.data.entity.Signature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Imágenes de firma direccionadas por su SHA-256: el mismo contenido se guarda una sola vez y se
+ * cuentan sus referencias. Las referencias cambian en la transacción de quien llama; los archivos sin
+ * referencias no se borran en línea sino al compactar.
+ * <p>
+ * Las variantes derivadas se guardan junto a su imagen, comparten sus referencias y se borran con ella.
+ */
+public interface SignatureStore {
+    StoredSignature put(InputStream image) throws IOException;
+
+    void release(Signature signature);
+
+    Optional<Path> locate(Signature signature);
+
+    /**
+     * La imagen del almacén a la que apunta la firma; vacío en firmas con archivo propio anteriores al almacén.
+     */
+    Optional<StoredSignature> blobOf(Signature signature);
+
+    Optional<Path> locate(StoredSignature blob, SignatureVariant variant);
+
+    /**
+     * Guarda una variante derivada; no hace nada si la imagen de origen ya no existe o la variante ya estaba.
+     */
+    void putVariant(StoredSignature blob, SignatureVariant variant, byte[] image) throws IOException;
+
+    int compact() throws IOException;
+}
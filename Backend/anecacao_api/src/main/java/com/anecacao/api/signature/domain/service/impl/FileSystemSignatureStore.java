@@ -0,0 +1,352 @@
+package com.anecacao.api.signature.domain.service.impl;
+
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.anecacao.api.signature.data.repository.SignatureBlobRepository;
+import com.anecacao.api.signature.domain.exception.InvalidSignatureImageException;
+import com.anecacao.api.signature.domain.exception.SignatureImageTooLargeException;
+import com.anecacao.api.signature.domain.service.SignatureStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacén en disco: cada imagen se guarda como {@code <ab>/<sha256>.<ext>} bajo {@code app.upload.dir},
+ * repartida en subdirectorios por los dos primeros caracteres del hash. La imagen se recibe en un
+ * archivo temporal y se mueve de forma atómica; si el contenido ya existe solo se renueva su fecha.
+ * <p>
+ * La compactación borra los archivos sin referencias con más antigüedad que {@code compaction-grace}.
+ * Ese margen cubre las subidas cuya transacción aún no confirma su referencia; el candado por hash
+ * evita que una subida y la compactación decidan a la vez sobre el mismo archivo.
+ * <p>
+ * Las variantes derivadas viven junto a la imagen como {@code <sha256>-<sufijo>.png}; se escriben bajo
+ * el mismo candado y solo si la imagen sigue existiendo, así la compactación nunca deja variantes huérfanas.
+ */
+@Service
+public class FileSystemSignatureStore implements SignatureStore {
+    private static final String URL_PREFIX = "/uploads/signatures/";
+    private static final String TEMP_PREFIX = "upload-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png)");
+    private static final int BUFFER_SIZE = 8192;
+    private static final int COMPACTION_BATCH = 500;
+
+    private final SignatureBlobRepository blobRepository;
+    private final Path root;
+    private final long maxBytes;
+    private final Duration gracePeriod;
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final Counter compacted;
+
+    public FileSystemSignatureStore(SignatureBlobRepository blobRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.upload.dir}") Path root,
+                                    @Value("${app.upload.max-size:3MB}") DataSize maxSize,
+                                    @Value("${app.upload.compaction-grace:1h}") Duration gracePeriod) {
+        this.blobRepository = blobRepository;
+        this.root = root.toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+        this.gracePeriod = gracePeriod;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.stored = writes(meterRegistry, "stored", "Signature images written as new blobs");
+        this.deduplicated = writes(meterRegistry, "deduplicated", "Signature uploads that matched an existing blob");
+        this.compacted = Counter.builder("signatures.store.compacted")
+                .description("Unreferenced signature blobs removed by compaction")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    @Override
+    public StoredSignature put(InputStream image) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            Received received = receive(image, temp);
+            Path blob = root.resolve(received.sha256().substring(0, 2))
+                    .resolve(received.sha256() + received.format().extension);
+
+            ReentrantLock lock = lockFor(received.sha256());
+            lock.lock();
+            try {
+                if (Files.isRegularFile(blob)) {
+                    // La fecha renovada protege el archivo de una compactación mientras la transacción confirma
+                    Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+                    deduplicated.increment();
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                    stored.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            blobRepository.insertIfMissing(received.sha256());
+            blobRepository.addReferences(received.sha256(), 1);
+            return new StoredSignature(received.sha256(), URL_PREFIX + root.relativize(blob).toString().replace('\\', '/'));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void release(Signature signature) {
+        if (isBlob(signature)) {
+            blobRepository.addReferences(signature.getSha256(), -1);
+            return;
+        }
+
+        // Las firmas anteriores al almacén tienen un archivo propio; se borra solo si la transacción confirma
+        locate(signature).ifPresent(file -> {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                deleteQuietly(file);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteQuietly(file);
+                }
+            });
+        });
+    }
+
+    @Override
+    public Optional<Path> locate(Signature signature) {
+        return locate(signature.getFilePath());
+    }
+
+    @Override
+    public Optional<StoredSignature> blobOf(Signature signature) {
+        return isBlob(signature)
+                ? Optional.of(new StoredSignature(signature.getSha256(), signature.getFilePath()))
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<Path> locate(StoredSignature blob, SignatureVariant variant) {
+        Optional<Path> original = locate(blob.filePath());
+        if (!variant.isDerived()) {
+            return original;
+        }
+        return original.map(file -> variantPath(file, blob.sha256(), variant)).filter(Files::isRegularFile);
+    }
+
+    @Override
+    public void putVariant(StoredSignature blob, SignatureVariant variant, byte[] image) throws IOException {
+        Optional<Path> original = locate(blob.filePath());
+        if (!variant.isDerived() || original.isEmpty()) {
+            return;
+        }
+
+        Path target = variantPath(original.get(), blob.sha256(), variant);
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            Files.write(temp, image);
+            ReentrantLock lock = lockFor(blob.sha256());
+            lock.lock();
+            try {
+                // La compactación pudo borrar la imagen mientras se generaba la variante
+                if (Files.isRegularFile(original.get()) && !Files.exists(target)) {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Optional<Path> locate(String filePath) {
+        if (filePath == null) {
+            return Optional.empty();
+        }
+
+        String relative = filePath.startsWith(URL_PREFIX)
+                ? filePath.substring(URL_PREFIX.length())
+                : Path.of(filePath).getFileName().toString();
+        Path file = root.resolve(relative).normalize();
+        return file.startsWith(root) && Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    @Override
+    public int compact() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        Map<String, Path> candidates = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(file) || !isOlderThan(file, cutoff)) continue;
+
+                String name = file.getFileName().toString();
+                if (file.getParent().equals(root) && name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX)) {
+                    // Restos de subidas interrumpidas
+                    deleteQuietly(file);
+                    continue;
+                }
+
+                Matcher blob = BLOB_NAME.matcher(name);
+                if (blob.matches() && !file.getParent().equals(root)
+                        && file.getParent().getFileName().toString().equals(blob.group(1).substring(0, 2))) {
+                    candidates.put(blob.group(1), file);
+                }
+            }
+        }
+
+        int removed = 0;
+        List<String> hashes = new ArrayList<>(candidates.keySet());
+        for (int from = 0; from < hashes.size(); from += COMPACTION_BATCH) {
+            List<String> batch = hashes.subList(from, Math.min(from + COMPACTION_BATCH, hashes.size()));
+            Set<String> referenced = new HashSet<>(blobRepository.findReferenced(batch));
+            for (String sha256 : batch) {
+                if (!referenced.contains(sha256) && removeIfUnreferenced(sha256, candidates.get(sha256), cutoff)) {
+                    removed++;
+                }
+            }
+        }
+        compacted.increment(removed);
+        return removed;
+    }
+
+    private boolean removeIfUnreferenced(String sha256, Path file, Instant cutoff) throws IOException {
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            // Se vuelve a comprobar bajo el candado: una subida pudo reutilizar el archivo mientras tanto
+            if (!isOlderThan(file, cutoff) || !blobRepository.findReferenced(List.of(sha256)).isEmpty()) {
+                return false;
+            }
+            blobRepository.deleteIfUnreferenced(sha256);
+            for (SignatureVariant variant : SignatureVariant.values()) {
+                if (variant.isDerived()) {
+                    Files.deleteIfExists(variantPath(file, sha256, variant));
+                }
+            }
+            return Files.deleteIfExists(file);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // La imagen pasa por un buffer fijo hacia el archivo temporal: nunca está completa en memoria
+    private Received receive(InputStream image, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ImageFormat format;
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            int read = image.readNBytes(buffer, 0, ImageFormat.HEADER_LENGTH);
+            format = ImageFormat.detect(buffer, read);
+            long size = 0;
+            do {
+                size += read;
+                if (size > maxBytes) {
+                    throw new SignatureImageTooLargeException(maxBytes);
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            } while ((read = image.read(buffer)) != -1);
+        }
+        return new Received(HexFormat.of().formatHex(digest.digest()), format);
+    }
+
+    private boolean isBlob(Signature signature) {
+        return signature.getSha256() != null && signature.getFilePath() != null
+                && Path.of(signature.getFilePath()).getFileName().toString().startsWith(signature.getSha256() + ".");
+    }
+
+    private static Path variantPath(Path original, String sha256, SignatureVariant variant) {
+        return original.resolveSibling(sha256 + "-" + variant.getSuffix() + ".png");
+    }
+
+    private ReentrantLock lockFor(String sha256) {
+        return locks[Integer.parseInt(sha256.substring(0, 2), 16) % locks.length];
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // El archivo queda huérfano; no debe fallar una operación ya confirmada
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter writes(MeterRegistry registry, String result, String description) {
+        return Counter.builder("signatures.store.writes")
+                .description(description)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Received(String sha256, ImageFormat format) {
+    }
+
+    // Se reconoce el formato por los primeros bytes, no por el Content-Type que envía el cliente
+    private enum ImageFormat {
+        JPEG(".jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+        PNG(".png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+        static final int HEADER_LENGTH = 8;
+
+        private final String extension;
+        private final byte[] magic;
+
+        ImageFormat(String extension, byte[] magic) {
+            this.extension = extension;
+            this.magic = magic;
+        }
+
+        static ImageFormat detect(byte[] header, int length) {
+            for (ImageFormat format : values()) {
+                if (length >= format.magic.length
+                        && Arrays.equals(header, 0, format.magic.length, format.magic, 0, format.magic.length)) {
+                    return format;
+                }
+            }
+            throw new InvalidSignatureImageException("Signature image must be a JPEG or PNG file.");
+        }
+    }
+}
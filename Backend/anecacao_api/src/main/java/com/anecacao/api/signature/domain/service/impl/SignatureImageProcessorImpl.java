@@ -0,0 +1,243 @@
+package com.anecacao.api.signature.domain.service.impl;
+
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
+import com.anecacao.api.signature.domain.service.SignatureImageProcessor;
+import com.anecacao.api.signature.domain.service.SignatureStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * El original se decodifica submuestreado, de modo que una foto de 3 MB nunca se expande completa en
+ * memoria; luego se reduce a mitades sucesivas (cada paso promedia bloques de 2x2) hasta el tamaño
+ * final. Las firmas son trazos sobre fondo claro: 16 tonos de gris en una paleta de 4 bits bastan y
+ * dejan PNG de pocos KB. La transparencia se compone sobre blanco.
+ */
+@Service
+public class SignatureImageProcessorImpl implements SignatureImageProcessor {
+    private static final int GRAY_LEVELS = 16;
+    private static final IndexColorModel PALETTE = grayPalette();
+
+    private final SignatureStore signatureStore;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final int fullSize;
+    private final int thumbnailSize;
+    private final Counter processed;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public SignatureImageProcessorImpl(SignatureStore signatureStore,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.upload.images.threads:1}") int threads,
+                                       @Value("${app.upload.images.queue-capacity:64}") int queueCapacity,
+                                       @Value("${app.upload.images.full-size:1000}") int fullSize,
+                                       @Value("${app.upload.images.thumbnail-size:320}") int thumbnailSize) {
+        this.signatureStore = signatureStore;
+        this.fullSize = fullSize;
+        this.thumbnailSize = thumbnailSize;
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("signature-images-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "signatures.images");
+        this.processed = Counter.builder("signatures.images.processed")
+                .description("Signature images normalized into their derived variants")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("signatures.images.rejected")
+                .description("Signature images skipped because the processing pool was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("signatures.images.failed")
+                .description("Signature images that could not be decoded or normalized")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void normalize(StoredSignature blob) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(blob);
+            return;
+        }
+
+        // Si la transacción hace rollback la imagen no llega a referenciarse y no vale la pena procesarla
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(blob);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void submit(StoredSignature blob) {
+        // La misma imagen puede pedirse varias veces mientras espera en la cola
+        if (!pending.add(blob.sha256())) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    process(blob);
+                } finally {
+                    pending.remove(blob.sha256());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(blob.sha256());
+            rejected.increment();
+        }
+    }
+
+    void process(StoredSignature blob) {
+        if (signatureStore.locate(blob, SignatureVariant.FULL).isPresent()
+                && signatureStore.locate(blob, SignatureVariant.THUMBNAIL).isPresent()) {
+            return;
+        }
+
+        Optional<Path> source = signatureStore.locate(blob, SignatureVariant.ORIGINAL);
+        if (source.isEmpty()) {
+            return;
+        }
+
+        try {
+            BufferedImage full = shrink(read(source.get(), fullSize), fullSize);
+            signatureStore.putVariant(blob, SignatureVariant.FULL, encode(full));
+            signatureStore.putVariant(blob, SignatureVariant.THUMBNAIL, encode(shrink(full, thumbnailSize)));
+            processed.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+        }
+    }
+
+    // Decodifica saltando píxeles hasta quedar entre 2 y 4 veces el tamaño final y lo pasa a grises
+    private static BufferedImage read(Path source, int size) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("No image reader for " + source.getFileName());
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return toGray(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage toGray(BufferedImage image) {
+        BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, gray.getWidth(), gray.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return gray;
+    }
+
+    // Nunca amplía: una firma más pequeña que el límite conserva su tamaño
+    private static BufferedImage shrink(BufferedImage image, int size) {
+        BufferedImage current = image;
+        while (Math.max(current.getWidth(), current.getHeight()) >= size * 2) {
+            current = scale(current, Math.max(1, current.getWidth() / 2), Math.max(1, current.getHeight() / 2));
+        }
+
+        int longest = Math.max(current.getWidth(), current.getHeight());
+        if (longest <= size) {
+            return current;
+        }
+        double ratio = (double) size / longest;
+        return scale(current, Math.max(1, (int) Math.round(current.getWidth() * ratio)),
+                Math.max(1, (int) Math.round(current.getHeight() * ratio)));
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] encode(BufferedImage gray) throws IOException {
+        int width = gray.getWidth();
+        BufferedImage indexed = new BufferedImage(width, gray.getHeight(), BufferedImage.TYPE_BYTE_BINARY, PALETTE);
+        Raster in = gray.getRaster();
+        WritableRaster out = indexed.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < gray.getHeight(); y++) {
+            in.getSamples(0, y, width, 1, 0, row);
+            for (int x = 0; x < width; x++) {
+                row[x] = (row[x] * (GRAY_LEVELS - 1) + 127) / 255;
+            }
+            out.setSamples(0, y, width, 1, 0, row);
+        }
+
+        // Sin la caché en disco que ImageIO usa por defecto: la imagen resultante ocupa pocos KB
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            writer.write(indexed);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static IndexColorModel grayPalette() {
+        byte[] levels = new byte[GRAY_LEVELS];
+        for (int i = 0; i < GRAY_LEVELS; i++) {
+            levels[i] = (byte) (i * 255 / (GRAY_LEVELS - 1));
+        }
+        return new IndexColorModel(4, GRAY_LEVELS, levels, levels, levels);
+    }
+}
@@ -4,38 +4,60 @@ import com.anecacao.api.reporting.data.entity.CleanupReport;
 import com.anecacao.api.reporting.data.entity.FumigationReport;
 import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
 import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
+import com.anecacao.api.signature.data.dto.SignatureContent;
+import com.anecacao.api.signature.data.dto.SignatureImageRequest;
 import com.anecacao.api.signature.data.dto.SignatureResponse;
 import com.anecacao.api.signature.data.dto.SignatureUploadRequest;
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
 import com.anecacao.api.signature.data.entity.Signature;
 import com.anecacao.api.signature.data.repository.SignatureRepository;
+import com.anecacao.api.signature.domain.exception.InvalidSignatureImageException;
+import com.anecacao.api.signature.domain.exception.SignatureNotFoundException;
+import com.anecacao.api.signature.domain.service.SignatureImageProcessor;
 import com.anecacao.api.signature.domain.service.SignatureService;
+import com.anecacao.api.signature.domain.service.SignatureStore;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Base64;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class SignatureServiceImpl implements SignatureService {
-    @Value("${app.upload.dir}")
-    private String uploadDir;
-
     private final SignatureRepository signatureRepository;
     private final FumigationReportRepository fumigationReportRepository;
     private final CleanupReportRepository cleanupReportRepository;
+    private final SignatureStore signatureStore;
+    private final SignatureImageProcessor imageProcessor;
+    private final FumigationAuthorizationService authorizationService;
 
     private static final Set<String> VALID_SIGNATURE_TYPES = Set.of("technician", "client");
 
+    @Transactional
     @Override
     public SignatureResponse saveSignature(SignatureUploadRequest request) throws IOException {
+        SignatureImageRequest imageRequest = new SignatureImageRequest();
+        imageRequest.setFumigationId(request.getFumigationId());
+        imageRequest.setCleanupId(request.getCleanupId());
+        imageRequest.setSignatureType(request.getSignatureType());
+        return saveSignature(imageRequest, decodeBase64Image(request.getSignatureData()));
+    }
+
+    @Transactional
+    @Override
+    public SignatureResponse saveSignature(SignatureImageRequest request, InputStream image) throws IOException {
         if (request.getFumigationId() == null && request.getCleanupId() == null) {
             throw new IllegalArgumentException("FumigationId or CleanupId is required");
         }
@@ -53,26 +75,22 @@ public class SignatureServiceImpl implements SignatureService {
                     .findByCleanupReportIdAndSignatureType(request.getCleanupId(), request.getSignatureType());
         }
 
-        byte[] imageBytes = decodeBase64Image(request.getSignatureData());
-        String fileName = UUID.randomUUID() + ".jpg";
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, imageBytes);
+        StoredSignature stored = signatureStore.put(image);
 
         Signature signature;
         if (existingSignature.isPresent()) {
             signature = existingSignature.get();
 
-            if (signature.getFilePath() != null) {
-                Path oldFilePath = Paths.get(uploadDir, Paths.get(signature.getFilePath()).getFileName().toString());
-                Files.deleteIfExists(oldFilePath);
-            }
+            // La imagen anterior pierde una referencia; su archivo lo recoge la compactación
+            signatureStore.release(signature);
 
-            signature.setFilePath("/uploads/signatures/" + fileName);
+            signature.setFilePath(stored.filePath());
+            signature.setSha256(stored.sha256());
         } else {
             signature = new Signature();
             signature.setSignatureType(request.getSignatureType());
-            signature.setFilePath("/uploads/signatures/" + fileName);
+            signature.setFilePath(stored.filePath());
+            signature.setSha256(stored.sha256());
 
             if (request.getFumigationId() != null) {
                 FumigationReport fumigationReport = fumigationReportRepository
@@ -88,6 +106,7 @@ public class SignatureServiceImpl implements SignatureService {
         }
 
         Signature saved = signatureRepository.save(signature);
+        imageProcessor.normalize(stored);
 
         Long reportId = saved.getFumigationReport() != null
                 ? saved.getFumigationReport().getId()
@@ -98,15 +117,98 @@ public class SignatureServiceImpl implements SignatureService {
         return new SignatureResponse(
                 saved.getId(),
                 saved.getSignatureType(),
-                saved.getFilePath(),
-                reportId
+                reportId,
+                SignatureResponse.contentUrl(saved.getId(), saved.getSha256()),
+                SignatureResponse.thumbnailUrl(saved.getId(), saved.getSha256())
         );
     }
 
-    private byte[] decodeBase64Image(String base64Image) {
-        String base64Data = base64Image.contains(",")
-                ? base64Image.split(",")[1]
-                : base64Image;
-        return Base64.getDecoder().decode(base64Data);
+    // Una firma cuyo archivo ya no existe se trata como ausente; se prefiere la versión normalizada, más liviana
+    @Override
+    public Optional<byte[]> readSignatureImage(Signature signature) {
+        Optional<Path> file = signatureStore.blobOf(signature)
+                .flatMap(blob -> signatureStore.locate(blob, SignatureVariant.FULL))
+                .or(() -> signatureStore.locate(signature));
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Files.readAllBytes(file.get()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Quien puede leer la fumigación del informe puede leer sus firmas
+    @Transactional(readOnly = true)
+    @Override
+    public SignatureContent getSignatureContent(Long id, SignatureVariant variant) {
+        Long fumigationId = signatureRepository.findFumigationIdById(id)
+                .orElseThrow(() -> new SignatureNotFoundException(id));
+        authorizationService.checkFumigationAccess(fumigationId);
+
+        Signature signature = signatureRepository.findById(id)
+                .orElseThrow(() -> new SignatureNotFoundException(id));
+        Path original = signatureStore.locate(signature)
+                .orElseThrow(() -> new SignatureNotFoundException(id));
+
+        Optional<StoredSignature> blob = signatureStore.blobOf(signature);
+        if (variant.isDerived() && blob.isPresent()) {
+            Optional<Path> derived = signatureStore.locate(blob.get(), variant);
+            if (derived.isPresent()) {
+                return new SignatureContent(derived.get(), signature.getSha256(), variant);
+            }
+            // Aún no se genera, o el pool estaba lleno al subirla: se sirve el original y se vuelve a pedir
+            imageProcessor.normalize(blob.get());
+        }
+        return new SignatureContent(original, signature.getSha256(), SignatureVariant.ORIGINAL);
+    }
+
+    // Decodifica el base64 a medida que se lee, directamente desde el String del JSON
+    private InputStream decodeBase64Image(String base64Image) {
+        int start = base64Image.indexOf(',') + 1;
+        InputStream characters = new InputStream() {
+            private int position = start;
+
+            @Override
+            public int read() {
+                return position < base64Image.length() ? base64Image.charAt(position++) & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (length == 0) return 0;
+                if (position >= base64Image.length()) return -1;
+
+                int count = Math.min(length, base64Image.length() - position);
+                for (int i = 0; i < count; i++) {
+                    bytes[offset + i] = (byte) base64Image.charAt(position++);
+                }
+                return count;
+            }
+        };
+
+        return new FilterInputStream(Base64.getDecoder().wrap(characters)) {
+            @Override
+            public int read() {
+                try {
+                    return super.read();
+                } catch (IOException e) {
+                    throw new InvalidSignatureImageException("Signature data is not valid base64.");
+                }
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                try {
+                    return super.read(bytes, offset, length);
+                } catch (IOException e) {
+                    throw new InvalidSignatureImageException("Signature data is not valid base64.");
+                }
+            }
+        };
     }
 }
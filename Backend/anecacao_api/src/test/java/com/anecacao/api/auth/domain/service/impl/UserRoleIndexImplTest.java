@@ -0,0 +1,143 @@
+package com.anecacao.api.auth.domain.service.impl;
+
+import com.anecacao.api.auth.data.dto.UserRoleProjection;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.data.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRoleIndexImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private UserRoleIndexImpl subject;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Ticker ticker = nanos::get;
+        subject = new UserRoleIndexImpl(userRepository, transactionManager, meterRegistry,
+                100, Duration.ofMinutes(5), ticker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Loads roles once and answers later lookups from memory")
+    void hasRole_loadsOnceThenHits() {
+        when(userRepository.findRolesByUserIds(List.of(1L)))
+                .thenReturn(List.of(new UserRoleProjection(1L, RoleName.ROLE_TECHNICIAN)));
+
+        assertTrue(subject.hasRole(1L, RoleName.ROLE_TECHNICIAN));
+        assertFalse(subject.hasRole(1L, RoleName.ROLE_ADMIN));
+        assertTrue(subject.hasAnyRole(1L, RoleName.ROLE_ADMIN, RoleName.ROLE_TECHNICIAN));
+
+        verify(userRepository, times(1)).findRolesByUserIds(anyCollection());
+        assertEquals(2.0, counter("hit"));
+        assertEquals(1.0, counter("miss"));
+    }
+
+    @Test
+    @DisplayName("Resolves several users with a single query for the missing ones")
+    void rolesOf_bulkLoadsMisses() {
+        subject.updateRoles(1L, Set.of(RoleName.ROLE_ADMIN));
+        when(userRepository.findRolesByUserIds(List.of(2L, 3L))).thenReturn(List.of(
+                new UserRoleProjection(2L, RoleName.ROLE_TECHNICIAN),
+                new UserRoleProjection(3L, RoleName.ROLE_CLIENT)));
+
+        Map<Long, Set<RoleName>> roles = subject.rolesOf(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(Set.of(RoleName.ROLE_ADMIN), roles.get(1L));
+        assertEquals(Set.of(RoleName.ROLE_TECHNICIAN), roles.get(2L));
+        assertEquals(Set.of(RoleName.ROLE_CLIENT), roles.get(3L));
+        verify(userRepository, times(1)).findRolesByUserIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Role updates replace the indexed roles")
+    void updateRoles_replacesEntry() {
+        subject.updateRoles(5L, Set.of(RoleName.ROLE_CLIENT));
+        subject.updateRoles(5L, Set.of(RoleName.ROLE_TECHNICIAN));
+
+        assertTrue(subject.hasRole(5L, RoleName.ROLE_TECHNICIAN));
+        assertFalse(subject.hasRole(5L, RoleName.ROLE_CLIENT));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Unknown users have no roles and are not cached")
+    void unknownUser_hasNoRoles() {
+        when(userRepository.findRolesByUserIds(List.of(9L))).thenReturn(List.of());
+
+        assertFalse(subject.hasRole(9L, RoleName.ROLE_TECHNICIAN));
+        assertFalse(subject.hasRole(9L, RoleName.ROLE_TECHNICIAN));
+
+        verify(userRepository, times(2)).findRolesByUserIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Entries expire after the TTL and are loaded again")
+    void expiredEntry_isReloaded() {
+        when(userRepository.findRolesByUserIds(List.of(1L)))
+                .thenReturn(List.of(new UserRoleProjection(1L, RoleName.ROLE_TECHNICIAN)))
+                .thenReturn(List.of(new UserRoleProjection(1L, RoleName.ROLE_CLIENT)));
+
+        assertTrue(subject.hasRole(1L, RoleName.ROLE_TECHNICIAN));
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertFalse(subject.hasRole(1L, RoleName.ROLE_TECHNICIAN));
+        assertTrue(subject.hasRole(1L, RoleName.ROLE_CLIENT));
+        verify(userRepository, times(2)).findRolesByUserIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Misses inside a read-only transaction are loaded in a new read-write transaction")
+    void missInReadOnlyTransaction_readsFromPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.findRolesByUserIds(List.of(1L)))
+                .thenReturn(List.of(new UserRoleProjection(1L, RoleName.ROLE_ADMIN)));
+
+        assertTrue(subject.hasRole(1L, RoleName.ROLE_ADMIN));
+
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("auth.role.index.lookups").tag("result", result).counter().count();
+    }
+}
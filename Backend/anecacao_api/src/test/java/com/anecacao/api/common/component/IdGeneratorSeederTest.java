@@ -0,0 +1,75 @@
+package com.anecacao.api.common.component;
+
+import com.anecacao.api.reporting.data.entity.Supply;
+import com.anecacao.api.reporting.data.repository.SupplyRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// El generador de tablas usa su propia transacción: el test no puede envolver todo en una sola
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(IdGeneratorSeeder.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdGeneratorSeederTest {
+    @Autowired
+    private IdGeneratorSeeder seeder;
+
+    @Autowired
+    private SupplyRepository supplyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        supplyRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Rows inserted with the old IDENTITY ids are never handed out again")
+    void afterSingletonsInstantiated_movesGeneratorPastExistingIds() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.createNativeQuery(
+                        "INSERT INTO supply (id, name, quantity, dosage, kind_of_supply, number_of_strips) " +
+                        "VALUES (700, 'Fosfina', 1, '2 g/m3', 'Gas', '1')")
+                .executeUpdate());
+
+        seeder.afterSingletonsInstantiated();
+        Supply saved = supplyRepository.save(supply());
+        Supply next = supplyRepository.save(supply());
+
+        assertTrue(saved.getId() > 700, "id " + saved.getId() + " collides with existing rows");
+        assertEquals(saved.getId() + 1, next.getId());
+
+        // Volver a ejecutarlo no retrocede ni salta bloques ya reservados
+        seeder.afterSingletonsInstantiated();
+        assertTrue(supplyRepository.save(supply()).getId() > next.getId());
+    }
+
+    private static Supply supply() {
+        Supply supply = new Supply();
+        supply.setName("Cinta");
+        supply.setQuantity(BigDecimal.ONE);
+        supply.setDosage("1 u");
+        supply.setKindOfSupply("Strip");
+        supply.setNumberOfStrips("1");
+        return supply;
+    }
+}
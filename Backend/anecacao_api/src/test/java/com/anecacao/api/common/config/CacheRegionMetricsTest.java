@@ -0,0 +1,161 @@
+package com.anecacao.api.common.config;
+
+import com.anecacao.api.auth.data.entity.Role;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.auth.data.repository.RoleRepository;
+import com.anecacao.api.common.data.entity.CacheRegions;
+import com.anecacao.api.request.creation.data.entity.Company;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// La cache de segundo nivel solo se llena con datos confirmados: los datos se guardan fuera de la transacción del test
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import(CacheRegionMetrics.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheRegionMetricsTest {
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CacheRegionMetrics cacheRegionMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long companyId;
+
+    @BeforeEach
+    void setUp() {
+        inTransaction(entityManager -> {
+            Role client = new Role(null, RoleName.ROLE_CLIENT);
+            entityManager.persist(client);
+
+            User user = new User();
+            user.setEmail("client@anecacao.com");
+            user.setFirstName("Ana");
+            user.setRoles(Set.of(client));
+            entityManager.persist(user);
+
+            Company company = new Company();
+            company.setName("CriolloCorp.");
+            company.setBusinessName("CriolloS.A");
+            company.setPhoneNumber("0980783625");
+            company.setRuc("1105327702");
+            company.setAddress("VLC Puerto Seymour");
+            company.setLegalRepresentative(user);
+            entityManager.persist(company);
+
+            userId = user.getId();
+            companyId = company.getId();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(entityManager -> {
+            entityManager.createQuery("DELETE FROM Company").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM user_roles").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM Role").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Role lookups by name are answered from the query cache after the first call")
+    void findByName_usesQueryCache() {
+        roleRepository.findByName(RoleName.ROLE_CLIENT);
+        Statistics statistics = statistics();
+
+        assertTrue(roleRepository.findByName(RoleName.ROLE_CLIENT).isPresent());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Users, their roles and companies are read from the cache on later sessions")
+    void entities_areServedFromCache() {
+        inTransaction(entityManager -> entityManager.find(Company.class, companyId).getLegalRepresentative().getRoles().size());
+        Statistics statistics = statistics();
+
+        inTransaction(entityManager -> {
+            Company company = entityManager.find(Company.class, companyId);
+            User user = entityManager.find(User.class, userId);
+
+            assertEquals("CriolloCorp.", company.getName());
+            assertEquals(Set.of(RoleName.ROLE_CLIENT), user.getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+        });
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Hit ratio and lookups are published per region")
+    void bindTo_publishesHitRatioPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheRegionMetrics.bindTo(registry);
+
+        inTransaction(entityManager -> entityManager.find(User.class, userId));
+        inTransaction(entityManager -> entityManager.find(User.class, userId));
+        inTransaction(entityManager -> entityManager.find(User.class, userId));
+
+        double hits = registry.get("hibernate.cache.region.gets").tags("region", CacheRegions.USERS, "result", "hit").functionCounter().count();
+        double misses = registry.get("hibernate.cache.region.gets").tags("region", CacheRegions.USERS, "result", "miss").functionCounter().count();
+        double ratio = registry.get("hibernate.cache.region.hit.ratio").tag("region", CacheRegions.USERS).gauge().value();
+
+        assertTrue(hits >= 2, "hits " + hits);
+        assertTrue(misses >= 1, "misses " + misses);
+        assertEquals(hits / (hits + misses), ratio, 0.01);
+        assertNotNull(registry.find("hibernate.cache.region.hit.ratio").tag("region", CacheRegions.ROLE_BY_NAME).gauge());
+        assertNotNull(registry.find("hibernate.cache.region.hit.ratio").tag("region", CacheRegions.COMPANIES).gauge());
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                entityManager.joinTransaction();
+                work.accept(entityManager);
+                entityManager.flush();
+            } finally {
+                entityManager.close();
+            }
+        });
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
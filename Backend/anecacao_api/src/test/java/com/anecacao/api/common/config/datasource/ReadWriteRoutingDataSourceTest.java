@@ -0,0 +1,139 @@
+package com.anecacao.api.common.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos bases H2 en memoria hacen de primario y réplica; la "replicación" del latido se copia a mano
+class ReadWriteRoutingDataSourceTest {
+    private DriverManagerDataSource primary;
+    private FlakyDataSource replica;
+    private ReplicaLagMonitor monitor;
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        replica = new FlakyDataSource(new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"));
+        meterRegistry = new SimpleMeterRegistry();
+
+        for (DriverManagerDataSource dataSource : new DriverManagerDataSource[]{primary, (DriverManagerDataSource) replica.getTargetDataSource()}) {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+            template.execute("CREATE TABLE IF NOT EXISTS " + ReplicaLagMonitor.HEARTBEAT_TABLE +
+                    " (id INT NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        }
+        new JdbcTemplate(primary).update("INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(replica).update("INSERT INTO node VALUES ('replica')");
+
+        monitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(5), Clock.systemUTC());
+        monitor.bindTo(meterRegistry);
+
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, monitor, meterRegistry));
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica.getTargetDataSource()).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Read-only transactions go to an up-to-date replica, everything else to the primary")
+    void routesByTransactionReadOnlyFlag() {
+        replicateHeartbeat(0);
+
+        assertEquals("replica", nodeName(true));
+        assertEquals("primary", nodeName(false));
+        assertEquals(1.0, meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter().count());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.usable").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A replica lagging beyond the limit is skipped until it catches up")
+    void laggingReplica_fallsBackToPrimary() {
+        replicateHeartbeat(30_000);
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", nodeName(true));
+        assertTrue(meterRegistry.get("datasource.replica.lag").gauge().value() >= 30);
+
+        replicateHeartbeat(0);
+        assertEquals("replica", nodeName(true));
+    }
+
+    @Test
+    @DisplayName("Without a heartbeat on the replica reads stay on the primary")
+    void missingHeartbeat_staysOnPrimary() {
+        monitor.heartbeat();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertTrue(Double.isNaN(meterRegistry.get("datasource.replica.lag").gauge().value()));
+        assertEquals("primary", nodeName(true));
+    }
+
+    @Test
+    @DisplayName("A replica that refuses connections is dropped and the read is served by the primary")
+    void unreachableReplica_fallsBackToPrimary() {
+        replicateHeartbeat(0);
+        replica.down = true;
+
+        assertEquals("primary", nodeName(true));
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.fallbacks").counter().count());
+    }
+
+    private String nodeName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    // Copia el latido del primario a la réplica como si hubiera llegado con el retraso indicado
+    private void replicateHeartbeat(long lagMillis) {
+        monitor.heartbeat();
+        Long beat = new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_millis FROM " + ReplicaLagMonitor.HEARTBEAT_TABLE + " WHERE id = 1", Long.class);
+
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        replicaTemplate.update("DELETE FROM " + ReplicaLagMonitor.HEARTBEAT_TABLE);
+        replicaTemplate.update("INSERT INTO " + ReplicaLagMonitor.HEARTBEAT_TABLE + " VALUES (1, ?)", beat - lagMillis);
+        monitor.heartbeat();
+    }
+
+    private static class FlakyDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        FlakyDataSource(DriverManagerDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.anecacao.api.dashboard.domain.service.impl;
+
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
+import com.anecacao.api.dashboard.data.dto.StatusChange;
+import com.anecacao.api.dashboard.data.dto.response.StatusCountsDTO;
+import com.anecacao.api.dashboard.data.entity.FumigationStatusCount;
+import com.anecacao.api.dashboard.data.entity.FumigationStatusTotal;
+import com.anecacao.api.request.creation.data.entity.Company;
+import com.anecacao.api.request.creation.data.entity.Fumigation;
+import com.anecacao.api.request.creation.data.entity.FumigationApplication;
+import com.anecacao.api.request.creation.data.entity.Status;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({StatusCountServiceImpl.class, AuthenticatedUserContext.class})
+class StatusCountServiceImplTest {
+    @Autowired
+    private StatusCountServiceImpl subject;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User representative;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        representative = new User();
+        representative.setEmail("client@anecacao.com");
+        representative.setFirstName("Ana");
+        representative.setLastName("Pérez");
+        entityManager.persist(representative);
+
+        company = new Company();
+        company.setName("CriolloCorp.");
+        company.setBusinessName("CriolloS.A");
+        company.setPhoneNumber("0980783625");
+        company.setRuc("1105327702");
+        company.setAddress("VLC Puerto Seymour");
+        company.setLegalRepresentative(representative);
+        entityManager.persist(company);
+
+        entityManager.flush();
+        authenticateAs(representative.getId(), RoleName.ROLE_CLIENT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Changes create the missing rows and move one unit between statuses; the global total sums every company")
+    void recordChanges_appliesDeltas() {
+        Long companyId = company.getId();
+        subject.recordChanges(List.of(
+                new StatusChange(companyId, null, Status.PENDING),
+                new StatusChange(companyId, null, Status.PENDING),
+                new StatusChange(companyId, null, Status.PENDING)));
+        subject.recordChanges(List.of(
+                new StatusChange(companyId, Status.PENDING, Status.APPROVED),
+                new StatusChange(companyId, Status.PENDING, Status.APPROVED)));
+        subject.recordChanges(List.of(new StatusChange(companyId + 1, null, Status.APPROVED)));
+        entityManager.clear();
+
+        assertEquals(1L, total(companyId, Status.PENDING));
+        assertEquals(2L, total(companyId, Status.APPROVED));
+
+        authenticateAs(representative.getId(), RoleName.ROLE_ADMIN);
+        StatusCountsDTO global = subject.getStatusCounts(null);
+        assertEquals(1L, global.getCounts().get(Status.PENDING));
+        assertEquals(3L, global.getCounts().get(Status.APPROVED));
+        assertEquals(0L, global.getCounts().get(Status.FINISHED));
+    }
+
+    @Test
+    @DisplayName("A single change resolves the company from the fumigation without loading it")
+    void recordChange_resolvesCompanyInSql() {
+        FumigationApplication application = new FumigationApplication();
+        application.setCompany(company);
+        application.setCreatedAt(LocalDate.of(2024, 6, 1));
+        application.setFumigations(new ArrayList<>());
+        entityManager.persist(application);
+        Fumigation fumigation = persistFumigation(application, Status.PENDING);
+        entityManager.persist(new FumigationStatusCount(company.getId(), Status.PENDING, 1));
+        entityManager.flush();
+
+        subject.recordChange(fumigation.getId(), Status.PENDING, Status.APPROVED);
+        subject.recordChange(fumigation.getId(), Status.APPROVED, Status.APPROVED);
+        entityManager.clear();
+
+        assertEquals(0L, total(company.getId(), Status.PENDING));
+        assertEquals(1L, total(company.getId(), Status.APPROVED));
+    }
+
+    @Test
+    @DisplayName("Counts are read straight from the counter rows")
+    void getStatusCounts_readsCounterRows() {
+        subject.recordChanges(List.of(
+                new StatusChange(company.getId(), null, Status.PENDING),
+                new StatusChange(company.getId(), null, Status.PENDING)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        StatusCountsDTO counts = subject.getStatusCounts(company.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "expected ownership check + counter query only");
+        assertEquals(company.getId(), counts.getCompanyId());
+        assertEquals(2L, counts.getCounts().get(Status.PENDING));
+        assertEquals(0L, counts.getCounts().get(Status.FINISHED));
+    }
+
+    @Test
+    @DisplayName("The global total is kept in a fixed number of rows, whatever the number of companies")
+    void getStatusCounts_globalReadDoesNotGrowWithCompanies() {
+        for (long companyId = 1; companyId <= 50; companyId++) {
+            subject.recordChanges(List.of(new StatusChange(companyId, null, Status.PENDING)));
+        }
+        entityManager.clear();
+
+        long totalRows = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(t) FROM FumigationStatusTotal t", Long.class)
+                .getSingleResult();
+        assertTrue(totalRows <= FumigationStatusTotal.SHARDS);
+
+        authenticateAs(representative.getId(), RoleName.ROLE_ADMIN);
+        assertEquals(50L, subject.getStatusCounts(null).getCounts().get(Status.PENDING));
+    }
+
+    @Test
+    @DisplayName("Clients can only read the counters of their own company")
+    void getStatusCounts_rejectsOtherCompanies() {
+        assertThrows(UnauthorizedAccessException.class, () -> subject.getStatusCounts(company.getId() + 1));
+        assertThrows(UnauthorizedAccessException.class, () -> subject.getStatusCounts(null));
+
+        authenticateAs(representative.getId() + 1, RoleName.ROLE_ADMIN);
+        assertNull(subject.getStatusCounts(null).getCompanyId());
+    }
+
+    @Test
+    @DisplayName("Reconciliation rebuilds drifted counters from the fumigations")
+    void reconcile_repairsDrift() {
+        FumigationApplication application = new FumigationApplication();
+        application.setCompany(company);
+        application.setCreatedAt(LocalDate.of(2024, 6, 1));
+        application.setFumigations(new ArrayList<>());
+        entityManager.persist(application);
+        persistFumigation(application, Status.APPROVED);
+        persistFumigation(application, Status.APPROVED);
+        persistFumigation(application, Status.FINISHED);
+
+        entityManager.persist(new FumigationStatusCount(company.getId(), Status.APPROVED, 5));
+        entityManager.persist(new FumigationStatusCount(company.getId(), Status.REJECTED, 1));
+        entityManager.flush();
+
+        // Tres filas de la compañía y dos estados del total global
+        assertEquals(5, subject.reconcile());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2L, total(company.getId(), Status.APPROVED));
+        assertEquals(1L, total(company.getId(), Status.FINISHED));
+        assertEquals(0L, total(company.getId(), Status.REJECTED));
+        assertEquals(0, subject.reconcile());
+
+        authenticateAs(representative.getId(), RoleName.ROLE_ADMIN);
+        StatusCountsDTO global = subject.getStatusCounts(null);
+        assertEquals(2L, global.getCounts().get(Status.APPROVED));
+        assertEquals(1L, global.getCounts().get(Status.FINISHED));
+        assertEquals(0L, global.getCounts().get(Status.REJECTED));
+    }
+
+    private Fumigation persistFumigation(FumigationApplication application, Status status) {
+        Fumigation fumigation = new Fumigation();
+        fumigation.setLotNumber("LOT-" + status);
+        fumigation.setTon(new BigDecimal("10.5"));
+        fumigation.setPortDestination("Guayaquil");
+        fumigation.setSacks(100L);
+        fumigation.setQuality("GRADE_1");
+        fumigation.setDateTime(LocalDateTime.of(2024, 6, 1, 8, 0));
+        fumigation.setStatus(status);
+        fumigation.setFumigationApplication(application);
+        entityManager.persist(fumigation);
+        return fumigation;
+    }
+
+    private long total(Long companyId, Status status) {
+        FumigationStatusCount count = entityManager.find(FumigationStatusCount.class,
+                new FumigationStatusCount.Key(companyId, status));
+        return count != null ? count.getTotal() : 0L;
+    }
+
+    private void authenticateAs(Long userId, RoleName role) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user@anecacao.com", List.of(role), 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,195 @@
+package com.anecacao.api.reporting.data.mapper;
+
+import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.reporting.data.dto.response.FumigationReportResponseDTO;
+import com.anecacao.api.reporting.data.entity.EnvironmentalConditions;
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import com.anecacao.api.reporting.data.entity.IndustrialSafetyConditions;
+import com.anecacao.api.reporting.data.entity.Supply;
+import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.request.creation.data.entity.Company;
+import com.anecacao.api.request.creation.data.entity.Dimensions;
+import com.anecacao.api.request.creation.data.entity.Fumigation;
+import com.anecacao.api.request.creation.data.entity.FumigationApplication;
+import com.anecacao.api.request.creation.data.entity.Status;
+import com.anecacao.api.signature.data.entity.Signature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({ReportPageAssembler.class, FumigationReportMapper.class, CleanupReportMapper.class})
+class ReportPageAssemblerTest {
+    private static final int REPORTS = 40;
+
+    @Autowired
+    private ReportPageAssembler subject;
+
+    @Autowired
+    private FumigationReportRepository fumigationReportRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        User luis = persistTechnician("luis@anecacao.com", "Luis");
+        User ana = persistTechnician("ana@anecacao.com", "Ana");
+
+        Company company = new Company();
+        company.setName("CriolloCorp.");
+        company.setBusinessName("CriolloS.A");
+        company.setPhoneNumber("0980783625");
+        company.setRuc("1105327702");
+        company.setAddress("VLC Puerto Seymour");
+        company.setLegalRepresentative(luis);
+        entityManager.persist(company);
+
+        FumigationApplication application = new FumigationApplication();
+        application.setCompany(company);
+        application.setCreatedAt(LocalDate.of(2024, 6, 1));
+        application.setFumigations(new ArrayList<>());
+        entityManager.persist(application);
+
+        for (int i = 0; i < REPORTS; i++) {
+            Fumigation fumigation = new Fumigation();
+            fumigation.setLotNumber("LOT-" + i);
+            fumigation.setTon(BigDecimal.TEN);
+            fumigation.setPortDestination("Guayaquil");
+            fumigation.setSacks(100L);
+            fumigation.setQuality("GRADE_1");
+            fumigation.setDateTime(LocalDateTime.of(2024, 6, 1, 8, 0));
+            fumigation.setStatus(Status.FUMIGATED);
+            fumigation.setFumigationApplication(application);
+            entityManager.persist(fumigation);
+
+            FumigationReport report = new FumigationReport();
+            report.setLocation("Bodega " + i);
+            report.setDate(LocalDate.of(2024, 6, 2));
+            report.setStartTime(LocalTime.of(8, 0));
+            report.setEndTime(LocalTime.of(10, 0));
+            report.setSupervisor("Supervisor");
+            report.setEnvironmentalConditions(new EnvironmentalConditions());
+            report.setIndustrialSafetyConditions(new IndustrialSafetyConditions());
+            report.setDimensions(new Dimensions());
+            report.setTechnicians(Set.of(luis, ana));
+            report.setFumigation(fumigation);
+            report.getSupplies().add(supply(report, "Fosfina"));
+            report.getSupplies().add(supply(report, "Cinta"));
+            entityManager.persist(report);
+
+            Signature signature = new Signature();
+            signature.setFumigationReport(report);
+            signature.setSignatureType("technician");
+            signature.setFilePath("signatures/" + i + ".png");
+            entityManager.persist(signature);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Assembling a report page costs the same number of queries for 5 or 40 reports")
+    void toFumigationReportPage_constantQueries() {
+        long smallPageQueries = countQueriesForPage(5);
+        long fullPageQueries = countQueriesForPage(REPORTS);
+
+        assertEquals(smallPageQueries, fullPageQueries);
+        // COUNT + página + técnicos + insumos + firmas
+        assertTrue(fullPageQueries <= 5, "expected one query per association, got " + fullPageQueries);
+    }
+
+    @Test
+    @DisplayName("Preloaded associations are stitched back to their own report")
+    void toFumigationReportPage_groupsByReport() {
+        Page<FumigationReportResponseDTO> page = subject.toFumigationReportPage(
+                fumigationReportRepository.findAll(PageRequest.of(0, 3, Sort.by("id"))));
+
+        assertEquals(REPORTS, page.getTotalElements());
+        for (FumigationReportResponseDTO dto : page.getContent()) {
+            assertEquals(List.of("Luis", "Ana"), dto.getTechnicians().stream().map(t -> t.getFirstName()).toList());
+            assertEquals(List.of("Fosfina", "Cinta"), dto.getSupplies().stream().map(s -> s.getName()).toList());
+            assertEquals(1, dto.getSignatures().size());
+            assertEquals(dto.getId(), dto.getSignatures().get(0).getReportId());
+            assertEquals("Bodega " + dto.getFumigationInfo().getLotNumber().substring(4), dto.getLocation());
+        }
+    }
+
+    @Test
+    @DisplayName("Single report lookups go through the same batched path")
+    void toFumigationReportDTO_singleReport() {
+        Long id = fumigationReportRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        FumigationReportResponseDTO dto = subject.toFumigationReportDTO(fumigationReportRepository.findById(id).orElseThrow());
+
+        assertEquals(2, dto.getTechnicians().size());
+        assertEquals(2, dto.getSupplies().size());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    private long countQueriesForPage(int size) {
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        Page<FumigationReportResponseDTO> page = subject.toFumigationReportPage(
+                fumigationReportRepository.findAll(PageRequest.of(0, size, Sort.by("id"))));
+        assertEquals(size, page.getNumberOfElements());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private User persistTechnician(String email, String firstName) {
+        User technician = new User();
+        technician.setEmail(email);
+        technician.setFirstName(firstName);
+        technician.setLastName("Mora");
+        return entityManager.persist(technician);
+    }
+
+    private static Supply supply(FumigationReport report, String name) {
+        Supply supply = new Supply();
+        supply.setName(name);
+        supply.setQuantity(BigDecimal.ONE);
+        supply.setDosage("2 g/m3");
+        supply.setKindOfSupply("Gas");
+        supply.setNumberOfStrips("1");
+        supply.setFumigationReport(report);
+        return supply;
+    }
+}
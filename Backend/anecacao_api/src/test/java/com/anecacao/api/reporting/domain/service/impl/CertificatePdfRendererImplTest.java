@@ -0,0 +1,131 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.CertificateDocument;
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+import com.anecacao.api.reporting.domain.exception.CertificateRenderBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CertificatePdfRendererImplTest {
+    private MeterRegistry meterRegistry;
+    private CertificatePdfRendererImpl subject;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new CertificatePdfRendererImpl(meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subject.shutdown();
+    }
+
+    @Test
+    @DisplayName("Renders the certificate fields and embeds both signatures")
+    void render_writesCertificateWithSignatures() throws Exception {
+        byte[] output = subject.render(new CertificateDocument(certificate(), png(), png())).get(10, TimeUnit.SECONDS);
+
+        try (PDDocument pdf = Loader.loadPDF(output)) {
+            assertEquals(1, pdf.getNumberOfPages());
+            String text = new PDFTextStripper().getText(pdf);
+            assertTrue(text.contains("CERTIFICADO DE FUMIGACIÓN"));
+            assertTrue(text.contains("Cacao Criollo S.A."));
+            assertTrue(text.contains("01/06/2024"));
+            assertTrue(text.contains("LOT-7"));
+            assertTrue(text.contains("0.35"));
+            assertTrue(text.contains("Firma del técnico"));
+            assertEquals(2, images(pdf));
+        }
+    }
+
+    @Test
+    @DisplayName("Leaves a blank signature box for missing or unreadable images and replaces unsupported characters")
+    void render_toleratesBadSignaturesAndCharacters() throws Exception {
+        CertificateDTO certificate = certificate();
+        certificate.setPortDestination("東京");
+
+        byte[] output = subject.render(new CertificateDocument(certificate, new byte[]{1, 2, 3}, null)).get(10, TimeUnit.SECONDS);
+
+        try (PDDocument pdf = Loader.loadPDF(output)) {
+            assertTrue(new PDFTextStripper().getText(pdf).contains("??"));
+            assertEquals(0, images(pdf));
+        }
+        assertEquals(1.0, meterRegistry.get("reports.certificates.pdf.signature.errors").counter().count());
+    }
+
+    @Test
+    @DisplayName("Refuses new renders while the pool and its queue are full")
+    void render_rejectsWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CertificateDTO blocking = new CertificateDTO() {
+            @Override
+            public String getCompanyName() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "Cacao Criollo S.A.";
+            }
+        };
+        CertificateDocument document = new CertificateDocument(certificate(), null, null);
+
+        CompletableFuture<byte[]> running = subject.render(new CertificateDocument(blocking, null, null));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<byte[]> queued = subject.render(document);
+
+        assertThrows(CertificateRenderBusyException.class, () -> subject.render(document));
+        assertEquals(1.0, meterRegistry.get("reports.certificates.pdf.rejected").counter().count());
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(10, TimeUnit.SECONDS);
+    }
+
+    private static CertificateDTO certificate() {
+        return CertificateDTO.builder()
+                .companyName("Cacao Criollo S.A.")
+                .fumigationDate(LocalDate.of(2024, 6, 1))
+                .quality("GRADE_1")
+                .lotNumber("LOT-7")
+                .portDestination("Hamburgo")
+                .phosphineMeasurement(new BigDecimal("0.35"))
+                .build();
+    }
+
+    private static byte[] png() throws IOException {
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "png", image);
+        return image.toByteArray();
+    }
+
+    private static int images(PDDocument pdf) throws IOException {
+        List<COSName> names = new ArrayList<>();
+        pdf.getPage(0).getResources().getXObjectNames().forEach(names::add);
+        return names.size();
+    }
+}
@@ -0,0 +1,120 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.CertificateContent;
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CertificateStoreImplTest {
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private MeterRegistry meterRegistry;
+    private CertificateStoreImpl subject;
+    private AtomicInteger builds;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new CertificateStoreImpl(objectMapper, meterRegistry, directory, DataSize.ofKilobytes(64));
+        builds = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Builds each certificate version once and serves it from memory afterwards")
+    void getOrCompute_buildsOnce() throws IOException {
+        CertificateContent first = subject.getOrCompute(7L, "3.1.1", certificate("LOT-7"));
+        CertificateContent second = subject.getOrCompute(7L, "3.1.1", certificate("LOT-7"));
+
+        assertEquals(1, builds.get());
+        assertSame(first, second);
+        assertEquals("LOT-7", objectMapper.readValue(first.content(), CertificateDTO.class).getLotNumber());
+        assertTrue(first.eTag().startsWith("\"") && first.eTag().endsWith("\""));
+        assertEquals(1.0, lookups("memory"));
+        assertEquals(1.0, lookups("computed"));
+    }
+
+    @Test
+    @DisplayName("Serves the disk copy with the same ETag after a restart")
+    void getOrCompute_survivesRestart() {
+        CertificateContent original = subject.getOrCompute(7L, "3.1.1", certificate("LOT-7"));
+
+        CertificateStoreImpl restarted = new CertificateStoreImpl(objectMapper, meterRegistry, directory, DataSize.ofKilobytes(64));
+        CertificateContent reloaded = restarted.getOrCompute(7L, "3.1.1", certificate("LOT-7"));
+
+        assertEquals(1, builds.get());
+        assertEquals(original.eTag(), reloaded.eTag());
+        assertArrayEquals(original.content(), reloaded.content());
+        assertEquals(1.0, lookups("disk"));
+    }
+
+    @Test
+    @DisplayName("A new content version is rebuilt, gets a new ETag and replaces the old file")
+    void getOrCompute_newVersionReplacesOld() throws IOException {
+        CertificateContent original = subject.getOrCompute(7L, "3.1.1", certificate("LOT-7"));
+        subject.getOrCompute(77L, "1.1.1", certificate("LOT-77"));
+        CertificateContent edited = subject.getOrCompute(7L, "4.2.1", certificate("LOT-7B"));
+
+        assertEquals(3, builds.get());
+        assertNotEquals(original.eTag(), edited.eTag());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(Set.of("7-4.2.1.json", "77-1.1.1.json"),
+                    files.map(file -> file.getFileName().toString()).collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    @DisplayName("Keeps the memory tier under its byte budget")
+    void getOrCompute_boundsMemory() {
+        meterRegistry = new SimpleMeterRegistry();
+        CertificateStoreImpl small = new CertificateStoreImpl(objectMapper, meterRegistry, directory, DataSize.ofBytes(600));
+        for (long id = 1; id <= 5; id++) {
+            small.getOrCompute(id, "1.1.1", certificate("LOT-" + id));
+        }
+
+        double memoryBytes = meterRegistry.get("reports.certificates.memory.bytes").gauge().value();
+        assertTrue(memoryBytes > 0 && memoryBytes <= 600, "memory tier holds " + memoryBytes + " bytes");
+        small.getOrCompute(5L, "1.1.1", certificate("LOT-5"));
+        small.getOrCompute(1L, "1.1.1", certificate("LOT-1"));
+
+        assertEquals(5, builds.get());
+        assertEquals(1.0, lookups("memory"));
+        assertEquals(1.0, lookups("disk"));
+    }
+
+    private Supplier<CertificateDTO> certificate(String lotNumber) {
+        return () -> {
+            builds.incrementAndGet();
+            return CertificateDTO.builder()
+                    .companyName("CriolloS.A")
+                    .lotNumber(lotNumber)
+                    .fumigationDate(LocalDate.of(2024, 6, 1))
+                    .quality("GRADE_1")
+                    .build();
+        };
+    }
+
+    private double lookups(String tier) {
+        return meterRegistry.get("reports.certificates.lookups").tag("tier", tier).counter().count();
+    }
+}
@@ -0,0 +1,174 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.reporting.data.dto.ExportFormat;
+import com.anecacao.api.reporting.data.entity.EnvironmentalConditions;
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import com.anecacao.api.reporting.data.entity.IndustrialSafetyConditions;
+import com.anecacao.api.reporting.data.mapper.CleanupReportMapper;
+import com.anecacao.api.reporting.data.mapper.FumigationReportMapper;
+import com.anecacao.api.reporting.data.mapper.ReportPageAssembler;
+import com.anecacao.api.request.creation.data.entity.Company;
+import com.anecacao.api.request.creation.data.entity.Dimensions;
+import com.anecacao.api.request.creation.data.entity.Fumigation;
+import com.anecacao.api.request.creation.data.entity.FumigationApplication;
+import com.anecacao.api.request.creation.data.entity.Status;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({ReportExportServiceImpl.class, ReportPageAssembler.class, FumigationReportMapper.class, CleanupReportMapper.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ReportExportServiceImplTest {
+    private static final int REPORTS = 450;
+
+    @Autowired
+    private ReportExportServiceImpl subject;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        User technician = new User();
+        technician.setEmail("tech@anecacao.com");
+        technician.setFirstName("Luis");
+        technician.setLastName("Mora");
+        entityManager.persist(technician);
+
+        Company company = new Company();
+        company.setName("CriolloCorp.");
+        company.setBusinessName("CriolloS.A");
+        company.setPhoneNumber("0980783625");
+        company.setRuc("1105327702");
+        company.setAddress("VLC Puerto Seymour");
+        company.setLegalRepresentative(technician);
+        entityManager.persist(company);
+
+        FumigationApplication application = new FumigationApplication();
+        application.setCompany(company);
+        application.setCreatedAt(LocalDate.of(2024, 6, 1));
+        application.setFumigations(new ArrayList<>());
+        entityManager.persist(application);
+
+        for (int i = 0; i < REPORTS; i++) {
+            Fumigation fumigation = new Fumigation();
+            fumigation.setLotNumber("LOT-" + i);
+            fumigation.setTon(BigDecimal.TEN);
+            fumigation.setPortDestination("Guayaquil");
+            fumigation.setSacks(100L);
+            fumigation.setQuality("GRADE_1");
+            fumigation.setDateTime(LocalDateTime.of(2024, 6, 1, 8, 0));
+            fumigation.setStatus(Status.FUMIGATED);
+            fumigation.setFumigationApplication(application);
+            entityManager.persist(fumigation);
+
+            FumigationReport report = new FumigationReport();
+            report.setLocation(i == 0 ? "Bodega \"Norte\", Durán" : "Bodega " + i);
+            report.setDate(LocalDate.of(2024, 6, 2));
+            report.setStartTime(LocalTime.of(8, 0));
+            report.setEndTime(LocalTime.of(10, 0));
+            report.setSupervisor("=cmd");
+            report.setEnvironmentalConditions(new EnvironmentalConditions());
+            report.setIndustrialSafetyConditions(new IndustrialSafetyConditions());
+            report.setDimensions(new Dimensions());
+            report.setTechnicians(Set.of(technician));
+            report.setFumigation(fumigation);
+            entityManager.persist(report);
+
+            Signature signature = new Signature();
+            signature.setFumigationReport(report);
+            signature.setSignatureType("technician");
+            signature.setFilePath("signatures/" + i + ".png");
+            entityManager.persist(signature);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one line per report with a chunk-bounded number of queries")
+    void exportFumigationReports_ndjson() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        subject.exportFumigationReports(ExportFormat.NDJSON, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(REPORTS, lines.size());
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("LOT-0", first.path("fumigationInfo").path("lotNumber").asText());
+        assertEquals("technician", first.path("signatures").get(0).path("signatureType").asText());
+        assertEquals("Luis", first.path("technicians").get(0).path("firstName").asText());
+
+        // Una consulta por asociación y bloque, nunca una por informe
+        assertTrue(statistics.getPrepareStatementCount() < REPORTS / 10,
+                "expected chunked queries, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("JSON export stays a valid array and CSV escapes free text")
+    void exportFumigationReports_jsonAndCsv() throws Exception {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        subject.exportFumigationReports(ExportFormat.JSON, json);
+        assertEquals(REPORTS, objectMapper.readTree(json.toByteArray()).size());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        subject.exportFumigationReports(ExportFormat.CSV, csv);
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(REPORTS + 1, lines.size());
+        assertTrue(lines.get(0).startsWith("id,fumigationId,lotNumber,status,date"));
+        assertTrue(lines.get(1).contains("\"Bodega \"\"Norte\"\", Durán\""));
+        assertTrue(lines.get(1).contains(",'=cmd,"));
+    }
+
+    @Test
+    @DisplayName("Accept header selects the export format and keeps JSON as default")
+    void exportFormat_fromAcceptHeader() throws Exception {
+        assertEquals(ExportFormat.JSON, ExportFormat.fromAcceptHeader(null));
+        assertEquals(ExportFormat.JSON, ExportFormat.fromAcceptHeader("*/*"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromAcceptHeader("application/x-ndjson"));
+        assertEquals(ExportFormat.CSV, ExportFormat.fromAcceptHeader("application/json;q=0.5, text/csv"));
+        assertThrows(HttpMediaTypeNotAcceptableException.class, () -> ExportFormat.fromAcceptHeader("application/pdf"));
+    }
+}
@@ -0,0 +1,195 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.reporting.data.dto.CleanupReportDTO;
+import com.anecacao.api.reporting.data.dto.FumigationReportDTO;
+import com.anecacao.api.reporting.data.dto.response.ReportJobResponseDTO;
+import com.anecacao.api.reporting.data.entity.ReportJob;
+import com.anecacao.api.reporting.data.entity.ReportJobStatus;
+import com.anecacao.api.reporting.data.repository.ReportJobRepository;
+import com.anecacao.api.reporting.domain.exception.IdempotencyKeyReusedException;
+import com.anecacao.api.reporting.domain.exception.InvalidFumigationStatusException;
+import com.anecacao.api.reporting.domain.exception.ReportJobNotFoundException;
+import com.anecacao.api.reporting.domain.service.ReportsService;
+import com.anecacao.api.request.creation.data.entity.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Cada paso de la cola usa su propia transacción: el test no puede envolver todo en una sola
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportJobServiceImplTest {
+    private static final AuthenticatedUser TECHNICIAN = new AuthenticatedUser(3L, "tec@anecacao.com", List.of(RoleName.ROLE_TECHNICIAN), 0);
+    private static final AuthenticatedUser OTHER_TECHNICIAN = new AuthenticatedUser(4L, "otro@anecacao.com", List.of(RoleName.ROLE_TECHNICIAN), 0);
+
+    @Autowired
+    private ReportJobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReportsService reportsService = mock(ReportsService.class);
+    private final AuthenticatedUserContext userContext = mock(AuthenticatedUserContext.class);
+    private SimpleMeterRegistry meterRegistry;
+    private ReportJobServiceImpl subject;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new ReportJobServiceImpl(jobRepository, reportsService, new ObjectMapper().registerModule(new JavaTimeModule()),
+                userContext, transactionManager, meterRegistry, 2, 2, Duration.ofMinutes(5), 3);
+        actAs(TECHNICIAN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subject.shutdown();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Retrying with the same Idempotency-Key returns the original job instead of queueing another")
+    void submit_isIdempotentPerUser() {
+        ReportJobResponseDTO first = subject.submitFumigationReport(fumigationReport(7L), "shift-42");
+        ReportJobResponseDTO retry = subject.submitFumigationReport(fumigationReport(7L), "shift-42");
+
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(ReportJobStatus.PENDING, retry.getStatus());
+        assertThrows(IdempotencyKeyReusedException.class, () -> subject.submitFumigationReport(fumigationReport(8L), "shift-42"));
+        assertThrows(IdempotencyKeyReusedException.class, () -> subject.submitCleanupReport(cleanupReport(7L), "shift-42"));
+
+        actAs(OTHER_TECHNICIAN);
+        assertNotEquals(first.getId(), subject.submitFumigationReport(fumigationReport(7L), "shift-42").getId());
+        assertEquals(2, jobRepository.count());
+    }
+
+    @Test
+    @DisplayName("Workers drain the queue in batches and apply each report exactly once")
+    void processBatch_appliesEachJobOnce() {
+        when(reportsService.createFumigationReport(any())).thenReturn(new MessageDTO("Fumigation report created successfully"));
+        List<Long> ids = List.of(
+                subject.submitFumigationReport(fumigationReport(1L), null).getId(),
+                subject.submitFumigationReport(fumigationReport(2L), null).getId(),
+                subject.submitFumigationReport(fumigationReport(3L), null).getId());
+
+        assertTrue(subject.processBatch());
+        assertFalse(subject.processBatch());
+        assertFalse(subject.processBatch());
+
+        verify(reportsService, times(3)).createFumigationReport(any());
+        verify(reportsService).createFumigationReport(argThat(report -> report.getId() == 2L
+                && LocalDate.of(2025, 5, 20).equals(report.getDate())));
+        for (Long id : ids) {
+            ReportJobResponseDTO job = subject.getJob(id);
+            assertEquals(ReportJobStatus.SUCCEEDED, job.getStatus());
+            assertEquals("Fumigation report created successfully", job.getMessage());
+            assertNotNull(job.getCompletedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Business errors fail the job; transient database errors send it back to the queue")
+    void processBatch_recordsFailures() {
+        when(reportsService.createCleanupReport(any())).thenThrow(new InvalidFumigationStatusException(5L, Status.FUMIGATED));
+        when(reportsService.createFumigationReport(any())).thenThrow(new CannotAcquireLockException("deadlock"));
+        Long rejected = subject.submitCleanupReport(cleanupReport(5L), null).getId();
+        Long retried = subject.submitFumigationReport(fumigationReport(6L), null).getId();
+
+        subject.processBatch();
+
+        ReportJobResponseDTO failed = subject.getJob(rejected);
+        assertEquals(ReportJobStatus.FAILED, failed.getStatus());
+        assertEquals(new InvalidFumigationStatusException(5L, Status.FUMIGATED).getMessage(), failed.getMessage());
+        ReportJob pending = jobRepository.findById(retried).orElseThrow();
+        assertEquals(ReportJobStatus.PENDING, pending.getStatus());
+        assertEquals(1, pending.getAttempts());
+        assertTrue(pending.getAvailableAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("Industrial safety violations are reported as failed jobs, like the synchronous endpoint")
+    void processBatch_reportsSafetyViolations() {
+        when(reportsService.createFumigationReport(any())).thenReturn(null);
+        Long id = subject.submitFumigationReport(fumigationReport(9L), null).getId();
+
+        subject.processBatch();
+
+        ReportJobResponseDTO job = subject.getJob(id);
+        assertEquals(ReportJobStatus.FAILED, job.getStatus());
+        assertTrue(job.getMessage().contains("Industrial safety violation"));
+    }
+
+    @Test
+    @DisplayName("Jobs whose worker kept dying are reclaimed after the lease and given up after the last attempt")
+    void processBatch_reclaimsExpiredLeases() {
+        Long id = subject.submitFumigationReport(fumigationReport(10L), null).getId();
+        ReportJob job = jobRepository.findById(id).orElseThrow();
+        job.setStatus(ReportJobStatus.PROCESSING);
+        job.setAttempts(3);
+        job.setAvailableAt(LocalDateTime.now().minusMinutes(1));
+        jobRepository.save(job);
+
+        subject.processBatch();
+
+        verifyNoInteractions(reportsService);
+        ReportJobResponseDTO abandoned = subject.getJob(id);
+        assertEquals(ReportJobStatus.FAILED, abandoned.getStatus());
+        assertEquals("Processing was interrupted 3 times.", abandoned.getMessage());
+        assertEquals(1.0, meterRegistry.get("reports.jobs.outcomes").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Only the submitter can see a job")
+    void getJob_hidesOtherUsersJobs() {
+        Long id = subject.submitFumigationReport(fumigationReport(11L), null).getId();
+
+        actAs(OTHER_TECHNICIAN);
+
+        assertThrows(ReportJobNotFoundException.class, () -> subject.getJob(id));
+    }
+
+    private void actAs(AuthenticatedUser user) {
+        when(userContext.getCurrentUser()).thenReturn(user);
+        when(userContext.getCurrentUserId()).thenReturn(user.getId());
+    }
+
+    private static FumigationReportDTO fumigationReport(Long fumigationId) {
+        FumigationReportDTO report = new FumigationReportDTO();
+        report.setId(fumigationId);
+        report.setLocation("Bodega 2");
+        report.setDate(LocalDate.of(2025, 5, 20));
+        return report;
+    }
+
+    private static CleanupReportDTO cleanupReport(Long fumigationId) {
+        CleanupReportDTO report = new CleanupReportDTO();
+        report.setId(fumigationId);
+        return report;
+    }
+}
@@ -0,0 +1,129 @@
+package com.anecacao.api.reporting.domain.service.impl;
+
+import com.anecacao.api.reporting.data.dto.ReportType;
+import com.anecacao.api.reporting.data.dto.projection.ReportSearchView;
+import com.anecacao.api.reporting.data.dto.response.ReportSearchResultDTO;
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
+import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.request.creation.data.entity.Fumigation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportSearchIndexImplTest {
+    @Mock
+    private FumigationReportRepository fumigationReportRepository;
+
+    @Mock
+    private CleanupReportRepository cleanupReportRepository;
+
+    private MeterRegistry meterRegistry;
+    private ReportSearchIndexImpl subject;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new ReportSearchIndexImpl(fumigationReportRepository, cleanupReportRepository, meterRegistry, 0.3);
+
+        when(fumigationReportRepository.findAllForSearchIndex()).thenReturn(List.of(
+                new ReportSearchView(1L, 10L, "Bodega Guayaquil Norte", "Sacos húmedos en la esquina", LocalDate.of(2024, 6, 1)),
+                new ReportSearchView(2L, 20L, "Puerto Bolívar", "Revisar lona en Guayaquil", LocalDate.of(2024, 6, 2)),
+                new ReportSearchView(3L, 30L, "Machala Centro", null, LocalDate.of(2024, 6, 3))));
+        when(cleanupReportRepository.findAllForSearchIndex()).thenReturn(List.of(
+                new ReportSearchView(1L, 10L, "Bodega Guayaquil Norte", LocalDate.of(2024, 6, 4))));
+        subject.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("Ranks location matches above observation matches and ignores case and accents")
+    void search_ranksLocationAboveObservations() {
+        Page<ReportSearchResultDTO> page = subject.search("GUAYAQUÍL", PageRequest.of(0, 10));
+
+        assertEquals(3, page.getTotalElements());
+        ReportSearchResultDTO first = page.getContent().get(0);
+        assertEquals(ReportType.CLEANUP, first.getType());
+        assertEquals(1.0, first.getScore());
+        assertEquals(ReportType.FUMIGATION, page.getContent().get(1).getType());
+        assertEquals(1L, page.getContent().get(1).getReportId());
+        assertEquals(2L, page.getContent().get(2).getReportId());
+        assertEquals(0.5, page.getContent().get(2).getScore());
+    }
+
+    @Test
+    @DisplayName("Matches partial and slightly misspelled words, and drops unrelated reports")
+    void search_isFuzzy() {
+        assertEquals(List.of(3L), reportIds(subject.search("machal", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), reportIds(subject.search("bolibar", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L), reportIds(subject.search("humedos", PageRequest.of(0, 10))));
+        assertTrue(subject.search("esmeraldas", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(subject.search("  ", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Pages over the ranked results")
+    void search_pagesResults() {
+        Page<ReportSearchResultDTO> page = subject.search("guayaquil", PageRequest.of(1, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(List.of(2L), reportIds(page));
+    }
+
+    @Test
+    @DisplayName("Updated reports replace their previous terms, only after the transaction commits")
+    void index_replacesDocumentAfterCommit() {
+        FumigationReport report = new FumigationReport();
+        report.setId(3L);
+        report.setLocation("Durán");
+        report.setDate(LocalDate.of(2024, 6, 3));
+        Fumigation fumigation = new Fumigation();
+        fumigation.setId(30L);
+        report.setFumigation(fumigation);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            subject.index(report);
+            assertEquals(List.of(3L), reportIds(subject.search("machala", PageRequest.of(0, 10))));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(subject.search("machala", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(3L), reportIds(subject.search("duran", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    @DisplayName("Publishes index size and query latency")
+    void metrics_areRegistered() {
+        subject.search("guayaquil", PageRequest.of(0, 10));
+
+        assertEquals(4.0, meterRegistry.get("reports.search.index.documents").gauge().value());
+        assertTrue(meterRegistry.get("reports.search.index.trigrams").gauge().value() > 0);
+        assertTrue(meterRegistry.get("reports.search.index.postings").gauge().value()
+                >= meterRegistry.get("reports.search.index.trigrams").gauge().value());
+        assertEquals(1, meterRegistry.get("reports.search.query").timer().count());
+    }
+
+    private static List<Long> reportIds(Page<ReportSearchResultDTO> page) {
+        return page.getContent().stream().map(ReportSearchResultDTO::getReportId).toList();
+    }
+}
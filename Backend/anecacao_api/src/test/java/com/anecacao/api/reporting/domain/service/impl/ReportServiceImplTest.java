@@ -1,37 +1,53 @@
 package com.anecacao.api.reporting.domain.service.impl;
 
 import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
 import com.anecacao.api.auth.domain.service.UserService;
 import com.anecacao.api.common.data.dto.MessageDTO;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
+import com.anecacao.api.reporting.data.dto.CertificateContent;
+import com.anecacao.api.reporting.data.dto.CertificateDocument;
 import com.anecacao.api.reporting.data.dto.CleanupReportDTO;
 import com.anecacao.api.reporting.data.dto.FumigationReportDTO;
 import com.anecacao.api.reporting.data.dto.IndustrialSafetyConditionsDTO;
 import com.anecacao.api.reporting.data.dto.SimpleUserDTO;
+import com.anecacao.api.reporting.data.dto.projection.CertificateVersionView;
+import com.anecacao.api.reporting.data.dto.response.CertificateDTO;
 import com.anecacao.api.reporting.data.entity.CleanupReport;
 import com.anecacao.api.reporting.data.entity.FumigationReport;
 import com.anecacao.api.reporting.data.entity.IndustrialSafetyConditions;
 import com.anecacao.api.reporting.data.entity.Supply;
+import com.anecacao.api.reporting.data.mapper.CertificateMapper;
 import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
 import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
 import com.anecacao.api.reporting.data.entity.IndustrialSafetyConditions;
 import com.anecacao.api.reporting.domain.exception.InvalidFumigationStatusException;
+import com.anecacao.api.reporting.domain.service.CertificateStore;
+import com.anecacao.api.reporting.domain.service.ReportSearchIndex;
 import com.anecacao.api.reporting.domain.service.exception.TechnicalRoleException;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
 import com.anecacao.api.request.creation.data.entity.Status;
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationMapper;
 import com.anecacao.api.request.creation.data.repository.FumigationRepository;
 import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.anecacao.api.signature.data.repository.SignatureRepository;
+import com.anecacao.api.signature.domain.service.SignatureService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class ReportServiceImplTest {
@@ -45,6 +61,20 @@ class ReportServiceImplTest {
     private CleanupReportRepository cleanupReportRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private StatusCountService statusCountService;
+    @Mock
+    private ReportSearchIndex reportSearchIndex;
+    @Mock
+    private CertificateStore certificateStore;
+    @Mock
+    private CertificateMapper certificateMapper;
+    @Mock
+    private SignatureRepository signatureRepository;
+    @Mock
+    private SignatureService signatureService;
+    @Mock
+    private FumigationAuthorizationService authorizationService;
     @InjectMocks
     private ReportsServiceImpl service;
 
@@ -97,7 +127,7 @@ class ReportServiceImplTest {
 
         SimpleUserDTO simpleUserDTO = new SimpleUserDTO();
         simpleUserDTO.setId(1L);
-        when(userService.hasRole("1", RoleName.ROLE_TECHNICIAN)).thenReturn(true);
+        when(userService.findUsersWithoutRole(List.of(1L), RoleName.ROLE_TECHNICIAN)).thenReturn(List.of());
         dto.setTechnicians(List.of(simpleUserDTO));
 
         IndustrialSafetyConditions mockedConditions = mock(IndustrialSafetyConditions.class);
@@ -132,7 +162,7 @@ class ReportServiceImplTest {
 
         SimpleUserDTO simpleUserDTO = new SimpleUserDTO();
         simpleUserDTO.setId(1L);
-        when(userService.hasRole("1", RoleName.ROLE_TECHNICIAN)).thenReturn(true);
+        when(userService.findUsersWithoutRole(List.of(1L), RoleName.ROLE_TECHNICIAN)).thenReturn(List.of());
         dto.setTechnicians(List.of(simpleUserDTO));
 
         MessageDTO result = service.createFumigationReport(dto);
@@ -184,7 +214,7 @@ class ReportServiceImplTest {
         simpleUserDTO.setId(1L);
         dto.setTechnicians(List.of(simpleUserDTO));
 
-        when(userService.hasRole("1", RoleName.ROLE_TECHNICIAN)).thenReturn(true);
+        when(userService.findUsersWithoutRole(List.of(1L), RoleName.ROLE_TECHNICIAN)).thenReturn(List.of());
 
         fumigation.setId(12L);
         fumigation.setStatus(Status.APPROVED);
@@ -202,6 +232,30 @@ class ReportServiceImplTest {
         verify(cleanupReportRepository).save(report);
     }
 
+    @Test
+    @DisplayName("Should not save the cleanup report when another request changed the status first")
+    void shouldRejectCleanupReportWhenStatusChangedConcurrently() {
+        CleanupReportDTO dto = new CleanupReportDTO();
+        dto.setId(14L);
+        dto.setIndustrialSafetyConditions(new IndustrialSafetyConditions());
+        dto.setTechnicians(List.of(technician(1L)));
+
+        fumigation.setId(14L);
+        fumigation.setStatus(Status.FUMIGATED);
+
+        when(fumigationRepository.findById(14L)).thenReturn(Optional.of(fumigation));
+        when(userService.findUsersWithoutRole(List.of(1L), RoleName.ROLE_TECHNICIAN)).thenReturn(List.of());
+        when(fumigationReportRepository.findByFumigationId(14L)).thenReturn(Optional.of(new FumigationReport()));
+        when(cleanupReportRepository.findByFumigationId(14L)).thenReturn(Optional.empty());
+        when(mapper.toCleanupReport(dto)).thenReturn(new CleanupReport());
+        when(fumigationRepository.updateStatuses(List.of(14L), EnumSet.of(Status.FUMIGATED), Status.FINISHED, null))
+                .thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> service.createCleanupReport(dto));
+        verify(cleanupReportRepository, never()).save(any());
+        verifyNoInteractions(statusCountService, reportSearchIndex);
+    }
+
     @Test
     @DisplayName("Should throw TechnicalRoleException when a technician does not have the required role")
     void shouldThrowExceptionWhenTechnicianIsInvalid() {
@@ -216,8 +270,132 @@ class ReportServiceImplTest {
         fumigation.setStatus(Status.APPROVED);
 
         when(fumigationRepository.findById(1L)).thenReturn(Optional.of(fumigation));
-        when(userService.hasRole("99", RoleName.ROLE_TECHNICIAN)).thenReturn(false);
+        when(userService.findUsersWithoutRole(List.of(99L), RoleName.ROLE_TECHNICIAN)).thenReturn(List.of(99L));
 
         assertThrows(TechnicalRoleException.class, () -> service.createFumigationReport(dto));
     }
+
+    @Test
+    @DisplayName("Should validate the whole fumigation crew with one role lookup and report every offender")
+    void shouldValidateFumigationCrewWithSingleLookup() {
+        List<Long> crew = List.of(1L, 2L, 3L, 4L, 5L, 6L);
+        FumigationReportDTO dto = new FumigationReportDTO();
+        dto.setId(1L);
+        dto.setTechnicians(crew.stream().map(this::technician).toList());
+
+        fumigation.setId(1L);
+        fumigation.setStatus(Status.APPROVED);
+
+        when(fumigationRepository.findById(1L)).thenReturn(Optional.of(fumigation));
+        when(userService.findUsersWithoutRole(crew, RoleName.ROLE_TECHNICIAN)).thenReturn(List.of(2L, 5L));
+
+        TechnicalRoleException ex = assertThrows(TechnicalRoleException.class, () -> service.createFumigationReport(dto));
+
+        assertTrue(ex.getMessage().contains("[2, 5]"));
+        verify(userService, times(1)).findUsersWithoutRole(anyCollection(), eq(RoleName.ROLE_TECHNICIAN));
+        verify(userService, never()).hasRole(anyString(), any());
+        verify(fumigationReportRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should validate the whole cleanup crew with one role lookup and report every offender")
+    void shouldValidateCleanupCrewWithSingleLookup() {
+        List<Long> crew = List.of(7L, 8L, 9L, 10L, 11L, 12L);
+        CleanupReportDTO dto = new CleanupReportDTO();
+        dto.setId(13L);
+        dto.setTechnicians(crew.stream().map(this::technician).toList());
+
+        fumigation.setId(13L);
+        fumigation.setStatus(Status.FUMIGATED);
+
+        when(fumigationRepository.findById(13L)).thenReturn(Optional.of(fumigation));
+        when(userService.findUsersWithoutRole(crew, RoleName.ROLE_TECHNICIAN)).thenReturn(List.of(12L));
+
+        TechnicalRoleException ex = assertThrows(TechnicalRoleException.class, () -> service.createCleanupReport(dto));
+
+        assertTrue(ex.getMessage().contains("[12]"));
+        verify(userService, times(1)).findUsersWithoutRole(anyCollection(), eq(RoleName.ROLE_TECHNICIAN));
+        verify(userService, never()).hasRole(anyString(), any());
+        verify(cleanupReportRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Serves the certificate stored for the current content version without loading the reports")
+    void shouldServeStoredCertificateForCurrentVersion() {
+        CertificateContent stored = new CertificateContent(new byte[]{'{', '}'}, "\"abc\"");
+        when(fumigationReportRepository.findCertificateVersion(20L))
+                .thenReturn(Optional.of(new CertificateVersionView(20L, Status.FINISHED, 4L, 2L, 1L)));
+        when(certificateStore.getOrCompute(eq(20L), eq("4.2.1"), any())).thenReturn(stored);
+
+        assertSame(stored, service.getCertificateByFumigationId(20L));
+        verify(fumigationRepository, never()).findById(any());
+        verify(cleanupReportRepository, never()).findByFumigationId(any());
+    }
+
+    @Test
+    @DisplayName("Refuses certificates for fumigations that are not FINISHED")
+    void shouldRejectCertificateWhenFumigationIsNotFinished() {
+        when(fumigationReportRepository.findCertificateVersion(21L))
+                .thenReturn(Optional.of(new CertificateVersionView(21L, Status.FUMIGATED, 3L, 1L, null)));
+
+        assertThrows(InvalidFumigationStatusException.class, () -> service.getCertificateByFumigationId(21L));
+        verifyNoInteractions(certificateStore);
+    }
+
+    @Test
+    @DisplayName("Builds the PDF document with cleanup signatures first and fumigation report signatures as fallback")
+    void shouldBuildCertificateDocumentWithSignatures() {
+        Fumigation finished = new Fumigation();
+        finished.setId(22L);
+        FumigationReport fumigationReport = new FumigationReport();
+        fumigationReport.setId(5L);
+        CleanupReport cleanupReport = new CleanupReport();
+        cleanupReport.setId(6L);
+        CertificateDTO certificate = CertificateDTO.builder().lotNumber("LOT-22").build();
+        Signature cleanupTechnician = signature(1L, "technician");
+        Signature reportTechnician = signature(2L, "technician");
+        Signature reportClient = signature(3L, "client");
+
+        when(fumigationReportRepository.findCertificateVersion(22L))
+                .thenReturn(Optional.of(new CertificateVersionView(22L, Status.FINISHED, 4L, 2L, 1L)));
+        when(fumigationRepository.findById(22L)).thenReturn(Optional.of(finished));
+        when(fumigationReportRepository.findByFumigationId(22L)).thenReturn(Optional.of(fumigationReport));
+        when(cleanupReportRepository.findByFumigationId(22L)).thenReturn(Optional.of(cleanupReport));
+        when(certificateMapper.toCertificateDTO(finished, fumigationReport, cleanupReport)).thenReturn(certificate);
+        when(signatureRepository.findByCleanupReportId(6L)).thenReturn(List.of(cleanupTechnician));
+        when(signatureRepository.findByFumigationReportId(5L)).thenReturn(List.of(reportTechnician, reportClient));
+        when(signatureService.readSignatureImage(cleanupTechnician)).thenReturn(Optional.of(new byte[]{1}));
+        when(signatureService.readSignatureImage(reportClient)).thenReturn(Optional.of(new byte[]{2}));
+
+        CertificateDocument document = service.getCertificateDocument(22L);
+
+        assertSame(certificate, document.certificate());
+        assertArrayEquals(new byte[]{1}, document.technicianSignature());
+        assertArrayEquals(new byte[]{2}, document.clientSignature());
+        verify(signatureService, never()).readSignatureImage(reportTechnician);
+    }
+
+    @Test
+    @DisplayName("Refuses the PDF document of another company's fumigation before loading its signatures")
+    void shouldRejectCertificateDocumentWithoutAccess() {
+        doThrow(new UnauthorizedAccessException("Fumigation", 23L, 100L))
+                .when(authorizationService).checkFumigationAccess(23L);
+
+        assertThrows(UnauthorizedAccessException.class, () -> service.getCertificateDocument(23L));
+        verifyNoInteractions(fumigationReportRepository, signatureRepository, signatureService);
+    }
+
+    private Signature signature(Long id, String signatureType) {
+        Signature signature = new Signature();
+        signature.setId(id);
+        signature.setSignatureType(signatureType);
+        signature.setFilePath("/uploads/signatures/" + id + ".jpg");
+        return signature;
+    }
+
+    private SimpleUserDTO technician(Long id) {
+        SimpleUserDTO technician = new SimpleUserDTO();
+        technician.setId(id);
+        return technician;
+    }
 }
@@ -0,0 +1,267 @@
+package com.anecacao.api.request.creation.data.repository;
+
+import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.request.creation.data.dto.projection.ApplicationFumigationView;
+import com.anecacao.api.request.creation.data.dto.projection.ClientFumigationApplicationView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationApplicationSummaryView;
+import com.anecacao.api.request.creation.data.entity.Company;
+import com.anecacao.api.request.creation.data.entity.Fumigation;
+import com.anecacao.api.request.creation.data.entity.FumigationApplication;
+import com.anecacao.api.request.creation.data.entity.Status;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class FumigationApplicationRepositoryTest {
+    @Autowired
+    private FumigationApplicationRepository repository;
+
+    @Autowired
+    private FumigationRepository fumigationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User representative;
+    private FumigationApplication application;
+
+    @BeforeEach
+    void setUp() {
+        representative = new User();
+        representative.setEmail("client@anecacao.com");
+        representative.setFirstName("Ana");
+        representative.setLastName("Pérez");
+        entityManager.persist(representative);
+
+        Company company = new Company();
+        company.setName("CriolloCorp.");
+        company.setBusinessName("CriolloS.A");
+        company.setPhoneNumber("0980783625");
+        company.setRuc("1105327702");
+        company.setAddress("VLC Puerto Seymour");
+        company.setLegalRepresentative(representative);
+        entityManager.persist(company);
+
+        application = new FumigationApplication();
+        application.setCompany(company);
+        application.setCreatedAt(LocalDate.of(2024, 6, 1));
+        application.setFumigations(new ArrayList<>());
+        entityManager.persist(application);
+
+        for (int i = 0; i < 40; i++) {
+            persistLot(application, "LOT-" + i, new BigDecimal("2.5"),
+                    LocalDateTime.of(2024, 6, 10, 8, 0).minusDays(i % 5), i == 0 ? Status.PENDING : Status.APPROVED);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Status summaries are aggregated in SQL over every lot without loading fumigations")
+    void findSummariesByFumigationStatus_aggregatesAllLots() {
+        Statistics statistics = statistics();
+
+        Page<FumigationApplicationSummaryView> page =
+                repository.findSummariesByFumigationStatus(Status.PENDING, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        FumigationApplicationSummaryView summary = page.getContent().get(0);
+        assertEquals(0, new BigDecimal("100.0").compareTo(summary.totalTons()));
+        assertEquals(LocalDateTime.of(2024, 6, 6, 8, 0), summary.earlyDate());
+        assertEquals("CriolloCorp.", summary.companyName());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, repository.findSummariesByFumigationStatus(Status.REJECTED, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Client summaries and their lots are read with a fixed number of queries")
+    void findClientSummaries_readsLotsInOneQuery() {
+        Statistics statistics = statistics();
+
+        Page<ClientFumigationApplicationView> page =
+                repository.findClientSummaries(representative.getId(), PageRequest.of(0, 10));
+        List<ApplicationFumigationView> lots =
+                fumigationRepository.findViewsByApplicationIds(page.map(ClientFumigationApplicationView::id).getContent());
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(0, new BigDecimal("100.0").compareTo(page.getContent().get(0).totalTons()));
+        assertEquals(40, lots.size());
+        assertTrue(lots.stream().allMatch(lot -> lot.applicationId().equals(application.getId())));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "expected page, count and lots queries only, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Pages over distinct application ids and keeps the requested order")
+    void findSummariesByFumigationStatus_pagesOverApplicationIds() {
+        Company company = entityManager.find(FumigationApplication.class, application.getId()).getCompany();
+        for (int day = 2; day <= 4; day++) {
+            FumigationApplication other = new FumigationApplication();
+            other.setCompany(company);
+            other.setCreatedAt(LocalDate.of(2024, 6, day));
+            other.setFumigations(new ArrayList<>());
+            entityManager.persist(other);
+            for (int i = 0; i < 3; i++) {
+                persistLot(other, "LOT-" + day + "-" + i, BigDecimal.ONE, LocalDateTime.of(2024, 6, day, 9, 0), Status.APPROVED);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<FumigationApplicationSummaryView> first = repository.findSummariesByFumigationStatus(Status.APPROVED,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+        Page<FumigationApplicationSummaryView> last = repository.findSummariesByFumigationStatus(Status.APPROVED,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertEquals(4, first.getTotalElements());
+        assertEquals(List.of(LocalDate.of(2024, 6, 4), LocalDate.of(2024, 6, 3)),
+                first.map(FumigationApplicationSummaryView::createdAt).getContent());
+        assertEquals(List.of(LocalDate.of(2024, 6, 2), LocalDate.of(2024, 6, 1)),
+                last.map(FumigationApplicationSummaryView::createdAt).getContent());
+        assertEquals(0, new BigDecimal("3").compareTo(first.getContent().get(0).totalTons()));
+    }
+
+    @Test
+    @DisplayName("Cursor mode orders by creation date and breaks ties by id")
+    void findClientSummaries_cursorHandlesDateTies() {
+        Company company = entityManager.find(FumigationApplication.class, application.getId()).getCompany();
+        for (int i = 0; i < 4; i++) {
+            FumigationApplication other = new FumigationApplication();
+            other.setCompany(company);
+            other.setCreatedAt(LocalDate.of(2024, 6, 1 + i / 2));
+            other.setFumigations(new ArrayList<>());
+            entityManager.persist(other);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageDTO<ClientFumigationApplicationView> first =
+                repository.findClientSummaries(representative.getId(), CursorRequest.first(2));
+        CursorPageDTO<ClientFumigationApplicationView> second =
+                repository.findClientSummaries(representative.getId(), new CursorRequest(first.getNextCursor(), 2));
+        CursorPageDTO<ClientFumigationApplicationView> last =
+                repository.findClientSummaries(representative.getId(), new CursorRequest(second.getNextCursor(), 2));
+
+        List<ClientFumigationApplicationView> all = new ArrayList<>(first.getContent());
+        all.addAll(second.getContent());
+        all.addAll(last.getContent());
+
+        assertEquals(5, all.size());
+        assertEquals(5, all.stream().map(ClientFumigationApplicationView::id).distinct().count());
+        assertEquals(LocalDate.of(2024, 6, 2), all.get(0).createdAt());
+        assertEquals(LocalDate.of(2024, 6, 1), all.get(4).createdAt());
+        assertFalse(last.isHasNext());
+        assertEquals(0, new BigDecimal("100.0").compareTo(last.getContent().get(last.getContent().size() - 1).totalTons()));
+    }
+
+    @Test
+    @DisplayName("A 200-lot application is inserted in JDBC batches instead of one round-trip per lot")
+    void save_batchesLotInserts() {
+        Company company = entityManager.find(FumigationApplication.class, application.getId()).getCompany();
+        Statistics statistics = statistics();
+
+        repository.save(newApplication(company, 200));
+        entityManager.flush();
+
+        // Con IDENTITY eran más de 200 sentencias; ahora bloques de ids y lotes de 50 INSERT
+        assertEquals(201, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 30,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    /**
+     * Tiempo por solicitud de 200 lotes con ids por bloques y INSERT agrupados.
+     * Ejecutar con: mvn test -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmark_saveApplicationWith200Lots() {
+        Company company = entityManager.find(FumigationApplication.class, application.getId()).getCompany();
+        for (int i = 0; i < 5; i++) saveAndClear(company);
+
+        Statistics statistics = statistics();
+        int iterations = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) saveAndClear(company);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Application with 200 lots: %.2f ms/save, %d statements/save%n",
+                elapsed / 1_000_000.0 / iterations, statistics.getPrepareStatementCount() / iterations);
+        assertTrue(statistics.getPrepareStatementCount() / iterations < 30);
+    }
+
+    private void saveAndClear(Company company) {
+        repository.save(newApplication(company, 200));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private FumigationApplication newApplication(Company company, int lots) {
+        FumigationApplication newApplication = new FumigationApplication();
+        newApplication.setCompany(company);
+        newApplication.setCreatedAt(LocalDate.of(2024, 7, 1));
+        newApplication.setFumigations(new ArrayList<>());
+        for (int i = 0; i < lots; i++) {
+            Fumigation fumigation = new Fumigation();
+            fumigation.setLotNumber("BULK-" + i);
+            fumigation.setTon(BigDecimal.ONE);
+            fumigation.setPortDestination("Guayaquil");
+            fumigation.setSacks(20L);
+            fumigation.setQuality("GRADE_1");
+            fumigation.setDateTime(LocalDateTime.of(2024, 7, 2, 8, 0));
+            fumigation.setStatus(Status.PENDING);
+            fumigation.setFumigationApplication(newApplication);
+            newApplication.getFumigations().add(fumigation);
+        }
+        return newApplication;
+    }
+
+    private void persistLot(FumigationApplication owner, String lotNumber, BigDecimal ton, LocalDateTime dateTime, Status status) {
+        Fumigation fumigation = new Fumigation();
+        fumigation.setLotNumber(lotNumber);
+        fumigation.setTon(ton);
+        fumigation.setPortDestination("Guayaquil");
+        fumigation.setSacks(100L);
+        fumigation.setQuality("GRADE_1");
+        fumigation.setDateTime(dateTime);
+        fumigation.setStatus(status);
+        fumigation.setFumigationApplication(owner);
+        entityManager.persist(fumigation);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
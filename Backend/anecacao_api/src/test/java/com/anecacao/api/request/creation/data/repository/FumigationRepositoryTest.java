@@ -0,0 +1,212 @@
+package com.anecacao.api.request.creation.data.repository;
+
+import com.anecacao.api.auth.data.entity.User;
+import com.anecacao.api.common.data.dto.CursorPageDTO;
+import com.anecacao.api.common.data.dto.CursorRequest;
+import com.anecacao.api.common.domain.exception.InvalidCursorException;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationDetailView;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationStatusView;
+import com.anecacao.api.request.creation.data.entity.Company;
+import com.anecacao.api.request.creation.data.entity.Fumigation;
+import com.anecacao.api.request.creation.data.entity.FumigationApplication;
+import com.anecacao.api.request.creation.data.entity.Status;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class FumigationRepositoryTest {
+    @Autowired
+    private FumigationRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User representative;
+
+    @BeforeEach
+    void setUp() {
+        representative = new User();
+        representative.setEmail("client@anecacao.com");
+        representative.setFirstName("Ana");
+        representative.setLastName("Pérez");
+        entityManager.persist(representative);
+
+        Company company = new Company();
+        company.setName("CriolloCorp.");
+        company.setBusinessName("CriolloS.A");
+        company.setPhoneNumber("0980783625");
+        company.setRuc("1105327702");
+        company.setAddress("VLC Puerto Seymour");
+        company.setLegalRepresentative(representative);
+        entityManager.persist(company);
+
+        FumigationApplication application = new FumigationApplication();
+        application.setCompany(company);
+        application.setCreatedAt(LocalDate.of(2024, 6, 1));
+        application.setFumigations(new ArrayList<>());
+        entityManager.persist(application);
+
+        for (int i = 0; i < 60; i++) {
+            Fumigation fumigation = new Fumigation();
+            fumigation.setLotNumber("LOT-" + i);
+            fumigation.setTon(new BigDecimal("10.5"));
+            fumigation.setPortDestination("Guayaquil");
+            fumigation.setSacks(100L);
+            fumigation.setQuality("GRADE_1");
+            fumigation.setDateTime(LocalDateTime.of(2024, 6, 1, 8, 0).plusHours(i));
+            fumigation.setStatus(Status.APPROVED);
+            fumigation.setFumigationApplication(application);
+            entityManager.persist(fumigation);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Listing by status returns complete rows with a page size independent number of queries")
+    void findDetailsByStatus_queryCountDoesNotGrowWithPageSize() {
+        long smallPage = countStatements(() -> repository.findDetailsByStatus(Status.APPROVED, PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> repository.findDetailsByStatus(Status.APPROVED, PageRequest.of(0, 50)));
+
+        assertEquals(smallPage, largePage);
+        assertTrue(largePage <= 2, "expected page + count queries only, got " + largePage);
+
+        Page<FumigationDetailView> page = repository.findDetailsByStatus(Status.APPROVED,
+                PageRequest.of(0, 50, Sort.by("dateTime")));
+        FumigationDetailView first = page.getContent().get(0);
+        assertEquals(60, page.getTotalElements());
+        assertEquals("LOT-0", first.lotNumber());
+        assertEquals("CriolloCorp.", first.companyName());
+        assertEquals("Ana", first.representativeFirstName());
+        assertEquals("VLC Puerto Seymour", first.address());
+    }
+
+    @Test
+    @DisplayName("Client listing filters by owner with a page size independent number of queries")
+    void findDetailsByStatusAndUserId_queryCountDoesNotGrowWithPageSize() {
+        Long userId = representative.getId();
+        long smallPage = countStatements(() -> repository.findDetailsByStatusAndUserId(Status.APPROVED, userId, PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> repository.findDetailsByStatusAndUserId(Status.APPROVED, userId, PageRequest.of(0, 50)));
+
+        assertEquals(smallPage, largePage);
+        assertTrue(largePage <= 2, "expected page + count queries only, got " + largePage);
+        assertEquals(0, repository.findDetailsByStatusAndUserId(Status.APPROVED, userId + 1, PageRequest.of(0, 5)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Cursor mode walks every row once, newest first, without a count query")
+    void findDetailsByStatus_cursorWalksAllRows() {
+        List<Long> seen = new ArrayList<>();
+        CursorRequest cursor = CursorRequest.first(25);
+        CursorPageDTO<FumigationDetailView> page;
+
+        do {
+            CursorRequest current = cursor;
+            long statements = countStatements(() -> repository.findDetailsByStatus(Status.APPROVED, current));
+            assertEquals(2, statements, "expected key + content queries only");
+
+            page = repository.findDetailsByStatus(Status.APPROVED, cursor);
+            page.getContent().forEach(view -> seen.add(view.id()));
+            cursor = new CursorRequest(page.getNextCursor(), 25);
+        } while (page.isHasNext());
+
+        assertEquals(60, seen.size());
+        assertEquals(60, new HashSet<>(seen).size());
+        assertTrue(seen.get(0) > seen.get(seen.size() - 1));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Tampered cursors are rejected")
+    void findDetailsByStatus_rejectsInvalidCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> repository.findDetailsByStatus(Status.APPROVED, new CursorRequest("not-a-cursor", 10)));
+    }
+
+    @Test
+    @DisplayName("Status changes only apply from an allowed source status and bump the version")
+    void updateStatuses_isConditional() {
+        Long id = repository.findAll(PageRequest.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+
+        assertEquals(1, transition(id, Status.FUMIGATED));
+        assertEquals(0, transition(id, Status.FUMIGATED));
+        assertEquals(0, transition(id, Status.APPROVED));
+
+        Fumigation fumigation = entityManager.find(Fumigation.class, id);
+        assertEquals(Status.FUMIGATED, fumigation.getStatus());
+        assertEquals(1L, fumigation.getVersion());
+    }
+
+    @Test
+    @DisplayName("Entity writes based on a state read before a status change are rejected")
+    void save_staleEntityFailsOptimisticLock() {
+        Fumigation stale = repository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+
+        transition(stale.getId(), Status.FAILED);
+        stale.setSacks(120L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.saveAndFlush(stale));
+    }
+
+    @Test
+    @DisplayName("A batch of status changes is one locking read plus one update, whatever its size")
+    void updateStatuses_isSetBased() {
+        List<Long> ids = repository.findAll(PageRequest.of(0, 40, Sort.by("id"))).getContent().stream()
+                .map(Fumigation::getId).toList();
+        transition(ids.get(0), Status.FUMIGATED);
+        transition(ids.get(0), Status.FINISHED);
+
+        long statements = countStatements(() -> {
+            List<FumigationStatusView> current = repository.findStatusesForUpdate(ids);
+            assertEquals(40, current.size());
+            assertTrue(current.stream().allMatch(view -> view.companyId() != null));
+            assertEquals(39, repository.updateStatuses(ids, Status.FAILED.allowedSources(), Status.FAILED, null));
+        });
+
+        assertEquals(2, statements);
+        assertEquals(39, repository.findAll().stream().filter(f -> f.getStatus() == Status.FAILED).count());
+    }
+
+    private int transition(Long id, Status target) {
+        return repository.updateStatuses(List.of(id), target.allowedSources(), target, null);
+    }
+
+    private long countStatements(Runnable query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        query.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -4,26 +4,41 @@ import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
 import com.anecacao.api.auth.domain.service.UserService;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
 import com.anecacao.api.request.creation.data.dto.request.CompanyRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.FumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.request.FumigationCreationRequestDTO;
+import com.anecacao.api.request.creation.data.dto.projection.ApplicationFumigationView;
+import com.anecacao.api.request.creation.data.dto.projection.ClientFumigationApplicationView;
+import com.anecacao.api.request.creation.data.dto.response.ClientFumigationApplicationDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationApplicationResponseDTO;
 import com.anecacao.api.request.creation.data.entity.Company;
 import com.anecacao.api.request.creation.data.entity.Fumigation;
 import com.anecacao.api.request.creation.data.entity.FumigationApplication;
 import com.anecacao.api.request.creation.data.entity.Status;
+import com.anecacao.api.request.creation.data.mapper.ClientFumigationApplicationMapper;
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationMapper;
 import com.anecacao.api.request.creation.data.repository.FumigationApplicationRepository;
+import com.anecacao.api.request.creation.data.repository.FumigationRepository;
 import com.anecacao.api.request.creation.domain.exception.FumigationApplicationNotFoundException;
 import com.anecacao.api.request.creation.domain.service.CompanyService;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -48,13 +63,23 @@ class FumigationApplicationServiceImplTest {
     @Mock
     private FumigationApplicationMapper mapper;
 
+    @Mock
+    private FumigationAuthorizationService authorizationService;
+
+    @Mock
+    private FumigationRepository fumigationRepository;
+
+    @Mock
+    private StatusCountService statusCountService;
+
+    @Spy
+    private ClientFumigationApplicationMapper clientMapper = new ClientFumigationApplicationMapper() {};
+
     @InjectMocks
     private FumigationApplicationServiceImpl subject;
 
     private final Long applicationId = 1L;
     private final Long companyId = 1L;
-    private final String token = "someToken";
-    private final String jwt = "Bearer token123";
 
     private FumigationApplication application;
     private FumigationApplicationDTO fumigationApplicationDTO;
@@ -103,12 +128,11 @@ class FumigationApplicationServiceImplTest {
     @DisplayName("Should return fumigation application when user is owner")
     void getFumigationApplicationById_success_asOwner() {
         when(repository.findById(applicationId)).thenReturn(Optional.of(application));
-        when(userService.getUserReferenceById(token)).thenReturn(user);
 
         FumigationApplicationResponseDTO expectedDto = new FumigationApplicationResponseDTO();
         when(mapper.toFumigationApplicationResponseDTO(application)).thenReturn(expectedDto);
 
-        FumigationApplicationResponseDTO result = subject.getFumigationApplicationById(applicationId, token);
+        FumigationApplicationResponseDTO result = subject.getFumigationApplicationById(applicationId);
 
         assertNotNull(result);
         assertEquals(expectedDto, result);
@@ -118,12 +142,11 @@ class FumigationApplicationServiceImplTest {
     @DisplayName("Should return fumigation application when user is admin")
     void getFumigationApplicationById_success_asAdmin() {
         when(repository.findById(applicationId)).thenReturn(Optional.of(application));
-        when(userService.getUserReferenceById(token)).thenReturn(user);
 
         FumigationApplicationResponseDTO expectedDto = new FumigationApplicationResponseDTO();
         when(mapper.toFumigationApplicationResponseDTO(application)).thenReturn(expectedDto);
 
-        FumigationApplicationResponseDTO result = subject.getFumigationApplicationById(applicationId, token);
+        FumigationApplicationResponseDTO result = subject.getFumigationApplicationById(applicationId);
 
         assertNotNull(result);
         assertEquals(expectedDto, result);
@@ -135,7 +158,7 @@ class FumigationApplicationServiceImplTest {
         when(repository.findById(applicationId)).thenReturn(Optional.empty());
 
         assertThrows(FumigationApplicationNotFoundException.class,
-                () -> subject.getFumigationApplicationById(applicationId, token));
+                () -> subject.getFumigationApplicationById(applicationId));
     }
 
     @Test
@@ -145,12 +168,12 @@ class FumigationApplicationServiceImplTest {
         otherUser.setId(999L);
         application.getCompany().setLegalRepresentative(otherUser);
 
-        when(repository.findById(applicationId)).thenReturn(Optional.of(application));
-        when(userService.getUserReferenceById(token)).thenReturn(user); // user != legalRepresentative
-        when(userService.hasRole(user.getId().toString(), RoleName.ROLE_ADMIN)).thenReturn(false);
+        doThrow(new UnauthorizedAccessException("FumigationApplication", applicationId, user.getId()))
+                .when(authorizationService).checkApplicationAccess(applicationId);
 
         assertThrows(UnauthorizedAccessException.class,
-                () -> subject.getFumigationApplicationById(applicationId, token));
+                () -> subject.getFumigationApplicationById(applicationId));
+        verify(repository, never()).findById(any());
     }
 
     @Test
@@ -168,20 +191,20 @@ class FumigationApplicationServiceImplTest {
         FumigationApplicationResponseDTO expectedResponse = new FumigationApplicationResponseDTO();
 
         // When
-        when(userService.getUserReferenceById(jwt)).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(companyService.getCompanyOwnedByLegalRepresentative(companyId, user)).thenReturn(company);
         when(mapper.toEntity(fumigationApplicationDTO)).thenReturn(mappedApplication);
         when(repository.save(any(FumigationApplication.class))).thenReturn(savedApplication);
         when(mapper.toFumigationApplicationResponseDTO(savedApplication)).thenReturn(expectedResponse);
 
         // Then
-        FumigationApplicationResponseDTO result = subject.createFumigationApplication(fumigationApplicationDTO, jwt);
+        FumigationApplicationResponseDTO result = subject.createFumigationApplication(fumigationApplicationDTO);
 
         assertNotNull(result);
         assertEquals(expectedResponse, result);
 
         // Verify interactions
-        verify(userService).getUserReferenceById(jwt);
+        verify(userService).getCurrentUserReference();
         verify(companyService).getCompanyOwnedByLegalRepresentative(companyId, user);
         verify(mapper).toEntity(fumigationApplicationDTO);
         verify(repository).save(any(FumigationApplication.class));
@@ -204,14 +227,14 @@ class FumigationApplicationServiceImplTest {
         FumigationApplicationResponseDTO expectedResponse = new FumigationApplicationResponseDTO();
 
         // When
-        when(userService.getUserReferenceById(jwt)).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(companyService.getCompanyOwnedByLegalRepresentative(companyId, user)).thenReturn(company);
         when(mapper.toEntity(fumigationApplicationDTO)).thenReturn(mappedApplication);
         when(repository.save(any(FumigationApplication.class))).thenReturn(savedApplication);
         when(mapper.toFumigationApplicationResponseDTO(savedApplication)).thenReturn(expectedResponse);
 
         // Then
-        subject.createFumigationApplication(fumigationApplicationDTO, jwt);
+        subject.createFumigationApplication(fumigationApplicationDTO);
 
         // Verify that the saved application has the correct company and fumigation status
         verify(repository).save(argThat(app -> {
@@ -235,14 +258,14 @@ class FumigationApplicationServiceImplTest {
         FumigationApplicationResponseDTO expectedResponse = new FumigationApplicationResponseDTO();
 
         // When
-        when(userService.getUserReferenceById(jwt)).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(companyService.getCompanyOwnedByLegalRepresentative(companyId, user)).thenReturn(company);
         when(mapper.toEntity(fumigationApplicationDTO)).thenReturn(mappedApplication);
         when(repository.save(any(FumigationApplication.class))).thenReturn(savedApplication);
         when(mapper.toFumigationApplicationResponseDTO(savedApplication)).thenReturn(expectedResponse);
 
         // Then
-        FumigationApplicationResponseDTO result = subject.createFumigationApplication(fumigationApplicationDTO, jwt);
+        FumigationApplicationResponseDTO result = subject.createFumigationApplication(fumigationApplicationDTO);
 
         assertNotNull(result);
         verify(repository).save(any(FumigationApplication.class));
@@ -252,13 +275,13 @@ class FumigationApplicationServiceImplTest {
     @DisplayName("Should propagate exception when user service fails")
     void createFumigationApplication_userServiceException() {
         // Given
-        when(userService.getUserReferenceById(jwt)).thenThrow(new RuntimeException("User service error"));
+        when(userService.getCurrentUserReference()).thenThrow(new RuntimeException("User service error"));
 
         // When & Then
         assertThrows(RuntimeException.class,
-                () -> subject.createFumigationApplication(fumigationApplicationDTO, jwt));
+                () -> subject.createFumigationApplication(fumigationApplicationDTO));
 
-        verify(userService).getUserReferenceById(jwt);
+        verify(userService).getCurrentUserReference();
         verify(companyService, never()).getCompanyOwnedByLegalRepresentative(any(), any());
         verify(repository, never()).save(any());
     }
@@ -267,15 +290,15 @@ class FumigationApplicationServiceImplTest {
     @DisplayName("Should propagate exception when company service fails")
     void createFumigationApplication_companyServiceException() {
         // Given
-        when(userService.getUserReferenceById(jwt)).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(companyService.getCompanyOwnedByLegalRepresentative(companyId, user))
                 .thenThrow(new RuntimeException("Company not found or unauthorized"));
 
         // When & Then
         assertThrows(RuntimeException.class,
-                () -> subject.createFumigationApplication(fumigationApplicationDTO, jwt));
+                () -> subject.createFumigationApplication(fumigationApplicationDTO));
 
-        verify(userService).getUserReferenceById(jwt);
+        verify(userService).getCurrentUserReference();
         verify(companyService).getCompanyOwnedByLegalRepresentative(companyId, user);
         verify(repository, never()).save(any());
     }
@@ -287,16 +310,51 @@ class FumigationApplicationServiceImplTest {
         FumigationApplication mappedApplication = new FumigationApplication();
         mappedApplication.setFumigations(fumigations);
 
-        when(userService.getUserReferenceById(jwt)).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(companyService.getCompanyOwnedByLegalRepresentative(companyId, user)).thenReturn(company);
         when(mapper.toEntity(fumigationApplicationDTO)).thenReturn(mappedApplication);
         when(repository.save(any(FumigationApplication.class))).thenThrow(new RuntimeException("Database error"));
 
         // When & Then
         assertThrows(RuntimeException.class,
-                () -> subject.createFumigationApplication(fumigationApplicationDTO, jwt));
+                () -> subject.createFumigationApplication(fumigationApplicationDTO));
 
         verify(repository).save(any(FumigationApplication.class));
         verify(mapper, never()).toFumigationApplicationResponseDTO(any());
     }
+
+    @Test
+    @DisplayName("Should load the lots of every client application on the page with a single query")
+    void getClientFumigationApplications_groupsLotsByApplication() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ClientFumigationApplicationView first = clientView(1L, new BigDecimal("12.5"), LocalDateTime.of(2024, 6, 1, 8, 30));
+        ClientFumigationApplicationView second = clientView(2L, null, null);
+
+        when(userService.getCurrentUserReference()).thenReturn(user);
+        when(userService.hasRole(user.getId().toString(), RoleName.ROLE_CLIENT)).thenReturn(true);
+        when(repository.findClientSummaries(user.getId(), pageable)).thenReturn(new PageImpl<>(List.of(first, second), pageable, 2));
+        when(fumigationRepository.findViewsByApplicationIds(List.of(1L, 2L))).thenReturn(List.of(
+                lotView(1L, 10L), lotView(1L, 11L)));
+
+        Page<ClientFumigationApplicationDTO> result = subject.getClientFumigationApplications(pageable);
+
+        verify(fumigationRepository, times(1)).findViewsByApplicationIds(any());
+        assertEquals(2, result.getContent().get(0).getFumigations().size());
+        assertEquals("01-06-2024 08:30", result.getContent().get(0).getEarlyDate());
+        assertEquals(user.getId(), result.getContent().get(0).getCompany().getLegalRepresentative().getId());
+        assertTrue(result.getContent().get(1).getFumigations().isEmpty());
+        assertEquals(BigDecimal.ZERO, result.getContent().get(1).getTotalTons());
+        assertEquals("No date", result.getContent().get(1).getEarlyDate());
+    }
+
+    private ClientFumigationApplicationView clientView(Long id, BigDecimal totalTons, LocalDateTime earlyDate) {
+        return new ClientFumigationApplicationView(id, LocalDate.of(2024, 6, 1), company.getId(), company.getName(),
+                company.getBusinessName(), company.getPhoneNumber(), company.getRuc(), company.getAddress(),
+                user.getId(), "Ana", "Pérez", totalTons, earlyDate);
+    }
+
+    private ApplicationFumigationView lotView(Long applicationId, Long id) {
+        return new ApplicationFumigationView(applicationId, id, "LOT-" + id, new BigDecimal("6.25"), "Guayaquil",
+                100L, "GRADE_1", Status.APPROVED, null, LocalDateTime.of(2024, 6, 1, 8, 30));
+    }
 }
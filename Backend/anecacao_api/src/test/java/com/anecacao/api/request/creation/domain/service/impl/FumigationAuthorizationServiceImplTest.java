@@ -0,0 +1,89 @@
+package com.anecacao.api.request.creation.domain.service.impl;
+
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
+import com.anecacao.api.auth.data.entity.RoleName;
+import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
+import com.anecacao.api.request.creation.data.repository.FumigationApplicationRepository;
+import com.anecacao.api.request.creation.data.repository.FumigationRepository;
+import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FumigationAuthorizationServiceImplTest {
+    @Mock
+    private FumigationRepository fumigationRepository;
+
+    @Mock
+    private FumigationApplicationRepository applicationRepository;
+
+    @Mock
+    private AuthenticatedUserContext authenticatedUserContext;
+
+    @InjectMocks
+    private FumigationAuthorizationServiceImpl subject;
+
+    @Test
+    @DisplayName("Admins and technicians are authorized from their role claims without queries")
+    void checkFumigationAccess_privilegedRole_noQuery() {
+        when(authenticatedUserContext.getCurrentUser()).thenReturn(user(RoleName.ROLE_TECHNICIAN));
+
+        assertDoesNotThrow(() -> subject.checkFumigationAccess(1L));
+        verifyNoInteractions(fumigationRepository);
+    }
+
+    @Test
+    @DisplayName("Owners are authorized with a single exists query")
+    void checkFumigationAccess_owner_singleQuery() {
+        when(authenticatedUserContext.getCurrentUser()).thenReturn(user(RoleName.ROLE_CLIENT));
+        when(fumigationRepository.existsByIdAndFumigationApplicationCompanyLegalRepresentativeId(1L, 100L)).thenReturn(true);
+
+        assertDoesNotThrow(() -> subject.checkFumigationAccess(1L));
+        verifyNoMoreInteractions(fumigationRepository);
+    }
+
+    @Test
+    @DisplayName("Clients get 403 for fumigations of other companies and 404 for missing ones")
+    void checkFumigationAccess_notOwner() {
+        when(authenticatedUserContext.getCurrentUser()).thenReturn(user(RoleName.ROLE_CLIENT));
+        when(fumigationRepository.existsById(1L)).thenReturn(true);
+        when(fumigationRepository.existsById(2L)).thenReturn(false);
+
+        assertThrows(UnauthorizedAccessException.class, () -> subject.checkFumigationAccess(1L));
+        assertThrows(FumigationNotFoundException.class, () -> subject.checkFumigationAccess(2L));
+    }
+
+    @Test
+    @DisplayName("Technicians cannot read applications they do not own")
+    void checkApplicationAccess_technicianNotOwner() {
+        when(authenticatedUserContext.getCurrentUser()).thenReturn(user(RoleName.ROLE_TECHNICIAN));
+        when(applicationRepository.existsById(5L)).thenReturn(true);
+
+        assertThrows(UnauthorizedAccessException.class, () -> subject.checkApplicationAccess(5L));
+    }
+
+    @Test
+    @DisplayName("Batch check resolves owned ids with one query")
+    void filterAccessibleFumigations_batch() {
+        when(authenticatedUserContext.getCurrentUser()).thenReturn(user(RoleName.ROLE_CLIENT));
+        when(fumigationRepository.findIdsOwnedBy(List.of(1L, 2L, 3L), 100L)).thenReturn(List.of(1L, 3L));
+
+        assertEquals(Set.of(1L, 3L), subject.filterAccessibleFumigations(List.of(1L, 2L, 3L)));
+        verify(fumigationRepository, times(1)).findIdsOwnedBy(any(), any());
+    }
+
+    private AuthenticatedUser user(RoleName role) {
+        return new AuthenticatedUser(100L, "user@anecacao.com", List.of(role), 0L);
+    }
+}
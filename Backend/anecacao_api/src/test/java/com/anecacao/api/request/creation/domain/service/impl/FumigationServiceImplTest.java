@@ -1,20 +1,29 @@
 package com.anecacao.api.request.creation.domain.service.impl;
 
+import com.anecacao.api.auth.config.security.AuthenticatedUser;
+import com.anecacao.api.auth.config.security.AuthenticatedUserContext;
 import com.anecacao.api.auth.data.entity.RoleName;
 import com.anecacao.api.auth.data.entity.User;
 import com.anecacao.api.auth.domain.exception.UnauthorizedAccessException;
-import com.anecacao.api.auth.domain.service.UserService;
+import com.anecacao.api.dashboard.data.dto.StatusChange;
+import com.anecacao.api.dashboard.domain.service.StatusCountService;
+import com.anecacao.api.request.creation.data.dto.projection.FumigationStatusView;
+import com.anecacao.api.request.creation.data.dto.request.BatchStatusUpdateRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.FumigationCreationRequestDTO;
 import com.anecacao.api.request.creation.data.dto.request.UpdateStatusRequestDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationDetailDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationResponseDTO;
 import com.anecacao.api.request.creation.data.dto.response.FumigationSummaryDTO;
+import com.anecacao.api.request.creation.data.dto.response.StatusUpdateResultDTO;
 import com.anecacao.api.request.creation.data.entity.*;
 import com.anecacao.api.request.creation.data.mapper.FumigationApplicationMapper;
+import com.anecacao.api.request.creation.data.mapper.FumigationDetailMapper;
 import com.anecacao.api.request.creation.data.mapper.FumigationMapper;
 import com.anecacao.api.request.creation.data.repository.FumigationRepository;
 import com.anecacao.api.request.creation.domain.exception.FumigationNotFoundException;
 import com.anecacao.api.request.creation.domain.exception.FumigationValidationException;
+import com.anecacao.api.request.creation.domain.exception.InvalidStatusTransitionException;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,15 +31,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,7 +56,7 @@ class FumigationServiceImplTest {
     private FumigationRepository repository;
 
     @Mock
-    private UserService userService;
+    private AuthenticatedUserContext authenticatedUserContext;
 
     @Mock
     private FumigationApplicationMapper mapper;
@@ -49,12 +64,20 @@ class FumigationServiceImplTest {
     @Mock
     private FumigationMapper fumigationMapper;
 
+    @Mock
+    private FumigationDetailMapper detailMapper;
+
+    @Mock
+    private FumigationAuthorizationService authorizationService;
+
+    @Mock
+    private StatusCountService statusCountService;
+
 
     @InjectMocks
     private FumigationServiceImpl subject;
 
     private final Long fumigationId = 1L;
-    private final String token = "testToken";
 
     private User user;
     private Company company;
@@ -85,13 +108,12 @@ class FumigationServiceImplTest {
         FumigationCreationRequestDTO dto = buildSampleDTO();
 
         when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
-        when(userService.getUserReferenceById(token)).thenReturn(user);
         when(repository.save(fumigation)).thenReturn(fumigation);
 
         FumigationResponseDTO response = new FumigationResponseDTO();
         when(mapper.toFumigationResponseDTO(fumigation)).thenReturn(response);
 
-        FumigationResponseDTO result = subject.updateFumigation(fumigationId, dto, token);
+        FumigationResponseDTO result = subject.updateFumigation(fumigationId, dto);
 
         assertNotNull(result);
         assertSame(response, result);
@@ -108,13 +130,12 @@ class FumigationServiceImplTest {
         FumigationCreationRequestDTO dto = buildSampleDTO();
 
         when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
-        when(userService.getUserReferenceById(token)).thenReturn(user);
         when(repository.save(fumigation)).thenReturn(fumigation);
 
         FumigationResponseDTO response = new FumigationResponseDTO();
         when(mapper.toFumigationResponseDTO(fumigation)).thenReturn(response);
 
-        FumigationResponseDTO result = subject.updateFumigation(fumigationId, dto, token);
+        FumigationResponseDTO result = subject.updateFumigation(fumigationId, dto);
 
         assertNotNull(result);
         assertSame(response, result);
@@ -126,7 +147,7 @@ class FumigationServiceImplTest {
         when(repository.findById(fumigationId)).thenReturn(Optional.empty());
 
         assertThrows(FumigationNotFoundException.class,
-                () -> subject.updateFumigation(fumigationId, buildSampleDTO(), token));
+                () -> subject.updateFumigation(fumigationId, buildSampleDTO()));
     }
 
     @Test
@@ -136,12 +157,11 @@ class FumigationServiceImplTest {
         other.setId(999L);
         fumigation.getFumigationApplication().getCompany().setLegalRepresentative(other);
 
-        when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
-        when(userService.getUserReferenceById(token)).thenReturn(user);
-        when(userService.hasRole("100", RoleName.ROLE_ADMIN)).thenReturn(false);
+        doThrow(new UnauthorizedAccessException("Fumigation", fumigationId, user.getId()))
+                .when(authorizationService).checkFumigationAccess(fumigationId);
 
         UnauthorizedAccessException ex = assertThrows(UnauthorizedAccessException.class,
-                () -> subject.updateFumigation(fumigationId, buildSampleDTO(), token));
+                () -> subject.updateFumigation(fumigationId, buildSampleDTO()));
 
         assertTrue(ex.getMessage().contains("Fumigation"));
         assertTrue(ex.getMessage().contains(fumigationId.toString()));
@@ -157,21 +177,67 @@ class FumigationServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should update fumigation status successfully")
+    @DisplayName("Should update fumigation status with a conditional update and adjust the dashboard counters")
     void updateFumigationStatus_success() {
         UpdateStatusRequestDTO dto = new UpdateStatusRequestDTO();
         dto.setStatus(Status.REJECTED);
         dto.setMessage("The fumigation was rejected due to X reason");
 
-        when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
+        when(repository.updateStatuses(List.of(fumigationId), EnumSet.of(Status.PENDING), Status.REJECTED,
+                "The fumigation was rejected due to X reason")).thenReturn(1);
 
-        // Call the method to test
         subject.updateFumigationStatus(fumigationId, dto);
 
-        // Verify that the status and message are correctly updated
-        assertEquals(Status.REJECTED, fumigation.getStatus());
-        assertEquals("The fumigation was rejected due to X reason", fumigation.getMessage());
-        verify(repository, times(1)).save(fumigation); // Ensure save was called
+        verify(statusCountService).recordChange(fumigationId, Status.PENDING, Status.REJECTED);
+        verify(repository, never()).findStatusById(any());
+        verify(repository, never()).findStatusesForUpdate(any());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should take the previous status from the source whose update changed the row")
+    void updateFumigationStatus_triesEachSource() {
+        UpdateStatusRequestDTO dto = new UpdateStatusRequestDTO();
+        dto.setStatus(Status.FUMIGATED);
+
+        when(repository.updateStatuses(List.of(fumigationId), EnumSet.of(Status.APPROVED), Status.FUMIGATED, null))
+                .thenReturn(0);
+        when(repository.updateStatuses(List.of(fumigationId), EnumSet.of(Status.FAILED), Status.FUMIGATED, null))
+                .thenReturn(1);
+
+        subject.updateFumigationStatus(fumigationId, dto);
+
+        verify(statusCountService).recordChange(fumigationId, Status.FAILED, Status.FUMIGATED);
+        verify(repository, never()).findStatusById(any());
+    }
+
+    @Test
+    @DisplayName("Should clear the message when the new status does not need one")
+    void updateFumigationStatus_clearsMessage() {
+        UpdateStatusRequestDTO dto = new UpdateStatusRequestDTO();
+        dto.setStatus(Status.APPROVED);
+        dto.setMessage("Leftover");
+
+        when(repository.updateStatuses(List.of(fumigationId), EnumSet.of(Status.PENDING), Status.APPROVED, null))
+                .thenReturn(1);
+
+        subject.updateFumigationStatus(fumigationId, dto);
+
+        verify(statusCountService).recordChange(fumigationId, Status.PENDING, Status.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should fail when the status changed to another allowed source between the updates")
+    void updateFumigationStatus_concurrentChange() {
+        UpdateStatusRequestDTO dto = new UpdateStatusRequestDTO();
+        dto.setStatus(Status.APPROVED);
+
+        when(repository.findStatusById(fumigationId)).thenReturn(Optional.of(Status.PENDING));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> subject.updateFumigationStatus(fumigationId, dto));
+        verifyNoInteractions(statusCountService);
     }
 
     @Test
@@ -181,11 +247,26 @@ class FumigationServiceImplTest {
         dto.setStatus(Status.REJECTED);
         dto.setMessage("Some rejection reason");
 
-        when(repository.findById(fumigationId)).thenReturn(Optional.empty());
+        when(repository.findStatusById(fumigationId)).thenReturn(Optional.empty());
 
-        // Assert that FumigationNotFoundException is thrown
         assertThrows(FumigationNotFoundException.class,
                 () -> subject.updateFumigationStatus(fumigationId, dto));
+        verifyNoInteractions(statusCountService);
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidStatusTransitionException when the current status does not allow the change")
+    void updateFumigationStatus_invalidTransition() {
+        UpdateStatusRequestDTO dto = new UpdateStatusRequestDTO();
+        dto.setStatus(Status.APPROVED);
+
+        when(repository.findStatusById(fumigationId)).thenReturn(Optional.of(Status.FINISHED));
+
+        InvalidStatusTransitionException ex = assertThrows(InvalidStatusTransitionException.class,
+                () -> subject.updateFumigationStatus(fumigationId, dto));
+
+        assertTrue(ex.getMessage().contains("FINISHED to APPROVED"));
+        verifyNoInteractions(statusCountService);
     }
 
     @Test
@@ -194,12 +275,43 @@ class FumigationServiceImplTest {
         UpdateStatusRequestDTO dto = new UpdateStatusRequestDTO();
         dto.setStatus(Status.REJECTED); // Status is REJECTED, but no message
 
-        // Simulate that the fumigation exists
-        when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
-
         // Assert that FumigationValidationException is thrown
         assertThrows(FumigationValidationException.class,
                 () -> subject.updateFumigationStatus(fumigationId, dto));
+        verify(repository, never()).updateStatuses(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should apply a batch with one update and report the outcome of every id")
+    void updateFumigationStatuses_reportsOutcomePerId() {
+        BatchStatusUpdateRequestDTO request = new BatchStatusUpdateRequestDTO();
+        request.setIds(List.of(1L, 2L, 3L, 1L));
+        request.setStatus(Status.APPROVED);
+
+        when(repository.findStatusesForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new FumigationStatusView(1L, Status.PENDING, 10L),
+                new FumigationStatusView(3L, Status.FINISHED, 10L)));
+        when(repository.updateStatuses(any(), any(), any(), any())).thenReturn(1);
+
+        List<StatusUpdateResultDTO> results = subject.updateFumigationStatuses(request);
+
+        assertEquals(List.of(
+                new StatusUpdateResultDTO(1L, StatusUpdateResultDTO.Outcome.UPDATED, Status.APPROVED),
+                new StatusUpdateResultDTO(2L, StatusUpdateResultDTO.Outcome.NOT_FOUND, null),
+                new StatusUpdateResultDTO(3L, StatusUpdateResultDTO.Outcome.INVALID_TRANSITION, Status.FINISHED)), results);
+        verify(repository).updateStatuses(List.of(1L), Status.APPROVED.allowedSources(), Status.APPROVED, null);
+        verify(statusCountService).recordChanges(List.of(new StatusChange(10L, Status.PENDING, Status.APPROVED)));
+    }
+
+    @Test
+    @DisplayName("Should apply the single update validation rules to batches")
+    void updateFumigationStatuses_validationException() {
+        BatchStatusUpdateRequestDTO request = new BatchStatusUpdateRequestDTO();
+        request.setIds(List.of(1L));
+        request.setStatus(Status.REJECTED);
+
+        assertThrows(FumigationValidationException.class, () -> subject.updateFumigationStatuses(request));
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -208,11 +320,10 @@ class FumigationServiceImplTest {
         FumigationResponseDTO expectedDto = new FumigationResponseDTO();
 
         when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
-        when(userService.getUserReferenceById(token)).thenReturn(user);
         when(mapper.toFumigationResponseDTO(fumigation)).thenReturn(expectedDto);
 
         // Call the method to test
-        FumigationResponseDTO result = subject.getFumigationById(fumigationId, token);
+        FumigationResponseDTO result = subject.getFumigationById(fumigationId);
 
         // Verify the results
         assertNotNull(result);
@@ -227,7 +338,7 @@ class FumigationServiceImplTest {
 
         // Assert that FumigationNotFoundException is thrown
         assertThrows(FumigationNotFoundException.class,
-                () -> subject.getFumigationById(fumigationId, token));
+                () -> subject.getFumigationById(fumigationId));
     }
 
     @Test
@@ -238,14 +349,42 @@ class FumigationServiceImplTest {
         otherUser.setId(999L);
         fumigation.getFumigationApplication().getCompany().setLegalRepresentative(otherUser);
 
-        when(repository.findById(fumigationId)).thenReturn(Optional.of(fumigation));
-        when(userService.getUserReferenceById(token)).thenReturn(user); // The token belongs to a different user
+        doThrow(new UnauthorizedAccessException("Fumigation", fumigationId, user.getId()))
+                .when(authorizationService).checkFumigationAccess(fumigationId);
 
         // Assert that UnauthorizedAccessException is thrown
         UnauthorizedAccessException ex = assertThrows(UnauthorizedAccessException.class,
-                () -> subject.getFumigationById(fumigationId, token));
+                () -> subject.getFumigationById(fumigationId));
 
         assertTrue(ex.getMessage().contains("Fumigation"));
         assertTrue(ex.getMessage().contains(fumigationId.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Admins and technicians list every fumigation with the status")
+    void getFumigationsByStatus_admin_listsAll() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(authenticatedUserContext.getCurrentUser())
+                .thenReturn(new AuthenticatedUser(1L, "admin@test.com", List.of(RoleName.ROLE_ADMIN), 0L));
+        when(repository.findDetailsByStatus(Status.APPROVED, pageable)).thenReturn(Page.empty(pageable));
+
+        subject.getFumigationsByStatus("approved", pageable);
+
+        verify(repository).findDetailsByStatus(Status.APPROVED, pageable);
+        verify(repository, never()).findDetailsByStatusAndUserId(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Clients only list the fumigations of their own company")
+    void getFumigationsByStatus_client_listsOwn() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(authenticatedUserContext.getCurrentUser())
+                .thenReturn(new AuthenticatedUser(user.getId(), "client@test.com", List.of(RoleName.ROLE_CLIENT), 0L));
+        when(repository.findDetailsByStatusAndUserId(Status.APPROVED, user.getId(), pageable))
+                .thenReturn(Page.empty(pageable));
+
+        subject.getFumigationsByStatus("approved", pageable);
+
+        verify(repository, never()).findDetailsByStatus(any(), any(Pageable.class));
+    }
+}
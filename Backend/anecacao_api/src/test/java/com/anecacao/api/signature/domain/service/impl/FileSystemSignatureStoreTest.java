@@ -0,0 +1,178 @@
+package com.anecacao.api.signature.domain.service.impl;
+
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.anecacao.api.signature.data.repository.SignatureBlobRepository;
+import com.anecacao.api.signature.domain.exception.InvalidSignatureImageException;
+import com.anecacao.api.signature.domain.exception.SignatureImageTooLargeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class FileSystemSignatureStoreTest {
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F', 0, 1};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    private Path root;
+
+    @Autowired
+    private SignatureBlobRepository blobRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private FileSystemSignatureStore subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new FileSystemSignatureStore(blobRepository, new SimpleMeterRegistry(), root,
+                DataSize.ofBytes(64), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Names blobs by SHA-256 inside a prefix directory and stores identical images once")
+    void put_shardsAndDeduplicates() throws IOException {
+        StoredSignature first = subject.put(new ByteArrayInputStream(PNG));
+        StoredSignature second = subject.put(new ByteArrayInputStream(PNG));
+        StoredSignature other = subject.put(new ByteArrayInputStream(JPEG));
+
+        assertEquals(first, second);
+        assertEquals("/uploads/signatures/" + first.sha256().substring(0, 2) + "/" + first.sha256() + ".png", first.filePath());
+        assertTrue(other.filePath().endsWith(other.sha256() + ".jpg"));
+        assertEquals(2, blobFiles().size());
+        assertArrayEquals(PNG, Files.readAllBytes(subject.locate(signature(first)).orElseThrow()));
+        assertEquals(2, refCount(first.sha256()));
+        assertEquals(1, refCount(other.sha256()));
+    }
+
+    @Test
+    @DisplayName("Rejects unknown formats and oversized images without leaving files behind")
+    void put_validatesWhileStreaming() throws IOException {
+        byte[] oversized = new byte[65];
+        System.arraycopy(PNG, 0, oversized, 0, PNG.length);
+
+        assertThrows(InvalidSignatureImageException.class, () -> subject.put(new ByteArrayInputStream("GIF89a..".getBytes())));
+        assertThrows(SignatureImageTooLargeException.class, () -> subject.put(new ByteArrayInputStream(oversized)));
+        assertTrue(allFiles().isEmpty());
+        assertEquals(0, blobRepository.count());
+    }
+
+    @Test
+    @DisplayName("Releasing a blob signature drops a reference without deleting the shared file")
+    void release_decrementsReferences() throws IOException {
+        StoredSignature stored = subject.put(new ByteArrayInputStream(PNG));
+        subject.put(new ByteArrayInputStream(PNG));
+
+        subject.release(signature(stored));
+
+        assertEquals(1, refCount(stored.sha256()));
+        assertTrue(subject.locate(signature(stored)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Compaction removes old unreferenced blobs and stale temp files, and keeps everything else")
+    void compact_collectsUnreferencedBlobs() throws IOException {
+        StoredSignature released = subject.put(new ByteArrayInputStream(PNG));
+        StoredSignature referenced = subject.put(new ByteArrayInputStream(JPEG));
+        subject.release(signature(released));
+        entityManager.flush();
+        Path legacy = Files.write(root.resolve("0b0c6a4e-legacy.jpg"), JPEG);
+        Path staleTemp = Files.write(root.resolve("upload-123.tmp"), PNG);
+        Path releasedFile = subject.locate(signature(released)).orElseThrow();
+        Path referencedFile = subject.locate(signature(referenced)).orElseThrow();
+        for (Path file : List.of(legacy, staleTemp, releasedFile, referencedFile)) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        }
+
+        assertEquals(1, subject.compact());
+
+        assertFalse(Files.exists(releasedFile));
+        assertFalse(Files.exists(staleTemp));
+        assertTrue(Files.exists(referencedFile));
+        assertTrue(Files.exists(legacy));
+        assertFalse(blobRepository.existsById(released.sha256()));
+    }
+
+    @Test
+    @DisplayName("Compaction leaves recently written blobs alone even without references")
+    void compact_respectsGracePeriod() throws IOException {
+        StoredSignature stored = subject.put(new ByteArrayInputStream(PNG));
+        subject.release(signature(stored));
+
+        assertEquals(0, subject.compact());
+        assertTrue(subject.locate(signature(stored)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Keeps derived variants next to their blob and removes them together at compaction")
+    void putVariant_livesAndDiesWithBlob() throws IOException {
+        StoredSignature stored = subject.put(new ByteArrayInputStream(JPEG));
+        subject.putVariant(stored, SignatureVariant.THUMBNAIL, PNG);
+        subject.putVariant(stored, SignatureVariant.THUMBNAIL, JPEG);
+
+        Path thumbnail = subject.locate(stored, SignatureVariant.THUMBNAIL).orElseThrow();
+        assertArrayEquals(PNG, Files.readAllBytes(thumbnail));
+        assertTrue(subject.locate(stored, SignatureVariant.FULL).isEmpty());
+        assertEquals(Optional.of(stored), subject.blobOf(signature(stored)));
+
+        subject.release(signature(stored));
+        entityManager.flush();
+        Path original = subject.locate(stored, SignatureVariant.ORIGINAL).orElseThrow();
+        for (Path file : List.of(original, thumbnail)) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        }
+
+        assertEquals(1, subject.compact());
+        assertTrue(allFiles().isEmpty());
+
+        subject.putVariant(stored, SignatureVariant.FULL, PNG);
+        assertTrue(allFiles().isEmpty());
+    }
+
+    private Signature signature(StoredSignature stored) {
+        Signature signature = new Signature();
+        signature.setFilePath(stored.filePath());
+        signature.setSha256(stored.sha256());
+        return signature;
+    }
+
+    private long refCount(String sha256) {
+        entityManager.clear();
+        return blobRepository.findById(sha256).orElseThrow().getRefCount();
+    }
+
+    private List<Path> blobFiles() throws IOException {
+        return allFiles().stream().filter(file -> !file.getParent().equals(root)).toList();
+    }
+
+    private List<Path> allFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
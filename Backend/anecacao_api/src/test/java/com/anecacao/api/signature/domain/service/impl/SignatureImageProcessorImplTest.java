@@ -0,0 +1,90 @@
+package com.anecacao.api.signature.domain.service.impl;
+
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
+import com.anecacao.api.signature.domain.service.SignatureStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SignatureImageProcessorImplTest {
+    private static final StoredSignature BLOB = new StoredSignature("ab12", "/uploads/signatures/ab/ab12.png");
+
+    @TempDir
+    private Path root;
+
+    private final SignatureStore store = mock(SignatureStore.class);
+    private final Map<SignatureVariant, BufferedImage> written = new EnumMap<>(SignatureVariant.class);
+    private SignatureImageProcessorImpl subject;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        subject = new SignatureImageProcessorImpl(store, new SimpleMeterRegistry(), 1, 4, 1000, 320);
+        doAnswer(invocation -> written.put(invocation.getArgument(1),
+                ImageIO.read(new ByteArrayInputStream(invocation.<byte[]>getArgument(2)))))
+                .when(store).putVariant(eq(BLOB), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        subject.shutdown();
+    }
+
+    @Test
+    @DisplayName("Downsamples a transparent signature into a 4-bit gray canonical image and a thumbnail")
+    void process_writesGrayVariants() throws IOException {
+        BufferedImage signature = new BufferedImage(2400, 800, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = signature.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(400, 300, 1600, 200);
+        graphics.dispose();
+        Path source = root.resolve("ab12.png");
+        ImageIO.write(signature, "png", source.toFile());
+        when(store.locate(eq(BLOB), any())).thenReturn(Optional.empty());
+        when(store.locate(BLOB, SignatureVariant.ORIGINAL)).thenReturn(Optional.of(source));
+
+        subject.process(BLOB);
+
+        BufferedImage full = written.get(SignatureVariant.FULL);
+        BufferedImage thumbnail = written.get(SignatureVariant.THUMBNAIL);
+        assertEquals(1000, full.getWidth());
+        assertEquals(333, full.getHeight());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(106, thumbnail.getHeight());
+        IndexColorModel palette = assertInstanceOf(IndexColorModel.class, full.getColorModel());
+        assertEquals(4, palette.getPixelSize());
+        assertEquals(Color.WHITE.getRGB(), full.getRGB(10, 10));
+        assertTrue((full.getRGB(500, 166) & 0xFF) < 64);
+    }
+
+    @Test
+    @DisplayName("Skips images whose variants were already generated")
+    void process_skipsExistingVariants() throws IOException {
+        when(store.locate(eq(BLOB), any())).thenReturn(Optional.of(root.resolve("ab12-full.png")));
+
+        subject.process(BLOB);
+
+        verify(store, never()).locate(BLOB, SignatureVariant.ORIGINAL);
+        verify(store, never()).putVariant(any(), any(), any());
+    }
+}
@@ -0,0 +1,183 @@
+package com.anecacao.api.signature.domain.service.impl;
+
+import com.anecacao.api.reporting.data.entity.FumigationReport;
+import com.anecacao.api.reporting.data.repository.CleanupReportRepository;
+import com.anecacao.api.reporting.data.repository.FumigationReportRepository;
+import com.anecacao.api.request.creation.domain.service.FumigationAuthorizationService;
+import com.anecacao.api.signature.data.dto.SignatureContent;
+import com.anecacao.api.signature.data.dto.SignatureImageRequest;
+import com.anecacao.api.signature.data.dto.SignatureResponse;
+import com.anecacao.api.signature.data.dto.SignatureUploadRequest;
+import com.anecacao.api.signature.data.dto.SignatureVariant;
+import com.anecacao.api.signature.data.dto.StoredSignature;
+import com.anecacao.api.signature.data.entity.Signature;
+import com.anecacao.api.signature.data.repository.SignatureRepository;
+import com.anecacao.api.signature.domain.exception.InvalidSignatureImageException;
+import com.anecacao.api.signature.domain.exception.SignatureNotFoundException;
+import com.anecacao.api.signature.domain.service.SignatureImageProcessor;
+import com.anecacao.api.signature.domain.service.SignatureStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SignatureServiceImplTest {
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F', 0, 1};
+    private static final StoredSignature STORED = new StoredSignature("ab12", "/uploads/signatures/ab/ab12.jpg");
+
+    @Mock
+    private SignatureRepository signatureRepository;
+    @Mock
+    private FumigationReportRepository fumigationReportRepository;
+    @Mock
+    private CleanupReportRepository cleanupReportRepository;
+    @Mock
+    private SignatureStore signatureStore;
+    @Mock
+    private SignatureImageProcessor imageProcessor;
+    @Mock
+    private FumigationAuthorizationService authorizationService;
+    @InjectMocks
+    private SignatureServiceImpl service;
+
+    private byte[] received;
+
+    @Test
+    @DisplayName("Keeps accepting base64 data URLs in the JSON body and streams the decoded image to the store")
+    void saveSignature_decodesBase64() throws IOException {
+        givenNewFumigationSignature();
+        givenStoreReadsImage();
+        SignatureUploadRequest request = new SignatureUploadRequest();
+        request.setFumigationId(5L);
+        request.setSignatureType("technician");
+        request.setSignatureData("data:image/jpeg;base64," + Base64.getEncoder().encodeToString(JPEG));
+
+        SignatureResponse response = service.saveSignature(request);
+
+        assertArrayEquals(JPEG, received);
+        assertTrue(response.getFileUrl().startsWith("/signatures/"), "files must not be exposed under /uploads");
+        verify(signatureRepository).save(argThat(signature -> "ab12".equals(signature.getSha256())));
+        verify(imageProcessor).normalize(STORED);
+    }
+
+    @Test
+    @DisplayName("Replacing a signature releases the previous image instead of deleting it in-line")
+    void saveSignature_releasesReplacedImage() throws IOException {
+        Signature existing = new Signature();
+        existing.setId(9L);
+        existing.setSignatureType("technician");
+        existing.setFilePath("/uploads/signatures/cd/cd34.png");
+        existing.setSha256("cd34");
+        when(signatureRepository.findByFumigationReportIdAndSignatureType(5L, "technician")).thenReturn(Optional.of(existing));
+        when(signatureStore.put(any())).thenReturn(STORED);
+        when(signatureRepository.save(any(Signature.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String[] released = new String[1];
+        doAnswer(invocation -> released[0] = invocation.<Signature>getArgument(0).getSha256())
+                .when(signatureStore).release(any());
+
+        service.saveSignature(imageRequest(), new ByteArrayInputStream(JPEG));
+
+        assertEquals("cd34", released[0]);
+        assertEquals(STORED.filePath(), existing.getFilePath());
+        assertEquals("ab12", existing.getSha256());
+    }
+
+    @Test
+    @DisplayName("Rejects base64 payloads that cannot be decoded")
+    void saveSignature_rejectsInvalidBase64() throws IOException {
+        when(signatureRepository.findByFumigationReportIdAndSignatureType(5L, "technician")).thenReturn(Optional.empty());
+        givenStoreReadsImage();
+        SignatureUploadRequest request = new SignatureUploadRequest();
+        request.setFumigationId(5L);
+        request.setSignatureType("technician");
+        request.setSignatureData("not base64!");
+
+        assertThrows(InvalidSignatureImageException.class, () -> service.saveSignature(request));
+        verify(signatureRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Serves signature content only after checking access to the owning fumigation")
+    void getSignatureContent_checksFumigationAccess() {
+        Signature signature = givenStoredSignature();
+        Path thumbnail = Path.of("uploads", "signatures", "ab", "ab12-thumb.png");
+        when(signatureStore.locate(STORED, SignatureVariant.THUMBNAIL)).thenReturn(Optional.of(thumbnail));
+
+        SignatureContent content = service.getSignatureContent(9L, SignatureVariant.THUMBNAIL);
+
+        assertEquals(new SignatureContent(thumbnail, "ab12", SignatureVariant.THUMBNAIL), content);
+        assertEquals("ab12-thumb", content.etag());
+        verify(authorizationService).checkFumigationAccess(3L);
+        verifyNoInteractions(imageProcessor);
+    }
+
+    @Test
+    @DisplayName("Falls back to the original image and requeues normalization while a variant is missing")
+    void getSignatureContent_fallsBackToOriginal() {
+        givenStoredSignature();
+        when(signatureStore.locate(STORED, SignatureVariant.THUMBNAIL)).thenReturn(Optional.empty());
+
+        SignatureContent content = service.getSignatureContent(9L, SignatureVariant.THUMBNAIL);
+
+        assertEquals(SignatureVariant.ORIGINAL, content.variant());
+        assertEquals("ab12", content.etag());
+        verify(imageProcessor).normalize(STORED);
+    }
+
+    @Test
+    @DisplayName("Reports a missing signature before touching the store")
+    void getSignatureContent_notFound() {
+        when(signatureRepository.findFumigationIdById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(SignatureNotFoundException.class, () -> service.getSignatureContent(9L, SignatureVariant.FULL));
+        verifyNoInteractions(authorizationService, signatureStore);
+    }
+
+    private Signature givenStoredSignature() {
+        Signature signature = new Signature();
+        signature.setId(9L);
+        signature.setFilePath(STORED.filePath());
+        signature.setSha256(STORED.sha256());
+        when(signatureRepository.findFumigationIdById(9L)).thenReturn(Optional.of(3L));
+        when(signatureRepository.findById(9L)).thenReturn(Optional.of(signature));
+        when(signatureStore.locate(signature)).thenReturn(Optional.of(Path.of("uploads", "signatures", "ab", "ab12.jpg")));
+        when(signatureStore.blobOf(signature)).thenReturn(Optional.of(STORED));
+        return signature;
+    }
+
+    private void givenNewFumigationSignature() {
+        FumigationReport report = new FumigationReport();
+        report.setId(5L);
+        when(signatureRepository.findByFumigationReportIdAndSignatureType(5L, "technician")).thenReturn(Optional.empty());
+        when(fumigationReportRepository.findById(5L)).thenReturn(Optional.of(report));
+        when(signatureRepository.save(any(Signature.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private void givenStoreReadsImage() throws IOException {
+        when(signatureStore.put(any())).thenAnswer(invocation -> {
+            received = invocation.<InputStream>getArgument(0).readAllBytes();
+            return STORED;
+        });
+    }
+
+    private static SignatureImageRequest imageRequest() {
+        SignatureImageRequest request = new SignatureImageRequest();
+        request.setFumigationId(5L);
+        request.setSignatureType("technician");
+        return request;
+    }
+}